@@ -0,0 +1,44 @@
+package com.edu.config;
+
+import java.util.function.Supplier;
+
+// Marca el hilo actual como trabajo de reporte: sus conexiones salen del pool de reportes (ver EnrutadorDataSource)
+public final class ContextoReporte {
+
+    private static final ThreadLocal<Boolean> ACTIVO = new ThreadLocal<>();
+
+    private ContextoReporte() {
+    }
+
+    public static boolean activo() {
+        return ACTIVO.get() != null;
+    }
+
+    public static <T> T ejecutar(Supplier<T> trabajo) {
+        if (activo()) {
+            return trabajo.get();
+        }
+        ACTIVO.set(Boolean.TRUE);
+        try {
+            return trabajo.get();
+        } finally {
+            ACTIVO.remove();
+        }
+    }
+
+    // Para filtros, donde el trabajo no cabe en un Supplier (lanza excepciones verificadas)
+    static void activar() {
+        ACTIVO.set(Boolean.TRUE);
+    }
+
+    static void limpiar() {
+        ACTIVO.remove();
+    }
+
+    public static void ejecutar(Runnable trabajo) {
+        ejecutar(() -> {
+            trabajo.run();
+            return null;
+        });
+    }
+}
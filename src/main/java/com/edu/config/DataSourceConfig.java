@@ -0,0 +1,97 @@
+package com.edu.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Primario (spring.datasource.*) + réplicas de solo lectura opcionales (gesa.datasource.replicas.*)
+// + pool de reportes (gesa.datasource.reportes.*) + pool aislado para las conexiones anidadas
+// (gesa.datasource.aislado.*). Sin réplicas, las lecturas van al primario como antes
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public EnrutadorDataSource enrutadorDataSource(
+            DataSourceProperties propiedades,
+            Environment entorno,
+            @Value("${gesa.datasource.replicas.urls:}") List<String> urls,
+            @Value("${gesa.datasource.replicas.username:${spring.datasource.username}}") String usuario,
+            @Value("${gesa.datasource.replicas.password:${spring.datasource.password}}") String clave,
+            @Value("${gesa.datasource.replicas.maximo-conexiones:10}") int maximoConexiones,
+            @Value("${gesa.datasource.replicas.max-retraso-segundos:0}") long maximoRetrasoSegundos,
+            @Value("${gesa.datasource.lectura-propia-ms:5000}") long lecturaPropiaMs,
+            @Value("${gesa.datasource.aislado.maximo-conexiones:2}") int maximoConexionesAislado,
+            @Value("${gesa.datasource.reportes.url:}") String urlReportes,
+            @Value("${gesa.datasource.reportes.maximo-conexiones:0}") int maximoConexionesReportes,
+            @Value("${gesa.reportes.hilos:2}") int hilosPdf,
+            @Value("${gesa.reportes.rango.hilos:4}") int hilosRango,
+            @Value("${gesa.reportes.admision.concurrentes:2}") int reportesAdmitidos,
+            @Value("${gesa.datasource.reportes.espera-conexion-ms:5000}") long esperaConexionReportes,
+            @Value("${gesa.datasource.reportes.timeout-sentencia-ms:60000}") long timeoutSentenciaReportes) {
+        // El primario respeta spring.datasource.hikari.* como el DataSource autoconfigurado
+        HikariDataSource primario = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(entorno).bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+        if (primario.getPoolName() == null) {
+            primario.setPoolName("primario");
+        }
+
+        // Aislado: la segunda conexión de un hilo (ids de la tabla secuencias, REQUIRES_NEW); trabajo corto
+        HikariDataSource aislado = new HikariDataSource();
+        aislado.setPoolName("aislado");
+        aislado.setJdbcUrl(propiedades.determineUrl());
+        aislado.setUsername(propiedades.determineUsername());
+        aislado.setPassword(propiedades.determinePassword());
+        aislado.setDriverClassName(propiedades.getDriverClassName());
+        aislado.setMaximumPoolSize(maximoConexionesAislado);
+
+        // Reportes: pool chico y propio (no compite con las ventas) y cada SELECT cortado por MySQL
+        HikariDataSource reportes = new HikariDataSource();
+        reportes.setPoolName("reportes");
+        reportes.setJdbcUrl(urlReportes.isBlank() ? propiedades.determineUrl() : urlReportes);
+        reportes.setUsername(propiedades.determineUsername());
+        reportes.setPassword(propiedades.determinePassword());
+        reportes.setDriverClassName(propiedades.getDriverClassName());
+        // Sin tamaño explícito, una conexión por cada hilo que puede usarlo a la vez: los de PDF, los de rango
+        // y los reportes admitidos (que también ejecutan los tramos que no caben en la cola, CallerRuns)
+        reportes.setMaximumPoolSize(maximoConexionesReportes > 0 ? maximoConexionesReportes
+                : hilosPdf + hilosRango + reportesAdmitidos);
+        reportes.setConnectionTimeout(esperaConexionReportes);
+        reportes.setReadOnly(true);
+        reportes.setConnectionInitSql("SET SESSION MAX_EXECUTION_TIME = " + timeoutSentenciaReportes);
+
+        List<EnrutadorDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(usuario);
+            replica.setPassword(clave);
+            replica.setDriverClassName(propiedades.getDriverClassName());
+            replica.setMaximumPoolSize(maximoConexiones);
+            replica.setReadOnly(true);
+            replicas.add(new EnrutadorDataSource.Replica(replica.getPoolName(), replica));
+        }
+        return new EnrutadorDataSource(primario, aislado, reportes, List.copyOf(replicas), lecturaPropiaMs,
+                maximoRetrasoSegundos);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(EnrutadorDataSource enrutador) {
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+}
@@ -0,0 +1,244 @@
+package com.edu.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía cada conexión al primario, a una réplica de solo lectura o al pool de reportes.
+ * El trabajo de reportes (ver ContextoReporte) usa siempre su propio pool, aislado del de ventas.
+ * Van a réplica las transacciones declaradas con @Transactional(readOnly = true) (o un TransactionTemplate
+ * de solo lectura con nombre). Las plantillas de solo lectura sin nombre (vistas en memoria, outbox) siguen
+ * en el primario: no toleran el retraso de replicación. Todo lo demás, incluidas las escrituras, va al primario.
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy: la conexión real se pide en la primera sentencia,
+ * cuando la transacción ya marcó si es de solo lectura.
+ * Si un hilo que ya tiene una conexión del primario pide otra (Hibernate reservando ids en la tabla secuencias,
+ * una transacción REQUIRES_NEW), la segunda sale del pool aislado: esperarla del primario puede no terminar
+ * nunca cuando todas sus conexiones son de hilos que esperan a este.
+ */
+public class EnrutadorDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrutadorDataSource.class);
+
+    // Atributo de sesión con el instante (ms) de la última escritura confirmada por esa sesión
+    static final String ULTIMA_ESCRITURA = EnrutadorDataSource.class.getName() + ".ultimaEscritura";
+
+    // Conexiones del primario (o del pool aislado) que el hilo actual tiene abiertas
+    private static final ThreadLocal<int[]> ABIERTAS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final DataSource primario;
+    private final DataSource aislado;
+    private final DataSource reportes;
+    private final List<Replica> replicas;
+    private final long lecturaPropiaMs;
+    private final long maximoRetrasoSegundos;
+    private final AtomicInteger siguiente = new AtomicInteger();
+
+    static final class Replica {
+        final String nombre;
+        final DataSource dataSource;
+        volatile boolean disponible = true;
+
+        Replica(String nombre, DataSource dataSource) {
+            this.nombre = nombre;
+            this.dataSource = dataSource;
+        }
+    }
+
+    EnrutadorDataSource(DataSource primario, DataSource aislado, DataSource reportes, List<Replica> replicas,
+                        long lecturaPropiaMs, long maximoRetrasoSegundos) {
+        this.primario = primario;
+        this.aislado = aislado;
+        this.reportes = reportes;
+        this.replicas = replicas;
+        this.lecturaPropiaMs = lecturaPropiaMs;
+        this.maximoRetrasoSegundos = maximoRetrasoSegundos;
+    }
+
+    // === Conexiones ===
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conectar(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conectar(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    // Pide la conexión al pool que corresponde: reportes, réplica o primario
+    private Connection conectar(Conexion conexion) throws SQLException {
+        if (ContextoReporte.activo()) {
+            return conexion.abrir(reportes);
+        }
+        Replica replica = elegirReplica();
+        if (replica == null) {
+            marcarEscritura();
+            return abrirPrimario(conexion);
+        }
+        try {
+            return conexion.abrir(replica.dataSource);
+        } catch (SQLException e) {
+            // Se saca de la rotación hasta la próxima verificación y la lectura sigue en el primario
+            replica.disponible = false;
+            log.warn("Réplica {} no disponible; se lee del primario", replica.nombre, e);
+            return abrirPrimario(conexion);
+        }
+    }
+
+    // La primera conexión del hilo sale del primario; las anidadas, del pool aislado
+    private Connection abrirPrimario(Conexion conexion) throws SQLException {
+        int[] abiertas = ABIERTAS.get();
+        Connection real = conexion.abrir(abiertas[0] > 0 ? aislado : primario);
+        abiertas[0]++;
+        return contada(real, abiertas);
+    }
+
+    // Descuenta la conexión del hilo al cerrarla (una sola vez, aunque se cierre de nuevo)
+    private static Connection contada(Connection real, int[] abiertas) {
+        boolean[] cerrada = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "equals" -> proxy == argumentos[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        if (metodo.getName().equals("close") && !cerrada[0]) {
+                            cerrada[0] = true;
+                            abiertas[0]--;
+                        }
+                        try {
+                            yield metodo.invoke(real, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface Conexion {
+        Connection abrir(DataSource dataSource) throws SQLException;
+    }
+
+    // null = primario
+    private Replica elegirReplica() {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || TransactionSynchronizationManager.getCurrentTransactionName() == null
+                || escribioHacePoco()) {
+            return null;
+        }
+        // Round-robin entre las réplicas sanas
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            if (replica.disponible) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // === Leer lo propio: tras escribir, la sesión lee del primario durante lecturaPropiaMs ===
+    private boolean escribioHacePoco() {
+        if (lecturaPropiaMs <= 0) {
+            return false;
+        }
+        RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+        Object ultima = peticion != null ? peticion.getAttribute(ULTIMA_ESCRITURA, RequestAttributes.SCOPE_SESSION) : null;
+        return ultima != null && System.currentTimeMillis() - (Long) ultima < lecturaPropiaMs;
+    }
+
+    // Una transacción de lectura/escritura en una petición web: se anota al confirmarse
+    private void marcarEscritura() {
+        if (lecturaPropiaMs <= 0 || replicas.isEmpty()
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+        if (peticion == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                peticion.setAttribute(ULTIMA_ESCRITURA, System.currentTimeMillis(), RequestAttributes.SCOPE_SESSION);
+            }
+        });
+    }
+
+    // Cierra los pools al detener el contexto (método de destrucción inferido por Spring)
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+        if (reportes instanceof AutoCloseable pool) {
+            pool.close();
+        }
+        if (aislado instanceof AutoCloseable pool) {
+            pool.close();
+        }
+        if (primario instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    // === Salud de las réplicas ===
+
+    /**
+     * Comprueba cada réplica: conexión válida y, si se configuró un máximo, retraso de replicación
+     * (SHOW REPLICA STATUS; si el usuario no tiene permiso para consultarlo, solo se mira la conexión).
+     */
+    @Scheduled(fixedDelayString = "${gesa.datasource.replicas.verificacion-ms:10000}")
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            boolean sana;
+            try (Connection conexion = replica.dataSource.getConnection()) {
+                sana = conexion.isValid(2) && retrasoAceptable(replica, conexion);
+            } catch (SQLException e) {
+                sana = false;
+            }
+            if (sana != replica.disponible) {
+                log.info("Réplica {} {}", replica.nombre, sana ? "disponible otra vez" : "fuera de rotación");
+            }
+            replica.disponible = sana;
+        }
+    }
+
+    private boolean retrasoAceptable(Replica replica, Connection conexion) {
+        if (maximoRetrasoSegundos <= 0) {
+            return true;
+        }
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet estado = sentencia.executeQuery("SHOW REPLICA STATUS")) {
+            if (!estado.next()) {
+                return true;
+            }
+            long retraso = estado.getLong("Seconds_Behind_Source");
+            // NULL: la replicación está detenida
+            return !estado.wasNull() && retraso <= maximoRetrasoSegundos;
+        } catch (SQLException e) {
+            log.debug("No se pudo consultar el retraso de la réplica {}", replica.nombre, e);
+            return true;
+        }
+    }
+}
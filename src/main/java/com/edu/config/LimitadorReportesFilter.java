@@ -0,0 +1,88 @@
+package com.edu.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admisión de reportes síncronos: como mucho "concurrentes" a la vez y "cola" esperando turno.
+// Con la cola llena se responde 429 al instante; si la espera vence, 503. Los admitidos usan el pool de reportes
+public class LimitadorReportesFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(LimitadorReportesFilter.class);
+
+    private final Semaphore permisos;
+    private final int maximoEnCola;
+    private final long esperaMs;
+    private final AtomicInteger enCola = new AtomicInteger();
+
+    public LimitadorReportesFilter(int concurrentes, int maximoEnCola, long esperaMs) {
+        this.permisos = new Semaphore(concurrentes, true);
+        this.maximoEnCola = maximoEnCola;
+        this.esperaMs = esperaMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!intentar(0)) {
+            if (enCola.incrementAndGet() > maximoEnCola) {
+                enCola.decrementAndGet();
+                rechazar(request, response, HttpStatus.TOO_MANY_REQUESTS,
+                        "Hay demasiados reportes en curso. Intente nuevamente en unos segundos.");
+                return;
+            }
+            boolean admitido;
+            try {
+                admitido = intentar(esperaMs);
+            } finally {
+                enCola.decrementAndGet();
+            }
+            if (!admitido) {
+                rechazar(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                        "El servidor está ocupado con otros reportes. Intente nuevamente en unos segundos.");
+                return;
+            }
+        }
+
+        ContextoReporte.activar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ContextoReporte.limpiar();
+            permisos.release();
+        }
+    }
+
+    // Siempre con espera (aunque sea 0): así el semáforo justo respeta a los que ya esperan turno.
+    // tryAcquire() sin espera se les adelanta en cuanto se libera un permiso
+    private boolean intentar(long ms) {
+        try {
+            return permisos.tryAcquire(ms, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void rechazar(HttpServletRequest request, HttpServletResponse response, HttpStatus estado, String mensaje)
+            throws IOException {
+        log.debug("{} {} rechazado ({})", request.getMethod(), request.getRequestURI(), estado.value());
+        response.setStatus(estado.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, esperaMs / 1000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"mensaje\":\"" + mensaje + "\"}");
+    }
+}
@@ -0,0 +1,23 @@
+package com.edu.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Admisión de los reportes síncronos que consultan la BD (los PDF ya tienen su propia cola)
+@Configuration
+public class ReportesConfig {
+
+    @Bean
+    public FilterRegistrationBean<LimitadorReportesFilter> limitadorReportesFilter(
+            @Value("${gesa.reportes.admision.concurrentes:2}") int concurrentes,
+            @Value("${gesa.reportes.admision.cola:10}") int cola,
+            @Value("${gesa.reportes.admision.espera-ms:2000}") long esperaMs) {
+        FilterRegistrationBean<LimitadorReportesFilter> registro =
+                new FilterRegistrationBean<>(new LimitadorReportesFilter(concurrentes, cola, esperaMs));
+        registro.addUrlPatterns("/reportes/ventas/diario", "/reportes/ventas/mensual",
+                "/reportes/ventas/anual", "/reportes/ventas/resumen");
+        return registro;
+    }
+}
@@ -26,6 +26,9 @@ public class SecurityConfig {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/login", "/register", "/css/**", "/js/**").permitAll()
+                        .requestMatchers("/reportes/ventas/reconstruir-resumen").hasAuthority("ADMIN")
+                        .requestMatchers("/eventos/**").hasAuthority("ADMIN")
+                        .requestMatchers("/cache/**").hasAuthority("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
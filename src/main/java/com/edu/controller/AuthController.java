@@ -1,34 +1,29 @@
 package com.edu.controller;
 
+import com.edu.dto.ResumenDashboard;
+import com.edu.dto.VentanaVentas;
 import com.edu.entity.Usuario;
-import com.edu.entity.Venta;
-import com.edu.service.ClienteService;
-import com.edu.service.ProductoService;
+import com.edu.service.DashboardService;
+import com.edu.service.MasVendidosService;
 import com.edu.service.UsuarioService;
-import com.edu.service.VentaService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.math.BigDecimal;
-import java.util.List;
-import java.util.Map;
-
 @Controller
 @RequiredArgsConstructor
 public class AuthController {
 
     private final UsuarioService usuarioService;
 
-    private final ProductoService productoService;
-
-    private final ClienteService clienteService;
+    private final DashboardService dashboardService;
 
-    private final VentaService ventaService; // Inyecta el servicio de ventas
+    private final MasVendidosService masVendidosService;
 
     @GetMapping("/login")
     public String login() {
@@ -50,29 +45,17 @@ public class AuthController {
 
 
     @GetMapping("/index")
-    public String index(Model model) {
-        BigDecimal totalVentas = ventaService.calcularTotalVentas();
-        //Obtenemos el valor total de stock
-        Integer totalStock = productoService.SumaStock();
-        //Obtenemos el total de clientes
-        Integer totalClientes = clienteService.SumaListaClientes();
-        //ultimas 3 ventas
-        List<Venta> ultimasVentas = ventaService.obtenerUltimasVentas();
-
-        // Agrega los productos más vendidos al modelo
-        List<Map<String, Object>> productosMasVendidos = ventaService.obtenerProductosMasVendidos();
-
-
-        // Agrega las ventas mensuales para el gráfico
-        List<Map<String, Object>> ventasMensuales = ventaService.obtenerVentasMensuales();
-
-
-        model.addAttribute("totalVentas", totalVentas);
-        model.addAttribute("totalStock", totalStock);
-        model.addAttribute("totalClientes", totalClientes);
-        model.addAttribute("ultimasVentas", ultimasVentas);
-        model.addAttribute("productosMasVendidos", productosMasVendidos);
-        model.addAttribute("ventasMensuales", ventasMensuales);
+    public String index(Model model, @RequestParam(defaultValue = "HISTORICO") VentanaVentas ventana) {
+        // Los indicadores se leen de la foto en memoria (sin consultas a la BD)
+        ResumenDashboard resumen = dashboardService.obtenerResumen();
+
+        model.addAttribute("totalVentas", resumen.getTotalVentas());
+        model.addAttribute("totalStock", resumen.getTotalStock());
+        model.addAttribute("totalClientes", resumen.getTotalClientes());
+        model.addAttribute("ultimasVentas", resumen.getUltimasVentas());
+        model.addAttribute("productosMasVendidos", masVendidosService.top(ventana, 3));
+        model.addAttribute("ventana", ventana);
+        model.addAttribute("ventasMensuales", resumen.getVentasMensuales());
         return "index";
     }
 }
\ No newline at end of file
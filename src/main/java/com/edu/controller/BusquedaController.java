@@ -0,0 +1,42 @@
+package com.edu.controller;
+
+import com.edu.dto.OpcionBusqueda;
+import com.edu.service.BusquedaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/buscar")
+@RequiredArgsConstructor
+public class BusquedaController {
+
+    private final BusquedaService busquedaService;
+
+    /**
+     * AUTOCOMPLETADO DE CLIENTES / PRODUCTOS / USUARIOS (por prefijo, paginado)
+     */
+    @GetMapping("/clientes")
+    public Map<String, Object> buscarClientes(@RequestParam(defaultValue = "") String q,
+                                              @RequestParam(defaultValue = "0") int page) {
+        return respuesta(busquedaService.buscarClientes(q, page));
+    }
+
+    @GetMapping("/productos")
+    public Map<String, Object> buscarProductos(@RequestParam(defaultValue = "") String q,
+                                               @RequestParam(defaultValue = "0") int page) {
+        return respuesta(busquedaService.buscarProductos(q, page));
+    }
+
+    @GetMapping("/usuarios")
+    public Map<String, Object> buscarUsuarios(@RequestParam(defaultValue = "") String q,
+                                              @RequestParam(defaultValue = "0") int page) {
+        return respuesta(busquedaService.buscarUsuarios(q, page));
+    }
+
+    private static Map<String, Object> respuesta(Slice<OpcionBusqueda> opciones) {
+        return Map.of("opciones", opciones.getContent(), "hayMas", opciones.hasNext());
+    }
+}
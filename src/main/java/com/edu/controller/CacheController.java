@@ -0,0 +1,31 @@
+package com.edu.controller;
+
+import com.edu.dto.EstadisticasCache;
+import com.edu.service.EstadisticasCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final EstadisticasCacheService estadisticasCacheService;
+
+    /**
+     * ESTADÍSTICAS DE LA CACHÉ DE SEGUNDO NIVEL (por región)
+     */
+    @GetMapping("/estadisticas")
+    public EstadisticasCache estadisticas() {
+        return estadisticasCacheService.obtener();
+    }
+
+    /**
+     * REINICIAR LOS CONTADORES (antes de medir un flujo)
+     */
+    @PostMapping("/estadisticas/reiniciar")
+    public EstadisticasCache reiniciar() {
+        estadisticasCacheService.reiniciar();
+        return estadisticasCacheService.obtener();
+    }
+}
@@ -2,29 +2,18 @@ package com.edu.controller;
 
 import com.edu.entity.Cliente;
 import com.edu.service.ClienteService;
-import com.edu.service.PdfService;
+import com.edu.service.TotalesService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import java.io.ByteArrayInputStream;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
 
 @Controller
 @RequestMapping("/clientes")
@@ -34,10 +23,7 @@ public class ClienteController {
     private ClienteService clienteService;
 
     @Autowired
-    private SpringTemplateEngine templateEngine;
-
-    @Autowired
-    private PdfService pdfService;
+    private TotalesService totalesService;
 
     /**
      * LISTAR CLIENTES
@@ -53,21 +39,31 @@ public class ClienteController {
     public String listarClientes(
             Model model,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(required = false) String keyword
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String despues,
+            @RequestParam(required = false) String antes,
+            @RequestParam(defaultValue = "false") boolean contar
     ) {
-        Pageable pageable = PageRequest.of(page, 10); // 10 registros por página
-        Page<Cliente> clientesPage;
-
         if (keyword != null && !keyword.isEmpty()) {
-            clientesPage = clienteService.buscarClientes(keyword, pageable);
-            model.addAttribute("keyword", keyword); // para que el input mantenga el valor
+            // Búsqueda: paginación por número de página
+            Pageable pageable = PageRequest.of(page, 10);
+            Page<Cliente> clientesPage = clienteService.buscarClientes(keyword, pageable);
+            model.addAttribute("keyword", keyword);
+            model.addAttribute("clientesPage", clientesPage);
+            model.addAttribute("currentPage", page);
+            model.addAttribute("modoCursor", false);
         } else {
-            clientesPage = clienteService.listarClientes(pageable);
+            // Listado: paginación por cursor (sin OFFSET ni COUNT)
+            model.addAttribute("clientesPage", clienteService.listarClientes(despues, antes, 10));
+            model.addAttribute("modoCursor", true);
+            // Total aproximado desde caché; el exacto (COUNT) solo si se pide
+            model.addAttribute("totalEstimado", totalesService.estimado(Cliente.class));
+            if (contar) {
+                model.addAttribute("totalExacto", totalesService.exacto(Cliente.class));
+            }
         }
 
         model.addAttribute("nuevoCliente", new Cliente()); // para el modal de registro
-        model.addAttribute("clientesPage", clientesPage);
-        model.addAttribute("currentPage", page);
 
         return "clientes"; // tu vista con la tabla
     }
@@ -156,36 +152,4 @@ public class ClienteController {
 
         return "redirect:/clientes";
     }
-
-
-    @PostMapping("/exportar-pdf")
-    public ResponseEntity<InputStreamResource> exportarClientesPorFechas(
-            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
-            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin
-    ) throws Exception {
-
-        LocalDateTime inicioDateTime = fechaInicio.atStartOfDay();
-        LocalDateTime finDateTime = fechaFin.atTime(23, 59, 59);
-
-        List<Cliente> clientes = clienteService.listarClientesRegistradosEntre(inicioDateTime, finDateTime);
-
-        if (clientes.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-
-        Context context = new Context();
-        context.setVariable("clientes", clientes);
-        String html = templateEngine.process("pdf/clientes-pdf", context);
-
-
-        ByteArrayInputStream pdfStream = pdfService.generarPdfDesdeHtml(html);
-
-        String filename = "clientes_" + LocalDate.now() + ".pdf";
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(new InputStreamResource(pdfStream));
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package com.edu.controller;
+
+import com.edu.service.EventoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/eventos")
+@RequiredArgsConstructor
+public class EventoController {
+
+    private final EventoService eventoService;
+
+    /**
+     * POSICIÓN DE CADA SUSCRIPTOR DEL OUTBOX (último evento entregado)
+     */
+    @GetMapping("/suscriptores")
+    public Map<String, Long> posiciones() {
+        return eventoService.posiciones();
+    }
+
+    /**
+     * RECONSTRUIR LA VISTA DE UN SUSCRIPTOR DESDE LA BD (en su hilo, antes del siguiente lote)
+     */
+    @PostMapping("/suscriptores/{nombre}/reconstruir")
+    public Map<String, Object> reconstruir(@PathVariable String nombre) {
+        eventoService.reconstruir(nombre);
+        return Map.of("suscriptor", nombre, "reconstruccion", "solicitada");
+    }
+}
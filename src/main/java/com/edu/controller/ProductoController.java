@@ -1,20 +1,33 @@
 package com.edu.controller;
 
+import com.edu.dto.MovimientoKardex;
+import com.edu.dto.ProductoCodigo;
 import com.edu.entity.Categoria;
 import com.edu.entity.Producto;
+import com.edu.service.CodigoProductoService;
+import com.edu.service.KardexService;
 import com.edu.service.ProductoService;
+import com.edu.service.TotalesService;
 import com.edu.service.ProveedorService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
 @Controller
 @RequestMapping("/productos")
 public class ProductoController {
@@ -22,9 +35,18 @@ public class ProductoController {
     @Autowired
     private ProductoService productoService;
 
+    @Autowired
+    private TotalesService totalesService;
+
     @Autowired
     private ProveedorService proveedorService;
 
+    @Autowired
+    private CodigoProductoService codigoProductoService;
+
+    @Autowired
+    private KardexService kardexService;
+
     /**
      * LISTAR PRODUCTOS CON PAGINACIÓN Y BÚSQUEDA
      */
@@ -32,21 +54,31 @@ public class ProductoController {
     public String listarProductos(
             Model model,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(required = false) String keyword
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String despues,
+            @RequestParam(required = false) String antes,
+            @RequestParam(defaultValue = "false") boolean contar
     ) {
-        Pageable pageable = PageRequest.of(page, 10);
-        Page<Producto> productosPage;
-
         if (keyword != null && !keyword.isEmpty()) {
-            productosPage = productoService.buscarProductos(keyword, pageable);
+            // Búsqueda: paginación por número de página
+            Pageable pageable = PageRequest.of(page, 10);
+            Page<Producto> productosPage = productoService.buscarProductos(keyword, pageable);
             model.addAttribute("keyword", keyword);
+            model.addAttribute("productosPage", productosPage);
+            model.addAttribute("currentPage", page);
+            model.addAttribute("modoCursor", false);
         } else {
-            productosPage = productoService.listarProductos(pageable);
+            // Listado: paginación por cursor (sin OFFSET ni COUNT)
+            model.addAttribute("productosPage", productoService.listarProductos(despues, antes, 10));
+            model.addAttribute("modoCursor", true);
+            // Total aproximado desde caché; el exacto (COUNT) solo si se pide
+            model.addAttribute("totalEstimado", totalesService.estimado(Producto.class));
+            if (contar) {
+                model.addAttribute("totalExacto", totalesService.exacto(Producto.class));
+            }
         }
 
         model.addAttribute("nuevoProducto", new Producto()); // para modal de registro
-        model.addAttribute("productosPage", productosPage);
-        model.addAttribute("currentPage", page);
 
         // listas necesarias para selects
         model.addAttribute("proveedores", proveedorService.listarProveedores());
@@ -55,6 +87,42 @@ public class ProductoController {
         return "productos";
     }
 
+    /**
+     * BUSCAR POR CÓDIGO DE BARRAS (punto de venta; responde desde memoria)
+     */
+    @GetMapping("/codigo/{codigo}")
+    @ResponseBody
+    public ResponseEntity<ProductoCodigo> buscarPorCodigo(@PathVariable String codigo) {
+        return ResponseEntity.of(codigoProductoService.buscar(codigo));
+    }
+
+    /**
+     * KARDEX: MOVIMIENTOS DE STOCK DE UN PRODUCTO EN UN RANGO DE FECHAS
+     */
+    @GetMapping("/{id}/kardex")
+    @ResponseBody
+    public List<MovimientoKardex> kardex(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        return kardexService.movimientos(id, desde.atStartOfDay(), hasta.atTime(LocalTime.MAX));
+    }
+
+    /**
+     * STOCK DE UN PRODUCTO A UNA FECHA (por defecto, ahora)
+     */
+    @GetMapping("/{id}/stock")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> stockEn(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha
+    ) {
+        LocalDateTime momento = fecha != null ? fecha : LocalDateTime.now();
+        return ResponseEntity.of(kardexService.stockEn(id, momento)
+                .map(stock -> Map.of("productoId", id, "fecha", momento, "stock", stock)));
+    }
+
     /**
      * REGISTRAR PRODUCTO
      */
@@ -2,6 +2,7 @@ package com.edu.controller;
 
 import com.edu.entity.Proveedor;
 import com.edu.service.ProveedorService;
+import com.edu.service.TotalesService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -20,6 +21,9 @@ public class ProveedorController {
     @Autowired
     private ProveedorService proveedorService;
 
+    @Autowired
+    private TotalesService totalesService;
+
     /**
      * LISTAR PROVEEDORES CON PAGINACIÓN Y BÚSQUEDA
      */
@@ -27,21 +31,31 @@ public class ProveedorController {
     public String listarProveedores(
             Model model,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(required = false) String keyword
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String despues,
+            @RequestParam(required = false) String antes,
+            @RequestParam(defaultValue = "false") boolean contar
     ) {
-        Pageable pageable = PageRequest.of(page, 10);
-        Page<Proveedor> proveedoresPage;
-
         if (keyword != null && !keyword.isEmpty()) {
-            proveedoresPage = proveedorService.buscarProveedores(keyword, pageable);
+            // Búsqueda: paginación por número de página
+            Pageable pageable = PageRequest.of(page, 10);
+            Page<Proveedor> proveedoresPage = proveedorService.buscarProveedores(keyword, pageable);
             model.addAttribute("keyword", keyword);
+            model.addAttribute("proveedoresPage", proveedoresPage);
+            model.addAttribute("currentPage", page);
+            model.addAttribute("modoCursor", false);
         } else {
-            proveedoresPage = proveedorService.listarProveedores(pageable);
+            // Listado: paginación por cursor (sin OFFSET ni COUNT)
+            model.addAttribute("proveedoresPage", proveedorService.listarProveedores(despues, antes, 10));
+            model.addAttribute("modoCursor", true);
+            // Total aproximado desde caché; el exacto (COUNT) solo si se pide
+            model.addAttribute("totalEstimado", totalesService.estimado(Proveedor.class));
+            if (contar) {
+                model.addAttribute("totalExacto", totalesService.exacto(Proveedor.class));
+            }
         }
 
         model.addAttribute("nuevoProveedor", new Proveedor()); // para el modal de registro
-        model.addAttribute("proveedoresPage", proveedoresPage);
-        model.addAttribute("currentPage", page);
 
         return "proveedores"; // vista con la tabla
     }
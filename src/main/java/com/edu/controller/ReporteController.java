@@ -0,0 +1,206 @@
+package com.edu.controller;
+
+import com.edu.dto.ConsultaVentas;
+import com.edu.dto.DimensionVentas;
+import com.edu.dto.FilaAnalitica;
+import com.edu.dto.ProductoVendido;
+import com.edu.dto.ResumenRango;
+import com.edu.dto.TipoReporte;
+import com.edu.dto.TrabajoReporte;
+import com.edu.dto.VentanaVentas;
+import com.edu.entity.Categoria;
+import com.edu.entity.EstadoVenta;
+import com.edu.exception.BusinessException;
+import com.edu.service.AnaliticaVentasService;
+import com.edu.service.ContadorService;
+import com.edu.service.MasVendidosService;
+import com.edu.service.ReporteTrabajoService;
+import com.edu.service.ResumenRangoService;
+import com.edu.service.ResumenVentasService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/reportes")
+@RequiredArgsConstructor
+public class ReporteController {
+
+    private final ResumenVentasService resumenVentasService;
+    private final ReporteTrabajoService reporteTrabajoService;
+    private final ContadorService contadorService;
+    private final MasVendidosService masVendidosService;
+    private final AnaliticaVentasService analiticaVentasService;
+    private final ResumenRangoService resumenRangoService;
+
+    /**
+     * VENTAS POR DÍA / MES / AÑO (desde el resumen ventas_diarias)
+     */
+    @GetMapping("/ventas/diario")
+    public List<Map<String, Object>> ventasPorDia(
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin
+    ) {
+        return resumenVentasService.ventasPorDia(fechaInicio, fechaFin);
+    }
+
+    @GetMapping("/ventas/mensual")
+    public List<Map<String, Object>> ventasPorMes(
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin
+    ) {
+        return resumenVentasService.ventasPorMes(fechaInicio, fechaFin);
+    }
+
+    @GetMapping("/ventas/anual")
+    public List<Map<String, Object>> ventasPorAnio(
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin
+    ) {
+        return resumenVentasService.ventasPorAnio(fechaInicio, fechaFin);
+    }
+
+    /**
+     * RESUMEN DE UN RANGO LARGO (por meses en paralelo, desde ventas y detalle_venta)
+     */
+    @GetMapping("/ventas/resumen")
+    public ResumenRango resumenRango(
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin
+    ) {
+        return resumenRangoService.resumir(fechaInicio, fechaFin);
+    }
+
+    /**
+     * CONTADORES POR ENTIDAD Y ESTADO (desde memoria, sin consultar la BD)
+     */
+    @GetMapping("/contadores")
+    public Map<String, Long> contadores() {
+        return contadorService.todos();
+    }
+
+    /**
+     * PRODUCTOS MÁS VENDIDOS POR VENTANA (desde memoria)
+     */
+    @GetMapping("/mas-vendidos")
+    public List<ProductoVendido> masVendidos(
+            @RequestParam(defaultValue = "HISTORICO") VentanaVentas ventana,
+            @RequestParam(defaultValue = "10") int n
+    ) {
+        if (n < 1 || n > 100) {
+            throw new BusinessException("n debe estar entre 1 y 100.");
+        }
+        return masVendidosService.top(ventana, n);
+    }
+
+    /**
+     * AGREGACIONES SOBRE EL HISTÓRICO DE VENTAS (almacén columnar en memoria, sin consultar la BD)
+     */
+    @GetMapping("/analitica")
+    public ResponseEntity<?> analitica(
+            @RequestParam(defaultValue = "DIA") DimensionVentas agruparPor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Set<EstadoVenta> estado,
+            @RequestParam(required = false) Long productoId,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) Categoria categoria
+    ) {
+        if (!analiticaVentasService.disponible()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("mensaje", "El almacén analítico se está cargando; intente en unos segundos."));
+        }
+        List<FilaAnalitica> filas = analiticaVentasService.agrupar(ConsultaVentas.builder()
+                .agruparPor(agruparPor)
+                .desde(desde)
+                .hasta(hasta)
+                .estados(estado)
+                .productoId(productoId)
+                .clienteId(clienteId)
+                .usuarioId(usuarioId)
+                .categoria(categoria)
+                .build());
+        return ResponseEntity.ok(filas);
+    }
+
+    /**
+     * RECONSTRUIR EL RESUMEN DIARIO DESDE EL HISTÓRICO (solo ADMIN)
+     */
+    @PostMapping("/ventas/reconstruir-resumen")
+    public Map<String, Object> reconstruirResumen() {
+        return Map.of("mesesProcesados", resumenVentasService.reconstruir());
+    }
+
+    /**
+     * SOLICITAR UN REPORTE PDF (se genera en segundo plano)
+     */
+    @PostMapping("/trabajos")
+    public ResponseEntity<Map<String, Object>> solicitarReporte(
+            @RequestParam("tipo") TipoReporte tipo,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            Principal principal
+    ) {
+        try {
+            TrabajoReporte trabajo = reporteTrabajoService.encolar(
+                    tipo, fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59), principal.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(estado(trabajo));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("mensaje", e.getMessage()));
+        }
+    }
+
+    /**
+     * CONSULTAR EL ESTADO DE UN REPORTE
+     */
+    @GetMapping("/trabajos/{id}")
+    public ResponseEntity<Map<String, Object>> consultarReporte(@PathVariable String id, Principal principal) {
+        return reporteTrabajoService.buscar(id, principal.getName())
+                .map(trabajo -> ResponseEntity.ok(estado(trabajo)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * DESCARGAR UN REPORTE TERMINADO
+     */
+    @GetMapping("/trabajos/{id}/descargar")
+    public ResponseEntity<Resource> descargarReporte(@PathVariable String id, Principal principal) {
+        TrabajoReporte trabajo = reporteTrabajoService.buscar(id, principal.getName()).orElse(null);
+        if (trabajo == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (trabajo.getEstado() != TrabajoReporte.Estado.COMPLETADO) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + trabajo.getNombreArchivo())
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(new FileSystemResource(trabajo.getArchivo()));
+    }
+
+    private Map<String, Object> estado(TrabajoReporte trabajo) {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("id", trabajo.getId());
+        estado.put("tipo", trabajo.getTipo());
+        estado.put("estado", trabajo.getEstado());
+        if (trabajo.getMensaje() != null) {
+            estado.put("mensaje", trabajo.getMensaje());
+        }
+        return estado;
+    }
+}
@@ -5,26 +5,15 @@ import com.edu.entity.Venta;
 import com.edu.service.*;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import java.io.ByteArrayInputStream;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
 
 @Controller
 @RequestMapping("/ventas")
@@ -34,18 +23,7 @@ public class VentaController {
     private VentaService ventaService;
 
     @Autowired
-    private ClienteService clienteService;
-    @Autowired
-    private ProductoService productoService;
-
-    @Autowired
-    private UsuarioService usuarioService;
-
-    @Autowired
-    private SpringTemplateEngine templateEngine;
-
-    @Autowired
-    private PdfService pdfService;
+    private TotalesService totalesService;
 
     /**
      * LISTAR VENTAS CON PAGINACIÓN Y BÚSQUEDA
@@ -54,26 +32,33 @@ public class VentaController {
     public String listarVentas(
             Model model,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(required = false) String keyword
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String despues,
+            @RequestParam(required = false) String antes,
+            @RequestParam(defaultValue = "false") boolean contar
     ) {
-        Pageable pageable = PageRequest.of(page, 10);
-        Page<Venta> ventasPage;
-
         if (keyword != null && !keyword.isEmpty()) {
-            ventasPage = ventaService.buscarVentas(keyword, pageable);
+            // Búsqueda: paginación por número de página
+            Pageable pageable = PageRequest.of(page, 10);
+            Page<Venta> ventasPage = ventaService.buscarVentas(keyword, pageable);
             model.addAttribute("keyword", keyword);
+            model.addAttribute("ventasPage", ventasPage);
+            model.addAttribute("currentPage", page);
+            model.addAttribute("modoCursor", false);
         } else {
-            ventasPage = ventaService.listarVentas(pageable);
+            // Listado: paginación por cursor (sin OFFSET ni COUNT)
+            model.addAttribute("ventasPage", ventaService.listarVentas(despues, antes, 10));
+            model.addAttribute("modoCursor", true);
+            // Total aproximado desde caché; el exacto (COUNT) solo si se pide
+            model.addAttribute("totalEstimado", totalesService.estimado(Venta.class));
+            if (contar) {
+                model.addAttribute("totalExacto", totalesService.exacto(Venta.class));
+            }
         }
 
         model.addAttribute("nuevaVenta", new Venta()); // para modal de registro
-        model.addAttribute("ventasPage", ventasPage);
-        model.addAttribute("currentPage", page);
 
-        // listas necesarias para selects
-        model.addAttribute("clientes", clienteService.listarClientes());
-        model.addAttribute("usuarios", usuarioService.listarUsuarios());
-        model.addAttribute("productos", productoService.listarProductos());
+        // Clientes, productos y usuarios se buscan desde el formulario (/buscar/**)
         model.addAttribute("estados", EstadoVenta.values());
 
         return "ventas";
@@ -145,37 +130,4 @@ public class VentaController {
 
         return "redirect:/ventas";
     }
-
-
-
-    @PostMapping("/exportar-pdf")
-    public ResponseEntity<InputStreamResource> exportarVentasPorFechas(
-            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
-            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin
-    ) throws Exception {
-
-        LocalDateTime inicioDateTime = fechaInicio.atStartOfDay();
-        LocalDateTime finDateTime = fechaFin.atTime(23, 59, 59);
-
-        List<Venta> ventas = ventaService.listarVentasEntreFechas(inicioDateTime, finDateTime);
-
-        if (ventas.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-
-        Context context = new Context();
-        context.setVariable("ventas", ventas);
-        String html = templateEngine.process("pdf/ventas-pdf", context);
-
-
-        ByteArrayInputStream pdfStream = pdfService.generarPdfDesdeHtml(html);
-
-        String filename = "ventas_" + LocalDate.now() + ".pdf";
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(new InputStreamResource(pdfStream));
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.edu.dto;
+
+import com.edu.entity.Categoria;
+import com.edu.entity.EstadoVenta;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Consulta al motor analítico: agrupación + filtros opcionales (null = sin filtro)
+@Value
+@Builder
+public class ConsultaVentas {
+    DimensionVentas agruparPor;
+    LocalDate desde;
+    LocalDate hasta;
+    // Vacío = PENDIENTE y PAGADA (las anuladas no suman, como en el resumen diario)
+    Set<EstadoVenta> estados;
+    Long productoId;
+    Long clienteId;
+    Long usuarioId;
+    Categoria categoria;
+}
@@ -0,0 +1,11 @@
+package com.edu.dto;
+
+// Columna por la que agrupa el motor analítico de ventas
+public enum DimensionVentas {
+    DIA,
+    PRODUCTO,
+    CLIENTE,
+    USUARIO,
+    CATEGORIA,
+    ESTADO
+}
@@ -0,0 +1,27 @@
+package com.edu.dto;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+// Estadísticas de la caché de segundo nivel de Hibernate desde el último reinicio
+@Value
+public class EstadisticasCache {
+    Instant desde;
+    // Sentencias enviadas a la BD: la métrica para comparar un flujo con y sin caché
+    long sentenciasBd;
+    long entidadesCargadas;
+    long consultasCacheAciertos;
+    long consultasCacheFallos;
+    List<Region> regiones;
+
+    @Value
+    public static class Region {
+        String nombre;
+        long aciertos;
+        long fallos;
+        long escrituras;
+        long elementos;
+    }
+}
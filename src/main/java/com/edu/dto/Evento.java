@@ -0,0 +1,25 @@
+package com.edu.dto;
+
+import com.edu.entity.TipoEvento;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Evento del outbox tal como lo recibe un suscriptor
+@Value
+public class Evento {
+    Long id;
+    TipoEvento tipo;
+    Long agregadoId;
+    Map<String, Object> datos;
+    LocalDateTime creado;
+
+    public int entero(String clave) {
+        return datos.get(clave) instanceof Number numero ? numero.intValue() : 0;
+    }
+
+    public boolean booleano(String clave) {
+        return Boolean.TRUE.equals(datos.get(clave));
+    }
+}
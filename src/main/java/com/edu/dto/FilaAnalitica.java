@@ -0,0 +1,15 @@
+package com.edu.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+// Un grupo del resultado analítico. clave: LocalDate, id (Long), Categoria o EstadoVenta según la dimensión.
+// ventas: ventas distintas; si la consulta es por producto o categoría, líneas de venta
+@Value
+public class FilaAnalitica {
+    Object clave;
+    long ventas;
+    long unidades;
+    BigDecimal importe;
+}
@@ -0,0 +1,15 @@
+package com.edu.dto;
+
+import com.edu.entity.TipoMovimiento;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Línea del kardex de un producto
+@Value
+public class MovimientoKardex {
+    LocalDateTime fecha;
+    TipoMovimiento tipo;
+    Integer cantidad;
+    Long ventaId;
+}
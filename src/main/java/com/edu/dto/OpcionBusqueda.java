@@ -0,0 +1,10 @@
+package com.edu.dto;
+
+import lombok.Value;
+
+// Resultado de las búsquedas por prefijo de los formularios (id + texto a mostrar)
+@Value
+public class OpcionBusqueda {
+    Long id;
+    String texto;
+}
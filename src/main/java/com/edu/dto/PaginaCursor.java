@@ -0,0 +1,59 @@
+package com.edu.dto;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de un listado por cursor (keyset): en lugar de OFFSET + COUNT(*) se busca
+ * a partir de la clave de la última fila vista, así que una página profunda cuesta
+ * lo mismo que la primera. siguiente / anterior son null cuando no hay más filas.
+ */
+@Value
+public class PaginaCursor<T> {
+    List<T> content;
+    String siguiente;
+    String anterior;
+
+    /**
+     * Arma la página a partir de las filas leídas con tamanio + 1 de límite
+     * (la fila extra solo indica si hay más en esa dirección).
+     *
+     * @param filas       filas en el orden de lectura (invertido si haciaAtras)
+     * @param haciaAtras  true si se navegó con el cursor "antes"
+     * @param desdeCursor true si la lectura partió de un cursor (no es la primera página)
+     */
+    public static <T> PaginaCursor<T> de(List<T> filas, int tamanio, boolean haciaAtras,
+                                         boolean desdeCursor, Function<T, String> clave) {
+        boolean hayMas = filas.size() > tamanio;
+        List<T> contenido = new ArrayList<>(hayMas ? filas.subList(0, tamanio) : filas);
+        if (haciaAtras) {
+            Collections.reverse(contenido);
+        }
+        if (contenido.isEmpty()) {
+            return new PaginaCursor<>(contenido, null, null);
+        }
+
+        String primera = clave.apply(contenido.get(0));
+        String ultima = clave.apply(contenido.get(contenido.size() - 1));
+        if (haciaAtras) {
+            return new PaginaCursor<>(contenido, ultima, hayMas ? primera : null);
+        }
+        return new PaginaCursor<>(contenido, hayMas ? ultima : null, desdeCursor ? primera : null);
+    }
+
+    // Cursor de listados ordenados solo por id; null si viene vacío o mal formado
+    public static Long leerId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.edu.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+// Lo que necesita el punto de venta al escanear un código: producto, precio y stock
+@Value
+public class ProductoCodigo {
+    Long id;
+    String codigo;
+    String nombre;
+    BigDecimal precio;
+    // Disponible para vender: stock menos lo reservado por ventas PENDIENTE
+    int stock;
+}
@@ -0,0 +1,11 @@
+package com.edu.dto;
+
+import lombok.Value;
+
+// Producto y cantidad total vendida (ranking del dashboard)
+@Value
+public class ProductoVendido {
+    Long id;
+    String nombre;
+    long totalVendido;
+}
@@ -0,0 +1,17 @@
+package com.edu.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Foto inmutable de los indicadores del dashboard
+@Value
+public class ResumenDashboard {
+    BigDecimal totalVentas;
+    long totalStock;
+    long totalClientes;
+    List<VentaReciente> ultimasVentas;
+    List<Map<String, Object>> ventasMensuales;
+}
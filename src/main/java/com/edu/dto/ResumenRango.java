@@ -0,0 +1,41 @@
+package com.edu.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Resumen de ventas de un rango largo, calculado por tramos mensuales en paralelo
+@Value
+public class ResumenRango {
+    LocalDate inicio;
+    LocalDate fin;
+    long numeroVentas;
+    long ventasAnuladas;
+    BigDecimal total;
+    List<Mes> meses;
+    List<Item> productos;
+    List<Item> clientes;
+    // Consultas en paralelo y tiempo total
+    int tramos;
+    long milisegundos;
+
+    @Value
+    public static class Mes {
+        int anio;
+        int mes;
+        long numeroVentas;
+        long ventasAnuladas;
+        BigDecimal total;
+    }
+
+    // cantidad: unidades vendidas (productos) o número de ventas (clientes)
+    @Value
+    public static class Item {
+        Long id;
+        String nombre;
+        long cantidad;
+        BigDecimal total;
+    }
+}
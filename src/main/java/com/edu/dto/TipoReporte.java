@@ -0,0 +1,7 @@
+package com.edu.dto;
+
+// Reportes PDF que se pueden generar en segundo plano
+public enum TipoReporte {
+    VENTAS,
+    CLIENTES
+}
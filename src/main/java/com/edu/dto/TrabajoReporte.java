@@ -0,0 +1,64 @@
+package com.edu.dto;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+// Estado de un reporte encolado; lo actualiza el hilo que lo genera y lo leen las consultas de estado
+@Getter
+public class TrabajoReporte {
+
+    public enum Estado {
+        EN_COLA,
+        PROCESANDO,
+        COMPLETADO,
+        SIN_DATOS,
+        ERROR
+    }
+
+    private final String id;
+    private final TipoReporte tipo;
+    private final LocalDateTime fechaInicio;
+    private final LocalDateTime fechaFin;
+    private final String usuario;
+    private final LocalDateTime creado = LocalDateTime.now();
+
+    private volatile Estado estado = Estado.EN_COLA;
+    private volatile String mensaje;
+    private volatile Path archivo;
+    private volatile LocalDateTime finalizado;
+
+    public TrabajoReporte(String id, TipoReporte tipo, LocalDateTime fechaInicio, LocalDateTime fechaFin, String usuario) {
+        this.id = id;
+        this.tipo = tipo;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.usuario = usuario;
+    }
+
+    public String getNombreArchivo() {
+        return tipo.name().toLowerCase() + "_" + creado.toLocalDate() + ".pdf";
+    }
+
+    public void iniciar() {
+        estado = Estado.PROCESANDO;
+    }
+
+    public void completar(Path archivo) {
+        this.archivo = archivo;
+        this.finalizado = LocalDateTime.now();
+        this.estado = Estado.COMPLETADO;
+    }
+
+    public void sinDatos() {
+        this.finalizado = LocalDateTime.now();
+        this.estado = Estado.SIN_DATOS;
+    }
+
+    public void fallar(String mensaje) {
+        this.mensaje = mensaje;
+        this.finalizado = LocalDateTime.now();
+        this.estado = Estado.ERROR;
+    }
+}
@@ -0,0 +1,15 @@
+package com.edu.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Vista mínima de una venta para el dashboard (no mantiene entidades en memoria)
+@Value
+public class VentaReciente {
+    Long id;
+    String cliente;
+    BigDecimal total;
+    LocalDateTime fechaVenta;
+}
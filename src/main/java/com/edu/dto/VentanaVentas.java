@@ -0,0 +1,19 @@
+package com.edu.dto;
+
+// Ventanas del ranking de más vendidos: días hacia atrás contando hoy (0 = todo el histórico)
+public enum VentanaVentas {
+    HOY(1),
+    SIETE_DIAS(7),
+    TREINTA_DIAS(30),
+    HISTORICO(0);
+
+    private final int dias;
+
+    VentanaVentas(int dias) {
+        this.dias = dias;
+    }
+
+    public int getDias() {
+        return dias;
+    }
+}
@@ -0,0 +1,29 @@
+package com.edu.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Último checkpoint de un contador en memoria (ver ContadorService); clave p. ej. "productos:BEBIDAS:ACTIVO"
+@Entity
+@Table(name = "contadores")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Contador {
+
+    @Id
+    @Column(length = 100)
+    private String clave;
+
+    @Column(nullable = false)
+    private Long valor;
+
+    @Column(nullable = false)
+    private LocalDateTime actualizado;
+}
@@ -0,0 +1,51 @@
+package com.edu.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "detalle_venta")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleVenta {
+
+    // Generador por tabla con allocationSize > 1: Hibernate reserva bloques de ids
+    // y puede agrupar los INSERT en lotes JDBC (IDENTITY desactiva el batching)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "detalle_venta_gen")
+    @TableGenerator(name = "detalle_venta_gen", table = "secuencias",
+            pkColumnName = "nombre", valueColumnName = "valor",
+            pkColumnValue = "detalle_venta", allocationSize = 50)
+    private Long id;
+
+    // Venta (cabecera) a la que pertenece la línea
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "venta_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_detalle_venta"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Venta venta;
+
+    // Producto vendido en esta línea
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_detalle_producto"))
+    private Producto producto;
+
+    @NotNull(message = "La cantidad es obligatoria")
+    @Min(value = 1, message = "La cantidad debe ser al menos 1")
+    @Column(nullable = false)
+    private Integer cantidad;
+
+    // Precio del producto al momento de la venta
+    @Column(name = "precio_unitario", nullable = false, precision = 12, scale = 2)
+    private BigDecimal precioUnitario;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal subtotal;
+}
@@ -0,0 +1,40 @@
+package com.edu.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Outbox: evento de dominio escrito en la misma transacción que el cambio que lo origina.
+// El despachador lo entrega después a los suscriptores en orden de id.
+@Entity
+@Table(name = "eventos_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoOutbox {
+
+    // IDENTITY: el orden de los ids es el orden de entrega (un generador por bloques lo desordenaría)
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEvento tipo;
+
+    // Id de la venta, producto, cliente... al que se refiere el evento
+    @Column(name = "agregado_id", nullable = false)
+    private Long agregadoId;
+
+    // Datos del momento del evento que no se pueden releer después (JSON)
+    @Column(length = 500)
+    private String datos;
+
+    @Column(nullable = false)
+    private LocalDateTime creado;
+}
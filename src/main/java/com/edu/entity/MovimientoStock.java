@@ -0,0 +1,53 @@
+package com.edu.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Kardex: un movimiento de stock por producto (solo inserciones, nunca se modifica ni se borra).
+// El stock a una fecha es la última SnapshotStock anterior más los movimientos posteriores.
+@Entity
+@Table(name = "movimientos_stock",
+        indexes = {
+                @Index(name = "idx_movimiento_producto_fecha", columnList = "producto_id, fecha")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoStock {
+
+    // Ver Venta: generador por tabla para insertar los movimientos de una venta en lote
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "movimiento_gen")
+    @TableGenerator(name = "movimiento_gen", table = "secuencias",
+            pkColumnName = "nombre", valueColumnName = "valor",
+            pkColumnValue = "movimientos_stock", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_movimiento_producto"))
+    private Producto producto;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoMovimiento tipo;
+
+    // Positiva si entra stock, negativa si sale
+    @Column(nullable = false)
+    private Integer cantidad;
+
+    // Venta que originó el movimiento (VENTA / ANULACION)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "venta_id",
+            foreignKey = @ForeignKey(name = "fk_movimiento_venta"))
+    private Venta venta;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,7 +15,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "productos",
         uniqueConstraints = {
-                @UniqueConstraint(name = "uk_producto_nombre", columnNames = "nombre")
+                @UniqueConstraint(name = "uk_producto_nombre", columnNames = "nombre"),
+                @UniqueConstraint(name = "uk_producto_codigo", columnNames = "codigo")
         })
 @Data
 @Builder
@@ -30,6 +33,11 @@ public class Producto {
     @Column(nullable = false, length = 100, unique = true)
     private String nombre;
 
+    // Código de barras / SKU (opcional; único si se informa)
+    @Size(max = 50, message = "El código no puede superar los 50 caracteres")
+    @Column(length = 50)
+    private String codigo;
+
     @Size(max = 255, message = "La descripción no puede superar los 255 caracteres")
     @Column(length = 255)
     private String descripcion;
@@ -45,6 +53,12 @@ public class Producto {
     @Column(nullable = false)
     private Integer stock;
 
+    // Unidades apartadas por ventas PENDIENTE (ReservaStock); disponible = stock - stockReservado
+    @Column(name = "stock_reservado", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer stockReservado = 0;
+
     @NotNull(message = "La categoría es obligatoria")
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
@@ -63,4 +77,9 @@ public class Producto {
 
     @Column(name = "fecha_registro", nullable = false, updatable = false)
     private LocalDateTime fechaRegistro;
+
+    // Última modificación (ver Venta.fechaActualizacion)
+    @UpdateTimestamp
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
 }
\ No newline at end of file
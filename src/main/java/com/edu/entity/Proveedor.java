@@ -4,6 +4,8 @@ package com.edu.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -17,6 +19,8 @@ import java.time.LocalDateTime;
                 @UniqueConstraint(name = "uk_proveedor_ruc", columnNames = "ruc"),
                 @UniqueConstraint(name = "uk_proveedor_correo", columnNames = "correo")
         })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proveedores")
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,47 @@
+package com.edu.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Unidades apartadas por una venta PENDIENTE hasta que se paga, se anula o vence.
+// Solo existen mientras la reserva está vigente: al confirmarla o liberarla se borran.
+@Entity
+@Table(name = "reservas_stock",
+        indexes = {
+                @Index(name = "idx_reserva_venta", columnList = "venta_id")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaStock {
+
+    // Ver Venta: generador por tabla para insertar las reservas de una venta en lote
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reserva_gen")
+    @TableGenerator(name = "reserva_gen", table = "secuencias",
+            pkColumnName = "nombre", valueColumnName = "valor",
+            pkColumnValue = "reservas_stock", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "venta_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_reserva_venta"))
+    private Venta venta;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_reserva_producto"))
+    private Producto producto;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+
+    @Column(nullable = false)
+    private LocalDateTime expira;
+}
@@ -0,0 +1,38 @@
+package com.edu.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Stock de un producto con todos los movimientos anteriores a "corte" ya sumados.
+// Las genera el compactador del kardex; se conservan las anteriores para consultar a una fecha.
+@Entity
+@Table(name = "snapshots_stock",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_snapshot_producto_corte", columnNames = {"producto_id", "corte"})
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_snapshot_producto"))
+    private Producto producto;
+
+    @Column(nullable = false)
+    private LocalDateTime corte;
+
+    @Column(nullable = false)
+    private Long stock;
+}
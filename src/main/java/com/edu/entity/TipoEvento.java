@@ -0,0 +1,13 @@
+package com.edu.entity;
+
+public enum TipoEvento {
+    VENTA_REGISTRADA,
+    VENTA_ACTUALIZADA,
+    VENTA_ANULADA,
+    STOCK_MODIFICADO,
+    PRODUCTO_ACTUALIZADO,
+    CLIENTE_CREADO,
+    CLIENTE_ACTUALIZADO,
+    PROVEEDOR_ACTUALIZADO,
+    USUARIO_REGISTRADO
+}
@@ -0,0 +1,8 @@
+package com.edu.entity;
+
+public enum TipoMovimiento {
+    VENTA,
+    ANULACION,
+    REPOSICION,
+    AJUSTE
+}
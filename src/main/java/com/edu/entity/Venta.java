@@ -1,22 +1,34 @@
 package com.edu.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "ventas")
+@Table(name = "ventas",
+        indexes = {
+                @Index(name = "idx_venta_fecha", columnList = "fecha_venta")
+        })
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Venta {
 
+    // Ver DetalleVenta: generador por tabla para permitir inserciones en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "venta_gen")
+    @TableGenerator(name = "venta_gen", table = "secuencias",
+            pkColumnName = "nombre", valueColumnName = "valor",
+            pkColumnValue = "ventas", allocationSize = 50)
     private Long id;
 
     // Usuario del sistema que registra la venta
@@ -31,19 +43,14 @@ public class Venta {
             foreignKey = @ForeignKey(name = "fk_venta_cliente"))
     private Cliente cliente;
 
-    // Producto vendido
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "producto_id", nullable = false,
-            foreignKey = @ForeignKey(name = "fk_venta_producto"))
-    private Producto producto;
-
-    @NotNull(message = "La cantidad es obligatoria")
-    @Min(value = 1, message = "La cantidad debe ser al menos 1")
-    @Column(nullable = false)
-    private Integer cantidad;
-
+    // Líneas de la venta (producto, cantidad, precio)
+    @Valid
+    @OneToMany(mappedBy = "venta", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<DetalleVenta> detalles = new ArrayList<>();
 
-  
     @Digits(integer = 12, fraction = 2, message = "El total debe tener como máximo 2 decimales")
     @Column(nullable = false, precision = 14, scale = 2)
     private BigDecimal total;
@@ -52,7 +59,23 @@ public class Venta {
     @Column(nullable = false, length = 20)
     private EstadoVenta estado ;
 
+    // false mientras la venta PENDIENTE solo tiene stock reservado (ver ReservaStock)
+    @Column(name = "stock_descontado", nullable = false)
+    @ColumnDefault("1")
+    @Builder.Default
+    private boolean stockDescontado = true;
+
 
     @Column(name = "fecha_venta", nullable = false, updatable = false)
     private LocalDateTime fechaVenta;
+
+    // Última modificación (la usa la caché de reportes para detectar cambios en un rango)
+    @UpdateTimestamp
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+
+    public void agregarDetalle(DetalleVenta detalle) {
+        detalle.setVenta(this);
+        detalles.add(detalle);
+    }
 }
\ No newline at end of file
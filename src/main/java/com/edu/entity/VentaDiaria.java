@@ -0,0 +1,52 @@
+package com.edu.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Resumen diario de ventas no anuladas por (fecha, producto, cliente).
+// Se actualiza en la misma transacción que registrarVenta / eliminarVenta.
+@Entity
+@Table(name = "ventas_diarias",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_venta_diaria", columnNames = {"fecha", "producto_id", "cliente_id"})
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentaDiaria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_venta_diaria_producto"))
+    private Producto producto;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_venta_diaria_cliente"))
+    private Cliente cliente;
+
+    // Número de ventas que incluyen el producto
+    @Column(name = "numero_ventas", nullable = false)
+    private Long numeroVentas;
+
+    // Unidades vendidas
+    @Column(nullable = false)
+    private Long cantidad;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal total;
+}
@@ -0,0 +1,39 @@
+package com.edu.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Número de ventas no anuladas por (fecha, cliente). Va aparte de ventas_diarias porque allí
+// una venta con N productos suma en N filas: el conteo de ventas se lleva a nivel de venta.
+// Se actualiza en la misma transacción que registrarVenta / eliminarVenta.
+@Entity
+@Table(name = "ventas_diarias_clientes",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_venta_diaria_cliente", columnNames = {"fecha", "cliente_id"})
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentaDiariaCliente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_venta_diaria_cliente_cliente"))
+    private Cliente cliente;
+
+    @Column(name = "numero_ventas", nullable = false)
+    private Long numeroVentas;
+}
@@ -1,16 +1,22 @@
 package com.edu.repository;
 
+import com.edu.dto.OpcionBusqueda;
 import com.edu.entity.Cliente;
 import com.edu.entity.EstadoCliente;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
@@ -35,15 +41,50 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     // Verificar si ya existe un teléfono registrado (si es necesario)
     boolean existsByTelefono(String telefono);
 
+    // Conteo por estado para reconciliar los contadores en memoria: estado, total
+    @Query("SELECT c.estado, COUNT(c) FROM Cliente c GROUP BY c.estado")
+    List<Object[]> contarPorEstado();
+
+    // Listado por páginas sin COUNT(*): un Slice lee una fila de más para saber si hay siguiente
+    Slice<Cliente> findBy(Pageable pageable);
+
     @Query("SELECT c FROM Cliente c " +
             "WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "   OR LOWER(c.correo) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "   OR LOWER(CAST(c.estado AS string)) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<Cliente> buscarClientes(@Param("keyword") String keyword, Pageable pageable);
+    Slice<Cliente> buscarClientes(@Param("keyword") String keyword, Pageable pageable);
 
     // Listar clientes registrados después de una fecha específica (para reportes)
     List<Cliente> findByFechaRegistroAfter(LocalDateTime fecha);
 
-    // Listar clientes registrados entre 2 fechas
-    List<Cliente> findByFechaRegistroBetween(LocalDateTime inicio, LocalDateTime fin);
-}
\ No newline at end of file
+    // === Paginación por cursor (keyset sobre la clave primaria) ===
+    List<Cliente> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Cliente> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    // === Búsqueda por prefijo para formularios (usa idx_cliente_nombre; la collation ya ignora mayúsculas) ===
+    @Query("SELECT new com.edu.dto.OpcionBusqueda(c.id, c.nombre) FROM Cliente c " +
+            "WHERE c.nombre LIKE :patron ESCAPE '!' AND c.estado = com.edu.entity.EstadoCliente.ACTIVO " +
+            "ORDER BY c.nombre ASC")
+    Slice<OpcionBusqueda> buscarOpciones(@Param("patron") String patron, Pageable pageable);
+
+    // === Índice de búsqueda en memoria: solo los campos buscables ===
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, c.nombre, c.correo, c.estado FROM Cliente c")
+    Stream<Object[]> streamCamposBusqueda();
+
+    // === Exportación por streaming (cursor del servidor con fetch size) ===
+    boolean existsByFechaRegistroBetween(LocalDateTime inicio, LocalDateTime fin);
+
+    // Huella de los datos del reporte (ver VentaRepository.versionEntreFechas)
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.id), 0), MAX(c.fechaActualizacion) " +
+            "FROM Cliente c WHERE c.fechaRegistro BETWEEN :inicio AND :fin")
+    List<Object[]> versionEntreFechas(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Cliente c WHERE c.fechaRegistro BETWEEN :inicio AND :fin ORDER BY c.fechaRegistro ASC, c.id ASC")
+    Stream<Cliente> streamByFechaRegistroBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+}
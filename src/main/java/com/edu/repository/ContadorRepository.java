@@ -0,0 +1,12 @@
+package com.edu.repository;
+
+import com.edu.entity.Contador;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ContadorRepository extends JpaRepository<Contador, String> {
+
+    // No lee ninguna tabla: toma la conexión de la transacción sin fijar todavía su foto
+    @Query(value = "SELECT 1", nativeQuery = true)
+    Integer conectar();
+}
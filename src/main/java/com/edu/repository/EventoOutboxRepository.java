@@ -0,0 +1,29 @@
+package com.edu.repository;
+
+import com.edu.entity.EventoOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // Siguiente lote de un suscriptor (recorre la clave primaria)
+    List<EventoOutbox> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM EventoOutbox e")
+    Long ultimoId();
+
+    // Ids visibles en un tramo: se lee en la misma transacción que la foto de una vista
+    @Query("SELECT e.id FROM EventoOutbox e WHERE e.id > :desde AND e.id <= :hasta")
+    List<Long> idsEntre(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    // Eventos ya entregados a todos los suscriptores y fuera del periodo de retención
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.id <= :hasta AND e.creado < :antesDe")
+    int eliminarEntregados(@Param("hasta") Long hasta, @Param("antesDe") LocalDateTime antesDe);
+}
@@ -0,0 +1,29 @@
+package com.edu.repository;
+
+import com.edu.dto.MovimientoKardex;
+import com.edu.entity.MovimientoStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MovimientoStockRepository extends JpaRepository<MovimientoStock, Long> {
+
+    // Kardex de un producto en un rango (usa idx_movimiento_producto_fecha)
+    @Query("SELECT new com.edu.dto.MovimientoKardex(m.fecha, m.tipo, m.cantidad, m.venta.id) " +
+            "FROM MovimientoStock m " +
+            "WHERE m.producto.id = :productoId AND m.fecha BETWEEN :desde AND :hasta " +
+            "ORDER BY m.fecha ASC, m.id ASC")
+    List<MovimientoKardex> kardex(@Param("productoId") Long productoId,
+                                  @Param("desde") LocalDateTime desde,
+                                  @Param("hasta") LocalDateTime hasta);
+
+    // Suma de los movimientos posteriores a una snapshot, hasta la fecha consultada
+    @Query("SELECT COALESCE(SUM(m.cantidad), 0) FROM MovimientoStock m " +
+            "WHERE m.producto.id = :productoId AND m.fecha >= :desde AND m.fecha <= :hasta")
+    Long sumarEntre(@Param("productoId") Long productoId,
+                    @Param("desde") LocalDateTime desde,
+                    @Param("hasta") LocalDateTime hasta);
+}
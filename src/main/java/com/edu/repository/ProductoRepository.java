@@ -1,18 +1,28 @@
 package com.edu.repository;
 
+import com.edu.dto.OpcionBusqueda;
 import com.edu.entity.Categoria;
 import com.edu.entity.EstadoProducto;
 import com.edu.entity.Producto;
 import com.edu.entity.Proveedor;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
@@ -34,7 +44,18 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     // Validar si ya existe un producto con un nombre (para evitar duplicados)
     boolean existsByNombre(String nombre);
 
+    // Código de barras / SKU (uk_producto_codigo)
+    Optional<Producto> findByCodigo(String codigo);
 
+    boolean existsByCodigo(String codigo);
+
+    // Conteo por categoría y estado para reconciliar los contadores en memoria: categoria, estado, total
+    @Query("SELECT p.categoria, p.estado, COUNT(p) FROM Producto p GROUP BY p.categoria, p.estado")
+    List<Object[]> contarPorCategoriaYEstado();
+
+    // Listado por páginas sin COUNT(*): un Slice lee una fila de más para saber si hay siguiente
+    @EntityGraph(attributePaths = {"proveedor"})
+    Slice<Producto> findBy(Pageable pageable);
 
     // Búsqueda general en tabla productos
     @Query("SELECT p FROM Producto p " +
@@ -42,7 +63,8 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
             "   OR LOWER(CAST(p.categoria AS string)) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "   OR LOWER(CAST(p.estado AS string)) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "   OR LOWER(p.proveedor.nombre) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<Producto> buscarProductos(@Param("keyword") String keyword, Pageable pageable);
+    @EntityGraph(attributePaths = {"proveedor"})
+    Slice<Producto> buscarProductos(@Param("keyword") String keyword, Pageable pageable);
 
     // Listar productos registrados después de una fecha específica (para reportes)
     List<Producto> findByFechaRegistroAfter(LocalDateTime fecha);
@@ -53,4 +75,81 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     //Sumamos el estock de productos
     @Query("SELECT SUM(p.stock) FROM Producto p ")
     Integer SumaStock();
-}
\ No newline at end of file
+
+    // Descuento atómico de stock: solo afecta la fila si hay stock disponible (sin contar lo reservado).
+    // Devuelve las filas afectadas (0 = stock insuficiente o producto inexistente)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad " +
+            "WHERE p.id = :id AND p.stock - p.stockReservado >= :cantidad")
+    int descontarStock(@Param("id") Long id, @Param("cantidad") Integer cantidad);
+
+    // === Reservas de ventas PENDIENTE (mismo descuento condicional, sobre stockReservado) ===
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Producto p SET p.stockReservado = p.stockReservado + :cantidad " +
+            "WHERE p.id = :id AND p.stock - p.stockReservado >= :cantidad")
+    int reservarStock(@Param("id") Long id, @Param("cantidad") Integer cantidad);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Producto p SET p.stockReservado = p.stockReservado - :cantidad WHERE p.id = :id")
+    int liberarReserva(@Param("id") Long id, @Param("cantidad") Integer cantidad);
+
+    // La reserva pasa a descuento: ya estaba apartada, no se vuelve a comprobar el disponible
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad, p.stockReservado = p.stockReservado - :cantidad " +
+            "WHERE p.id = :id")
+    int confirmarReserva(@Param("id") Long id, @Param("cantidad") Integer cantidad);
+
+    // Devolución de stock al anular una venta pagada
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock + :cantidad WHERE p.id = :id")
+    int reponerStock(@Param("id") Long id, @Param("cantidad") Integer cantidad);
+
+    // === Edición del administrador: UPDATE dirigidos que no reescriben stock ni stockReservado ===
+    // (un save de la entidad entera pisaría los descuentos y reservas confirmados mientras tanto)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Producto p SET p.nombre = :nombre, p.codigo = :codigo, p.descripcion = :descripcion, " +
+            "p.categoria = :categoria, p.proveedor = :proveedor, p.precio = :precio, p.estado = :estado, " +
+            "p.fechaActualizacion = :fecha WHERE p.id = :id")
+    int actualizarDatos(@Param("id") Long id, @Param("nombre") String nombre, @Param("codigo") String codigo,
+                        @Param("descripcion") String descripcion, @Param("categoria") Categoria categoria,
+                        @Param("proveedor") Proveedor proveedor, @Param("precio") BigDecimal precio,
+                        @Param("estado") EstadoProducto estado, @Param("fecha") LocalDateTime fecha);
+
+    // Ajuste relativo del stock: solo si no queda por debajo de lo reservado por ventas PENDIENTE
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock + :diferencia, p.fechaActualizacion = :fecha " +
+            "WHERE p.id = :id AND p.stock + :diferencia >= p.stockReservado")
+    int ajustarStock(@Param("id") Long id, @Param("diferencia") Integer diferencia, @Param("fecha") LocalDateTime fecha);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Producto p SET p.estado = :estado, p.fechaActualizacion = :fecha WHERE p.id = :id")
+    int cambiarEstado(@Param("id") Long id, @Param("estado") EstadoProducto estado, @Param("fecha") LocalDateTime fecha);
+
+    // === Búsqueda por prefijo para formularios (usa uk_producto_nombre) ===
+    @Query("SELECT new com.edu.dto.OpcionBusqueda(p.id, p.nombre) FROM Producto p " +
+            "WHERE p.nombre LIKE :patron ESCAPE '!' AND p.estado = com.edu.entity.EstadoProducto.ACTIVO " +
+            "ORDER BY p.nombre ASC")
+    Slice<OpcionBusqueda> buscarOpciones(@Param("patron") String patron, Pageable pageable);
+
+    // === Paginación por cursor (keyset sobre la clave primaria) ===
+    @EntityGraph(attributePaths = {"proveedor"})
+    List<Producto> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @EntityGraph(attributePaths = {"proveedor"})
+    List<Producto> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    // === Índice de búsqueda en memoria ===
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.nombre, p.categoria, p.estado, p.proveedor.id FROM Producto p")
+    Stream<Object[]> streamCamposBusqueda();
+
+    // Índice de códigos para el punto de venta: id, codigo, nombre, precio, stock disponible
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.codigo, p.nombre, p.precio, p.stock - p.stockReservado FROM Producto p " +
+            "WHERE p.codigo IS NOT NULL AND p.estado = com.edu.entity.EstadoProducto.ACTIVO")
+    Stream<Object[]> streamCodigos();
+
+    // Carga de una página de resultados del índice
+    @EntityGraph(attributePaths = {"proveedor"})
+    List<Producto> findByIdIn(Collection<Long> ids);
+}
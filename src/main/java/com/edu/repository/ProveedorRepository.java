@@ -2,18 +2,28 @@ package com.edu.repository;
 
 import com.edu.entity.EstadoProveedor;
 import com.edu.entity.Proveedor;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {
 
+    // Caché de consultas: alimenta los selects de proveedor de la pantalla de productos
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Proveedor> findAll();
+
     // Buscar proveedor por RUC (para validar duplicados o búsquedas rápidas)
     Optional<Proveedor> findByRuc(String ruc);
 
@@ -41,17 +51,34 @@ public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {
     // Validar si ya existe un teléfono registrado
     boolean existsByTelefono(String telefono);
 
+    // Listado por páginas sin COUNT(*): un Slice lee una fila de más para saber si hay siguiente
+    Slice<Proveedor> findBy(Pageable pageable);
+
     // Búsqueda general en tabla proveedores
     @Query("SELECT p FROM Proveedor p " +
             "WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "   OR LOWER(p.correo) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "   OR LOWER(p.ruc) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "   OR LOWER(CAST(p.estado AS string)) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<Proveedor> buscarProveedores(@Param("keyword") String keyword, Pageable pageable);
+    Slice<Proveedor> buscarProveedores(@Param("keyword") String keyword, Pageable pageable);
 
     // Listar proveedores registrados después de una fecha específica (para reportes)
     List<Proveedor> findByFechaRegistroAfter(LocalDateTime fecha);
 
     // Listar proveedores registrados entre 2 fechas
     List<Proveedor> findByFechaRegistroBetween(LocalDateTime inicio, LocalDateTime fin);
+
+    // === Paginación por cursor (keyset sobre la clave primaria) ===
+    List<Proveedor> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Proveedor> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    // === Índice de búsqueda en memoria: solo los campos buscables ===
+    // Conteo por estado para reconciliar los contadores en memoria: estado, total
+    @Query("SELECT p.estado, COUNT(p) FROM Proveedor p GROUP BY p.estado")
+    List<Object[]> contarPorEstado();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.nombre, p.correo, p.ruc, p.estado FROM Proveedor p")
+    Stream<Object[]> streamCamposBusqueda();
 }
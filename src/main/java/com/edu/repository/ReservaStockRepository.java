@@ -0,0 +1,29 @@
+package com.edu.repository;
+
+import com.edu.entity.ReservaStock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReservaStockRepository extends JpaRepository<ReservaStock, Long> {
+
+    // Con bloqueo: confirmar, anular y vencer la misma reserva a la vez no puede liberarla dos veces
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReservaStock r WHERE r.venta.id = :ventaId")
+    List<ReservaStock> bloquearPorVenta(@Param("ventaId") Long ventaId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReservaStock r WHERE r.venta.id IN :ventas AND r.expira <= :ahora")
+    List<ReservaStock> bloquearVencidas(@Param("ventas") Collection<Long> ventas,
+                                        @Param("ahora") LocalDateTime ahora);
+
+    // Vencimiento de cada venta con reservas (para la cola de vencimientos al iniciar)
+    @Query("SELECT r.venta.id, MIN(r.expira) FROM ReservaStock r GROUP BY r.venta.id")
+    List<Object[]> vencimientos();
+}
@@ -1,10 +1,15 @@
 package com.edu.repository;
 
 import com.edu.entity.Rol;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface RolRepository extends JpaRepository<Rol, Long> {
+    // Caché de consultas: los roles casi no cambian
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Rol> findByNombre(String nombre);
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.edu.repository;
+
+import com.edu.entity.SnapshotStock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface SnapshotStockRepository extends JpaRepository<SnapshotStock, Long> {
+
+    // Última snapshot vigente a una fecha (usa uk_snapshot_producto_corte)
+    Optional<SnapshotStock> findFirstByProductoIdAndCorteLessThanEqualOrderByCorteDesc(Long productoId,
+                                                                                       LocalDateTime fecha);
+
+    // Productos anteriores al kardex: su stock actual pasa a ser la snapshot inicial
+    // (la tabla afectada se declara para no vaciar la caché de segundo nivel, ver VentaDiariaRepository)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "snapshots_stock"))
+    @Query(value = "INSERT INTO snapshots_stock (producto_id, corte, stock) " +
+            "SELECT p.id, :corte, p.stock FROM productos p " +
+            "WHERE NOT EXISTS (SELECT 1 FROM snapshots_stock s WHERE s.producto_id = p.id)",
+            nativeQuery = true)
+    int inicializarFaltantes(@Param("corte") LocalDateTime corte);
+
+    // Nueva snapshot por producto con movimientos desde su última snapshot y antes del corte
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "snapshots_stock"))
+    @Query(value = "INSERT INTO snapshots_stock (producto_id, corte, stock) " +
+            "SELECT s.producto_id, :corte, s.stock + SUM(m.cantidad) " +
+            "FROM snapshots_stock s " +
+            "JOIN movimientos_stock m ON m.producto_id = s.producto_id " +
+            "     AND m.fecha >= s.corte AND m.fecha < :corte " +
+            "WHERE s.corte = (SELECT MAX(u.corte) FROM snapshots_stock u WHERE u.producto_id = s.producto_id) " +
+            "GROUP BY s.producto_id, s.stock",
+            nativeQuery = true)
+    int compactar(@Param("corte") LocalDateTime corte);
+}
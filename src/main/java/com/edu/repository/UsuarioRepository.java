@@ -1,8 +1,14 @@
 package com.edu.repository;
 
+import com.edu.dto.OpcionBusqueda;
 import com.edu.entity.Usuario;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
@@ -11,4 +17,13 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Búsqueda por prefijo del email para formularios (usa el índice único de email)
+    @Query("SELECT new com.edu.dto.OpcionBusqueda(u.id, u.email) FROM Usuario u " +
+            "WHERE u.email LIKE :patron ESCAPE '!' ORDER BY u.email ASC")
+    Slice<OpcionBusqueda> buscarOpciones(@Param("patron") String patron, Pageable pageable);
+
+    // Índice de búsqueda en memoria (las ventas se buscan también por email del usuario)
+    @Query("SELECT u.id, u.email FROM Usuario u")
+    List<Object[]> findCamposBusqueda();
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.edu.repository;
+
+import com.edu.entity.VentaDiariaCliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface VentaDiariaClienteRepository extends JpaRepository<VentaDiariaCliente, Long> {
+
+    // Suma (o resta, con valores negativos) una venta al conteo del día y cliente
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ventas_diarias_clientes"))
+    @Query(value = "INSERT INTO ventas_diarias_clientes (fecha, cliente_id, numero_ventas) " +
+            "VALUES (:fecha, :clienteId, :numeroVentas) " +
+            "ON DUPLICATE KEY UPDATE numero_ventas = numero_ventas + VALUES(numero_ventas)",
+            nativeQuery = true)
+    int acumular(@Param("fecha") LocalDate fecha,
+                 @Param("clienteId") Long clienteId,
+                 @Param("numeroVentas") long numeroVentas);
+
+    // Ventas por día en un rango: fecha, numero_ventas
+    @Query("SELECT c.fecha, SUM(c.numeroVentas) FROM VentaDiariaCliente c " +
+            "WHERE c.fecha BETWEEN :inicio AND :fin GROUP BY c.fecha")
+    List<Object[]> ventasPorDia(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    // Ventas por mes en un rango: año, mes, numero_ventas
+    @Query("SELECT YEAR(c.fecha), MONTH(c.fecha), SUM(c.numeroVentas) FROM VentaDiariaCliente c " +
+            "WHERE c.fecha BETWEEN :inicio AND :fin GROUP BY YEAR(c.fecha), MONTH(c.fecha)")
+    List<Object[]> ventasPorMes(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    // Ventas por año en un rango: año, numero_ventas
+    @Query("SELECT YEAR(c.fecha), SUM(c.numeroVentas) FROM VentaDiariaCliente c " +
+            "WHERE c.fecha BETWEEN :inicio AND :fin GROUP BY YEAR(c.fecha)")
+    List<Object[]> ventasPorAnio(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    // === Reconstrucción (backfill) por rango de fechas ===
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ventas_diarias_clientes"))
+    @Query(value = "DELETE FROM ventas_diarias_clientes WHERE fecha BETWEEN :inicio AND :fin", nativeQuery = true)
+    int eliminarRango(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ventas_diarias_clientes"))
+    @Query(value = "INSERT INTO ventas_diarias_clientes (fecha, cliente_id, numero_ventas) " +
+            "SELECT DATE(v.fecha_venta), v.cliente_id, COUNT(*) " +
+            "FROM ventas v " +
+            "WHERE v.estado <> 'ANULADA' AND v.fecha_venta >= :desde AND v.fecha_venta < :hasta " +
+            "GROUP BY DATE(v.fecha_venta), v.cliente_id",
+            nativeQuery = true)
+    int reconstruirRango(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+}
@@ -0,0 +1,88 @@
+package com.edu.repository;
+
+import com.edu.entity.VentaDiaria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface VentaDiariaRepository extends JpaRepository<VentaDiaria, Long> {
+
+    // Suma (o resta, con valores negativos) una venta al resumen del día.
+    // Los INSERT/DELETE nativos declaran la tabla que tocan: sin eso Hibernate vacía toda la caché de segundo nivel
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ventas_diarias"))
+    @Query(value = "INSERT INTO ventas_diarias (fecha, producto_id, cliente_id, numero_ventas, cantidad, total) " +
+            "VALUES (:fecha, :productoId, :clienteId, :numeroVentas, :cantidad, :total) " +
+            "ON DUPLICATE KEY UPDATE numero_ventas = numero_ventas + VALUES(numero_ventas), " +
+            "cantidad = cantidad + VALUES(cantidad), total = total + VALUES(total)",
+            nativeQuery = true)
+    int acumular(@Param("fecha") LocalDate fecha,
+                 @Param("productoId") Long productoId,
+                 @Param("clienteId") Long clienteId,
+                 @Param("numeroVentas") long numeroVentas,
+                 @Param("cantidad") long cantidad,
+                 @Param("total") BigDecimal total);
+
+    // Totales por día en un rango: fecha, cantidad, total.
+    // El número de ventas sale de ventas_diarias_clientes: aquí una venta cuenta una vez por producto
+    @Query("SELECT d.fecha, SUM(d.cantidad), SUM(d.total) " +
+            "FROM VentaDiaria d " +
+            "WHERE d.fecha BETWEEN :inicio AND :fin " +
+            "GROUP BY d.fecha " +
+            "ORDER BY d.fecha ASC")
+    List<Object[]> totalesPorDia(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    // Totales por mes en un rango: año, mes, cantidad, total
+    @Query("SELECT YEAR(d.fecha), MONTH(d.fecha), SUM(d.cantidad), SUM(d.total) " +
+            "FROM VentaDiaria d " +
+            "WHERE d.fecha BETWEEN :inicio AND :fin " +
+            "GROUP BY YEAR(d.fecha), MONTH(d.fecha) " +
+            "ORDER BY YEAR(d.fecha) ASC, MONTH(d.fecha) ASC")
+    List<Object[]> totalesPorMes(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    // Totales por año en un rango: año, cantidad, total
+    @Query("SELECT YEAR(d.fecha), SUM(d.cantidad), SUM(d.total) " +
+            "FROM VentaDiaria d " +
+            "WHERE d.fecha BETWEEN :inicio AND :fin " +
+            "GROUP BY YEAR(d.fecha) " +
+            "ORDER BY YEAR(d.fecha) ASC")
+    List<Object[]> totalesPorAnio(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    // Unidades vendidas por producto (histórico): producto_id, cantidad
+    @Query("SELECT d.producto.id, SUM(d.cantidad) FROM VentaDiaria d GROUP BY d.producto.id")
+    List<Object[]> unidadesPorProducto();
+
+    // Unidades por día y producto desde una fecha: fecha, producto_id, cantidad
+    @Query("SELECT d.fecha, d.producto.id, SUM(d.cantidad) FROM VentaDiaria d " +
+            "WHERE d.fecha >= :desde GROUP BY d.fecha, d.producto.id")
+    List<Object[]> unidadesPorDiaYProducto(@Param("desde") LocalDate desde);
+
+    // === Reconstrucción (backfill) por rango de fechas ===
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ventas_diarias"))
+    @Query(value = "DELETE FROM ventas_diarias WHERE fecha BETWEEN :inicio AND :fin", nativeQuery = true)
+    int eliminarRango(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ventas_diarias"))
+    @Query(value = "INSERT INTO ventas_diarias (fecha, producto_id, cliente_id, numero_ventas, cantidad, total) " +
+            "SELECT DATE(v.fecha_venta), d.producto_id, v.cliente_id, " +
+            "       COUNT(DISTINCT v.id), SUM(d.cantidad), SUM(d.subtotal) " +
+            "FROM ventas v JOIN detalle_venta d ON d.venta_id = v.id " +
+            "WHERE v.estado <> 'ANULADA' AND v.fecha_venta >= :desde AND v.fecha_venta < :hasta " +
+            "GROUP BY DATE(v.fecha_venta), d.producto_id, v.cliente_id",
+            nativeQuery = true)
+    int reconstruirRango(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    @Query("SELECT MIN(v.fechaVenta) FROM Venta v")
+    LocalDateTime primeraFechaVenta();
+}
@@ -1,39 +1,65 @@
 package com.edu.repository;
 
 import com.edu.entity.*;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+// Las lecturas que terminan en una vista traen cliente y usuario en la misma consulta (@EntityGraph);
+// las líneas y sus productos se cargan por lotes (hibernate.default_batch_fetch_size)
 public interface VentaRepository extends JpaRepository<Venta, Long> {
 
+    // Cabecera bloqueada (SELECT ... FOR UPDATE) para cambiar el estado: dos anulaciones o pagos
+    // concurrentes de la misma venta se serializan y el segundo ve el estado que dejó el primero
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Venta v WHERE v.id = :id")
+    Optional<Venta> bloquear(@Param("id") Long id);
+
     // Buscar ventas por usuario (quién registró la venta)
     List<Venta> findByUsuario(Usuario usuario);
 
     // Buscar ventas por cliente
     List<Venta> findByCliente(Cliente cliente);
 
-    // Buscar ventas por producto
-    List<Venta> findByProducto(Producto producto);
+    // Buscar ventas que incluyan un producto en alguna de sus líneas
+    @Query("SELECT DISTINCT v FROM Venta v JOIN v.detalles d WHERE d.producto = :producto")
+    List<Venta> findByProducto(@Param("producto") Producto producto);
 
     // Buscar ventas por estado (PAGADA, PENDIENTE, ANULADA)
     List<Venta> findByEstado(EstadoVenta estado);
 
-    // Buscar ventas entre fechas (útil para reportes)
-    List<Venta> findByFechaVentaBetween(LocalDateTime inicio, LocalDateTime fin);
+    // Conteo por estado para reconciliar los contadores en memoria: estado, total
+    @Query("SELECT v.estado, COUNT(v) FROM Venta v GROUP BY v.estado")
+    List<Object[]> contarPorEstado();
 
-    // Búsqueda general (por cliente, usuario o estado)
-    @Query("SELECT v FROM Venta v " +
+    // Listado por páginas sin COUNT(*): un Slice lee una fila de más para saber si hay siguiente
+    @EntityGraph(attributePaths = {"cliente", "usuario"})
+    Slice<Venta> findBy(Pageable pageable);
+
+    // Búsqueda general (por cliente, usuario o producto de alguna línea)
+    @Query(value = "SELECT v FROM Venta v " +
             "WHERE LOWER(v.cliente.nombre) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "   OR LOWER(v.usuario.email) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "   OR LOWER(v.producto.nombre) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<Venta> buscarVentas(@Param("keyword") String keyword, Pageable pageable);
+            "   OR EXISTS (SELECT 1 FROM DetalleVenta d WHERE d.venta = v " +
+            "              AND LOWER(d.producto.nombre) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    @EntityGraph(attributePaths = {"cliente", "usuario"})
+    Slice<Venta> buscarVentas(@Param("keyword") String keyword, Pageable pageable);
 
     // Ventas registradas después de una fecha
     List<Venta> findByFechaVentaAfter(LocalDateTime fecha);
@@ -44,23 +70,97 @@ public interface VentaRepository extends JpaRepository<Venta, Long> {
     BigDecimal sumarTotalVentas();
 
     //Obtenemos las ultimas 3 ventas
+    @EntityGraph(attributePaths = {"cliente"})
     List<Venta> findTop3ByOrderByFechaVentaDesc();
 
     // Nueva consulta para obtener los productos más vendidos
-    @Query("SELECT v.producto, SUM(v.cantidad) AS total_vendido " +
-            "FROM Venta v " +
-            "WHERE v.estado <> 'ANULADA' " +
-            "GROUP BY v.producto " +
+    @Query("SELECT d.producto, SUM(d.cantidad) AS total_vendido " +
+            "FROM DetalleVenta d " +
+            "WHERE d.venta.estado <> 'ANULADA' " +
+            "GROUP BY d.producto " +
             "ORDER BY total_vendido DESC")
     List<Object[]> findProductosMasVendidos(Pageable pageable); //
 
-    // Nueva consulta para obtener las ventas diarias del mes actual
-    @Query("SELECT FUNCTION('DATE', v.fechaVenta) as fecha, SUM(v.total) as totalDiario " +
-            "FROM Venta v " +
-            "WHERE FUNCTION('YEAR', v.fechaVenta) = FUNCTION('YEAR', CURRENT_DATE()) " +
-            "AND FUNCTION('MONTH', v.fechaVenta) = FUNCTION('MONTH', CURRENT_DATE()) " +
-            "AND v.estado <> 'ANULADA' " +
-            "GROUP BY fecha " +
-            "ORDER BY fecha ASC")
-    List<Object[]> findVentasMensuales();
-}
\ No newline at end of file
+    // === Paginación por cursor (keyset sobre fechaVenta, id; más recientes primero) ===
+    @EntityGraph(attributePaths = {"cliente", "usuario"})
+    List<Venta> findAllByOrderByFechaVentaDescIdDesc(Limit limit);
+
+    @Query("SELECT v FROM Venta v " +
+            "WHERE v.fechaVenta < :fecha OR (v.fechaVenta = :fecha AND v.id < :id) " +
+            "ORDER BY v.fechaVenta DESC, v.id DESC")
+    @EntityGraph(attributePaths = {"cliente", "usuario"})
+    List<Venta> buscarVentasDespuesDe(@Param("fecha") LocalDateTime fecha, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT v FROM Venta v " +
+            "WHERE v.fechaVenta > :fecha OR (v.fechaVenta = :fecha AND v.id > :id) " +
+            "ORDER BY v.fechaVenta ASC, v.id ASC")
+    @EntityGraph(attributePaths = {"cliente", "usuario"})
+    List<Venta> buscarVentasAntesDe(@Param("fecha") LocalDateTime fecha, @Param("id") Long id, Limit limit);
+
+    // === Exportación por streaming (cursor del servidor con fetch size) ===
+    boolean existsByFechaVentaBetween(LocalDateTime inicio, LocalDateTime fin);
+
+    // Huella de los datos del reporte: cambia si se agrega, borra o modifica una venta del rango,
+    // o el cliente o un producto que aparece en ella
+    @Query("SELECT COUNT(d), COALESCE(SUM(v.id), 0), MAX(v.fechaActualizacion), " +
+            "MAX(c.fechaActualizacion), MAX(p.fechaActualizacion) " +
+            "FROM DetalleVenta d JOIN d.venta v JOIN v.cliente c JOIN d.producto p " +
+            "WHERE v.fechaVenta BETWEEN :inicio AND :fin")
+    List<Object[]> versionEntreFechas(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Venta v JOIN FETCH v.cliente JOIN FETCH v.usuario " +
+            "WHERE v.fechaVenta BETWEEN :inicio AND :fin " +
+            "ORDER BY v.fechaVenta ASC, v.id ASC")
+    Stream<Venta> streamByFechaVentaBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    // === Índice de búsqueda en memoria: relaciones venta → cliente / usuario / productos ===
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT v.id, v.cliente.id, v.usuario.id FROM Venta v")
+    Stream<Object[]> streamRelacionesBusqueda();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d.venta.id, d.producto.id FROM DetalleVenta d")
+    Stream<Object[]> streamProductosBusqueda();
+
+    // === Resumen de rangos largos por tramos (cada tramo en su propia consulta) ===
+    @Query("SELECT v.estado, COUNT(v), COALESCE(SUM(v.total), 0) FROM Venta v " +
+            "WHERE v.fechaVenta >= :desde AND v.fechaVenta < :hasta GROUP BY v.estado")
+    List<Object[]> totalesPorEstado(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    @Query("SELECT d.producto.id, SUM(d.cantidad), SUM(d.subtotal) FROM DetalleVenta d JOIN d.venta v " +
+            "WHERE v.fechaVenta >= :desde AND v.fechaVenta < :hasta " +
+            "AND v.estado <> com.edu.entity.EstadoVenta.ANULADA GROUP BY d.producto.id")
+    List<Object[]> totalesPorProducto(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    @Query("SELECT v.cliente.id, COUNT(v), SUM(v.total) FROM Venta v " +
+            "WHERE v.fechaVenta >= :desde AND v.fechaVenta < :hasta " +
+            "AND v.estado <> com.edu.entity.EstadoVenta.ANULADA GROUP BY v.cliente.id")
+    List<Object[]> totalesPorCliente(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    // === Almacén columnar de ventas: una fila por línea, agrupadas por venta ===
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v.id, v.fechaVenta, v.cliente.id, v.usuario.id, v.estado, d.producto.id, d.cantidad, d.subtotal " +
+            "FROM DetalleVenta d JOIN d.venta v ORDER BY d.venta.id")
+    Stream<Object[]> streamLineasAnalitica();
+
+    // Carga de una página de resultados del índice
+    @EntityGraph(attributePaths = {"cliente", "usuario"})
+    List<Venta> findByIdIn(Collection<Long> ids);
+
+    // Inicializa en una sola consulta las líneas (y sus productos) de un lote de ventas ya cargadas
+    @Query("SELECT DISTINCT v FROM Venta v LEFT JOIN FETCH v.detalles d LEFT JOIN FETCH d.producto WHERE v IN :ventas")
+    List<Venta> cargarDetalles(@Param("ventas") List<Venta> ventas);
+
+    // Ventas con cliente, usuario, líneas y productos en dos consultas
+    default List<Venta> findConDetalles(Collection<Long> ids) {
+        List<Venta> ventas = findByIdIn(ids);
+        return ventas.isEmpty() ? ventas : cargarDetalles(ventas);
+    }
+}
@@ -0,0 +1,74 @@
+package com.edu.security;
+
+import com.edu.entity.Usuario;
+import com.edu.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Caché acotada (LRU + TTL) email → datos del usuario autenticado.
+// Evita consultar usuarios + roles en cada login y en cada venta; UsuarioServiceImpl invalida al escribir.
+@Component
+public class CacheUsuarios {
+
+    @lombok.Value
+    public static class UsuarioCacheado {
+        Long id;
+        String email;
+        String password;
+        String rol;
+        boolean enabled;
+        Instant cargado;
+    }
+
+    private final UsuarioRepository usuarioRepository;
+    private final Duration ttl;
+    private final Map<String, UsuarioCacheado> entradas;
+
+    public CacheUsuarios(UsuarioRepository usuarioRepository,
+                         @Value("${gesa.seguridad.cache-usuarios.ttl-segundos:300}") long ttlSegundos,
+                         @Value("${gesa.seguridad.cache-usuarios.max:1000}") int maxEntradas) {
+        this.usuarioRepository = usuarioRepository;
+        this.ttl = Duration.ofSeconds(ttlSegundos);
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UsuarioCacheado> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    // Los emails inexistentes no se guardan: cada intento fallido vuelve a consultar
+    public Optional<UsuarioCacheado> buscar(String email) {
+        synchronized (entradas) {
+            UsuarioCacheado cacheado = entradas.get(email);
+            if (cacheado != null && cacheado.getCargado().plus(ttl).isAfter(Instant.now())) {
+                return Optional.of(cacheado);
+            }
+        }
+
+        Optional<UsuarioCacheado> cargado = usuarioRepository.findByEmail(email).map(CacheUsuarios::aCache);
+        cargado.ifPresent(usuario -> {
+            synchronized (entradas) {
+                entradas.put(email, usuario);
+            }
+        });
+        return cargado;
+    }
+
+    public void invalidar(String email) {
+        synchronized (entradas) {
+            entradas.remove(email);
+        }
+    }
+
+    private static UsuarioCacheado aCache(Usuario usuario) {
+        return new UsuarioCacheado(usuario.getId(), usuario.getEmail(), usuario.getPassword(),
+                usuario.getRol().getNombre(), usuario.isEnabled(), Instant.now());
+    }
+}
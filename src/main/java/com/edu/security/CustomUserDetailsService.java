@@ -1,7 +1,5 @@
 package com.edu.security;
 
-import com.edu.entity.Usuario;
-import com.edu.repository.UsuarioRepository;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -11,22 +9,22 @@ import org.springframework.stereotype.Service;
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UsuarioRepository usuarioRepository;
+    private final CacheUsuarios cacheUsuarios;
 
-    public CustomUserDetailsService(UsuarioRepository usuarioRepository) {
-        this.usuarioRepository = usuarioRepository;
+    public CustomUserDetailsService(CacheUsuarios cacheUsuarios) {
+        this.cacheUsuarios = cacheUsuarios;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Usuario usuario = usuarioRepository.findByEmail(email)
+        CacheUsuarios.UsuarioCacheado usuario = cacheUsuarios.buscar(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + email));
 
         return User.builder()
                 .username(usuario.getEmail())
                 .password(usuario.getPassword())
                 .disabled(!usuario.isEnabled())
-                .authorities(usuario.getRol().getNombre())
+                .authorities(usuario.getRol())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.edu.service;
+
+import com.edu.dto.ConsultaVentas;
+import com.edu.dto.FilaAnalitica;
+
+import java.util.List;
+
+// Agregaciones sobre el histórico de ventas desde un almacén columnar en memoria, sin consultar MySQL.
+// Se carga al iniciar y se mantiene con los eventos del outbox (ver SuscriptorEventos)
+public interface AnaliticaVentasService {
+
+    // false mientras se carga al iniciar
+    boolean disponible();
+
+    // Líneas de venta cargadas
+    int filas();
+
+    // Por DIA, en orden de fecha; el resto, de mayor a menor importe
+    List<FilaAnalitica> agrupar(ConsultaVentas consulta);
+}
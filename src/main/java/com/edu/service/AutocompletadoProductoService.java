@@ -0,0 +1,14 @@
+package com.edu.service;
+
+import com.edu.dto.OpcionBusqueda;
+import org.springframework.data.domain.Slice;
+
+// Autocompletado de productos ACTIVO por prefijo del nombre, desde memoria y ordenado por unidades vendidas.
+// Se mantiene con los eventos del outbox (ver SuscriptorEventos)
+public interface AutocompletadoProductoService {
+
+    // false mientras se construye al iniciar: se usa entonces la consulta en la BD
+    boolean disponible();
+
+    Slice<OpcionBusqueda> buscar(String prefijo, int pagina, int tamanio);
+}
@@ -0,0 +1,14 @@
+package com.edu.service;
+
+import com.edu.dto.OpcionBusqueda;
+import org.springframework.data.domain.Slice;
+
+// Búsquedas por prefijo para los campos con autocompletado de los formularios
+public interface BusquedaService {
+
+    Slice<OpcionBusqueda> buscarClientes(String prefijo, int pagina);
+
+    Slice<OpcionBusqueda> buscarProductos(String prefijo, int pagina);
+
+    Slice<OpcionBusqueda> buscarUsuarios(String prefijo, int pagina);
+}
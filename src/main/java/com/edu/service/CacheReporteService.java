@@ -0,0 +1,13 @@
+package com.edu.service;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface CacheReporteService {
+
+    // Archivo ya generado para ese rango con esa versión de los datos (si sigue en caché)
+    Optional<Path> buscar(String rango, String version);
+
+    // Copia el PDF a la caché; reemplaza la versión anterior del mismo rango
+    void guardar(String rango, String version, Path archivo);
+}
@@ -1,10 +1,14 @@
 package com.edu.service;
 
+import com.edu.dto.PaginaCursor;
 import com.edu.entity.Cliente;
 import com.edu.entity.EstadoCliente;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -17,9 +21,10 @@ public interface ClienteService {
     void eliminarCliente(Long id);
     Optional<Cliente> obtenerClientePorId(Long id);
     List<Cliente> listarClientes();
-    Integer SumaListaClientes();
     // === Operaciones de búsqueda ===
-    Page<Cliente> listarClientes(Pageable pageable);
+    // Sin COUNT(*): para el total, TotalesService
+    Slice<Cliente> listarClientes(Pageable pageable);
+    PaginaCursor<Cliente> listarClientes(String despues, String antes, int tamanio);
     public Page<Cliente> buscarClientes(String keyword, Pageable pageable);
     Optional<Cliente> obtenerPorCorreo(String correo);
     Optional<Cliente> obtenerPorNombre(String nombre);
@@ -36,5 +41,7 @@ public interface ClienteService {
 
     // === Reportes ===
     List<Cliente> listarClientesRegistradosDespuesDe(LocalDateTime fecha);
-    List<Cliente> listarClientesRegistradosEntre(LocalDateTime inicio, LocalDateTime fin);
+    boolean existenClientesRegistradosEntre(LocalDateTime inicio, LocalDateTime fin);
+    String versionClientesRegistradosEntre(LocalDateTime inicio, LocalDateTime fin);
+    void exportarClientesPdf(LocalDateTime inicio, LocalDateTime fin, OutputStream salida) throws IOException;
 }
\ No newline at end of file
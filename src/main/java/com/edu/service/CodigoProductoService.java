@@ -0,0 +1,21 @@
+package com.edu.service;
+
+import com.edu.dto.ProductoCodigo;
+import com.edu.entity.Producto;
+
+import java.util.Map;
+import java.util.Optional;
+
+// Índice en memoria código de barras → (id, precio, stock disponible) de los productos ACTIVO para el punto de venta
+public interface CodigoProductoService {
+
+    Optional<ProductoCodigo> buscar(String codigo);
+
+    // === Mantenimiento (se aplica al confirmar la transacción) ===
+    void productoGuardado(Producto producto);
+
+    // Unidades que dejan de estar disponibles por producto (negativas si vuelven: anulación o reserva liberada)
+    void stockDescontado(Map<Long, Integer> cantidadPorProducto);
+
+    void reconciliar();
+}
@@ -0,0 +1,36 @@
+package com.edu.service;
+
+import com.edu.entity.Categoria;
+import com.edu.entity.EstadoCliente;
+import com.edu.entity.EstadoProducto;
+import com.edu.entity.EstadoProveedor;
+import com.edu.entity.EstadoVenta;
+
+import java.util.Map;
+
+// Conteos exactos por entidad y estado desde acumuladores en memoria: O(1) sin importar el tamaño de las tablas
+public interface ContadorService {
+
+    // === Consulta (null = cualquier valor de esa dimensión) ===
+    long clientes(EstadoCliente estado);
+    long productos(Categoria categoria, EstadoProducto estado);
+    long proveedores(EstadoProveedor estado);
+    long ventas(EstadoVenta estado);
+
+    // Todos los contadores por clave
+    Map<String, Long> todos();
+
+    // === Mantenimiento (se aplica al confirmar la transacción) ===
+    void clienteRegistrado(EstadoCliente estado);
+    void clienteCambiado(EstadoCliente anterior, EstadoCliente nuevo);
+
+    void productoRegistrado(Categoria categoria, EstadoProducto estado);
+    void productoCambiado(Categoria categoriaAnterior, EstadoProducto estadoAnterior,
+                          Categoria categoria, EstadoProducto estado);
+
+    void proveedorRegistrado(EstadoProveedor estado);
+    void proveedorCambiado(EstadoProveedor anterior, EstadoProveedor nuevo);
+
+    void ventaRegistrada(EstadoVenta estado);
+    void ventaCambiada(EstadoVenta anterior, EstadoVenta nuevo);
+}
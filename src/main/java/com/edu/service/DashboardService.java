@@ -0,0 +1,11 @@
+package com.edu.service;
+
+import com.edu.dto.ResumenDashboard;
+
+public interface DashboardService {
+
+    // === Lectura (desde memoria) ===
+    ResumenDashboard obtenerResumen();
+
+    // Las actualizaciones incrementales y la reconciliación contra la BD llegan por el outbox (ver SuscriptorEventos)
+}
@@ -0,0 +1,12 @@
+package com.edu.service;
+
+import com.edu.dto.EstadisticasCache;
+
+// Aciertos y fallos de la caché de segundo nivel (hibernate.generate_statistics)
+public interface EstadisticasCacheService {
+
+    EstadisticasCache obtener();
+
+    // Pone los contadores a cero para medir un flujo concreto
+    void reiniciar();
+}
@@ -0,0 +1,20 @@
+package com.edu.service;
+
+import com.edu.entity.TipoEvento;
+
+import java.util.Map;
+
+// Outbox de eventos de dominio y su despacho a los suscriptores
+public interface EventoService {
+
+    // Escribe el evento en la transacción en curso (obligatoria)
+    void publicar(TipoEvento tipo, Long agregadoId);
+    void publicar(TipoEvento tipo, Long agregadoId, Map<String, Object> datos);
+
+    // === Administración ===
+    Map<String, Long> posiciones();
+
+    // Reconstruye la vista de un suscriptor desde la BD; la entrega sigue tras lo que incluye la foto.
+    // No se reentregan eventos viejos: varias vistas acumulan (contadores, rankings) y los contarían dos veces
+    void reconstruir(String suscriptor);
+}
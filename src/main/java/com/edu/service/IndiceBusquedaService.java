@@ -0,0 +1,51 @@
+package com.edu.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Índice de texto en memoria para las búsquedas de los listados (reemplaza LIKE '%...%' en la BD)
+public interface IndiceBusquedaService {
+
+    // false mientras se construye al iniciar: los servicios usan entonces la consulta en la BD
+    boolean disponible();
+
+    // === Consulta: ids ordenados por relevancia ===
+    List<Long> buscarVentas(String keyword);
+    List<Long> buscarProductos(String keyword);
+    List<Long> buscarClientes(String keyword);
+    List<Long> buscarProveedores(String keyword);
+
+    // Se mantiene con los eventos del outbox (ver SuscriptorEventos), que también lo reconstruye
+
+    // Respaldo en la BD sin COUNT(*): el total llega solo hasta la página siguiente, si la hay
+    static <T> Page<T> paginaSinConteo(Slice<T> slice) {
+        long total = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    // Carga solo la página pedida y la devuelve en el orden del índice
+    static <T> Page<T> pagina(List<Long> ids, Pageable pageable,
+                              Function<List<Long>, List<T>> cargar, Function<T, Long> id) {
+        int desde = (int) Math.min(pageable.getOffset(), ids.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), ids.size());
+        List<Long> idsPagina = ids.subList(desde, hasta);
+
+        Map<Long, T> cargados = new HashMap<>();
+        for (T entidad : cargar.apply(idsPagina)) {
+            cargados.put(id.apply(entidad), entidad);
+        }
+        List<T> contenido = new ArrayList<>(idsPagina.size());
+        for (Long idPagina : idsPagina) {
+            T entidad = cargados.get(idPagina);
+            if (entidad != null) {
+                contenido.add(entidad);
+            }
+        }
+        return new PageImpl<>(contenido, pageable, ids.size());
+    }
+}
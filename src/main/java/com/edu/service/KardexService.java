@@ -0,0 +1,27 @@
+package com.edu.service;
+
+import com.edu.dto.MovimientoKardex;
+import com.edu.entity.Producto;
+import com.edu.entity.Venta;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Kardex: historial de movimientos de stock con snapshots periódicas por producto
+public interface KardexService {
+
+    // === Registro (misma transacción que el cambio de Producto.stock) ===
+    void productoCreado(Producto producto);
+    void stockModificado(Producto producto, int diferencia);
+    void ventaDescontada(Venta venta);
+    void ventaAnulada(Venta venta);
+
+    // === Consulta ===
+    List<MovimientoKardex> movimientos(Long productoId, LocalDateTime desde, LocalDateTime hasta);
+
+    // Última snapshot + movimientos posteriores; vacío si el producto no existía a esa fecha
+    Optional<Long> stockEn(Long productoId, LocalDateTime fecha);
+
+    void compactar();
+}
@@ -0,0 +1,17 @@
+package com.edu.service;
+
+import com.edu.dto.ProductoVendido;
+import com.edu.dto.VentanaVentas;
+
+import java.util.List;
+
+// Ranking de productos más vendidos por ventana (hoy, 7 días, 30 días, histórico) desde memoria.
+// Se mantiene con los eventos del outbox (ver SuscriptorEventos)
+public interface MasVendidosService {
+
+    // false mientras se reconstruye al iniciar
+    boolean disponible();
+
+    // O(n): los n primeros del ranking ya ordenado
+    List<ProductoVendido> top(VentanaVentas ventana, int n);
+}
@@ -1,7 +1,12 @@
 package com.edu.service;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
 
 public interface PdfService {
-    public ByteArrayInputStream generarPdfDesdeHtml(String html) throws Exception;
+    // Reporte tabular escrito por bloques directamente en la salida:
+    // la memoria usada no depende del número de filas
+    void generarReporteTabla(String titulo, String[] encabezados, Stream<String[]> filas,
+                             OutputStream salida) throws IOException;
 }
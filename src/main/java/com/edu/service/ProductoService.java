@@ -1,11 +1,13 @@
 package com.edu.service;
 
+import com.edu.dto.PaginaCursor;
 import com.edu.entity.Categoria;
 import com.edu.entity.EstadoProducto;
 import com.edu.entity.Producto;
 import com.edu.entity.Proveedor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,7 +23,9 @@ public interface ProductoService {
     List<Producto> listarProductos();
 
     // === Operaciones de búsqueda ===
-    Page<Producto> listarProductos(Pageable pageable);
+    // Sin COUNT(*): para el total, TotalesService
+    Slice<Producto> listarProductos(Pageable pageable);
+    PaginaCursor<Producto> listarProductos(String despues, String antes, int tamanio);
     Page<Producto> buscarProductos(String keyword, Pageable pageable);
     Optional<Producto> obtenerPorNombre(String nombre);
     List<Producto> buscarPorNombre(String nombreParcial);
@@ -1,9 +1,11 @@
 package com.edu.service;
 
+import com.edu.dto.PaginaCursor;
 import com.edu.entity.EstadoProveedor;
 import com.edu.entity.Proveedor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,7 +21,9 @@ public interface ProveedorService {
     List<Proveedor> listarProveedores();
 
     // === Operaciones de búsqueda ===
-    Page<Proveedor> listarProveedores(Pageable pageable);
+    // Sin COUNT(*): para el total, TotalesService
+    Slice<Proveedor> listarProveedores(Pageable pageable);
+    PaginaCursor<Proveedor> listarProveedores(String despues, String antes, int tamanio);
     Page<Proveedor> buscarProveedores(String keyword, Pageable pageable);
     Optional<Proveedor> obtenerPorRuc(String ruc);
     Optional<Proveedor> obtenerPorCorreo(String correo);
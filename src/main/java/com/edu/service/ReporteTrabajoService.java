@@ -0,0 +1,16 @@
+package com.edu.service;
+
+import com.edu.dto.TipoReporte;
+import com.edu.dto.TrabajoReporte;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ReporteTrabajoService {
+
+    // Encola la generación del PDF y devuelve el trabajo (lanza BusinessException si la cola está llena)
+    TrabajoReporte encolar(TipoReporte tipo, LocalDateTime inicio, LocalDateTime fin, String usuario);
+
+    // Solo el usuario que lo solicitó puede consultar su trabajo
+    Optional<TrabajoReporte> buscar(String id, String usuario);
+}
@@ -0,0 +1,21 @@
+package com.edu.service;
+
+import com.edu.entity.Venta;
+
+import java.util.Map;
+
+// Reservas de stock de las ventas PENDIENTE: se apartan al registrar y vencen si no se pagan
+public interface ReservaStockService {
+
+    // Aparta las unidades con vencimiento; BusinessException si no hay disponible
+    void reservar(Venta venta, Map<Long, Integer> cantidadPorProducto);
+
+    // La reserva pasa a descuento de stock; false si ya no tenía reservas (vencidas)
+    boolean confirmar(Venta venta);
+
+    // Devuelve lo apartado al disponible (venta PENDIENTE anulada)
+    void liberar(Venta venta);
+
+    // Libera en bloque las reservas vencidas
+    void liberarVencidas();
+}
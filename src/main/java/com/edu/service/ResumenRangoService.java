@@ -0,0 +1,12 @@
+package com.edu.service;
+
+import com.edu.dto.ResumenRango;
+
+import java.time.LocalDate;
+
+// Resúmenes de rangos largos (un año o varios) desde ventas/detalle_venta: el rango se parte en meses
+// que se agregan en paralelo, cada uno en su propia transacción de solo lectura
+public interface ResumenRangoService {
+
+    ResumenRango resumir(LocalDate inicio, LocalDate fin);
+}
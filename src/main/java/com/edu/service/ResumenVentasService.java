@@ -0,0 +1,23 @@
+package com.edu.service;
+
+import com.edu.entity.Venta;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface ResumenVentasService {
+
+    // === Mantenimiento (en la misma transacción que la venta) ===
+    void ventaRegistrada(Venta venta);
+    void ventaAnulada(Venta venta);
+
+    // === Reportes por periodo (leen ventas_diarias, no la tabla ventas) ===
+    List<Map<String, Object>> ventasPorDia(LocalDate inicio, LocalDate fin);
+    List<Map<String, Object>> ventasPorMes(LocalDate inicio, LocalDate fin);
+    List<Map<String, Object>> ventasPorAnio(LocalDate inicio, LocalDate fin);
+
+    // === Reconstrucción desde el histórico de ventas ===
+    // Devuelve el número de meses procesados
+    int reconstruir();
+}
@@ -0,0 +1,38 @@
+package com.edu.service;
+
+import com.edu.dto.Evento;
+import com.edu.entity.TipoEvento;
+
+import java.util.*;
+
+// Vista derivada en memoria que se mantiene con los eventos del outbox, en su propio hilo
+public interface SuscriptorEventos {
+
+    String nombre();
+
+    // Relee la vista entera desde la BD y la reemplaza. El outbox la invoca en el hilo del suscriptor
+    // (nunca a la vez que procesar), al iniciar y cuando se pide, dentro de la transacción de solo lectura
+    // en la que toma su corte: las lecturas deben unirse a ella (TransactionTemplate con REQUIRED)
+    void reconstruir();
+
+    // Cada cuánto se vuelve a reconstruir para corregir desvíos (0 = solo al iniciar o cuando se pide)
+    default long reconstruirCadaMs() {
+        return 0;
+    }
+
+    // Solo recibe los eventos que la última foto no incluye. Si falla, el lote se repite:
+    // conviene leer todo de la BD antes de tocar la vista
+    void procesar(List<Evento> eventos);
+
+    // Ids de los agregados de los eventos de esos tipos
+    static Set<Long> agregados(List<Evento> eventos, TipoEvento... tipos) {
+        Set<TipoEvento> buscados = EnumSet.copyOf(Arrays.asList(tipos));
+        Set<Long> ids = new HashSet<>();
+        for (Evento evento : eventos) {
+            if (buscados.contains(evento.getTipo())) {
+                ids.add(evento.getAgregadoId());
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,12 @@
+package com.edu.service;
+
+// Totales de los listados sin COUNT(*) en cada petición: los contadores en memoria
+// y el conteo exacto solo cuando se pide
+public interface TotalesService {
+
+    // De ContadorService: al día con lo confirmado; se corrige tras una caída al reconciliar
+    long estimado(Class<?> entidad);
+
+    // SELECT COUNT(*) real
+    long exacto(Class<?> entidad);
+}
@@ -1,9 +1,13 @@
 package com.edu.service;
 
+import com.edu.dto.PaginaCursor;
 import com.edu.entity.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,7 +24,9 @@ public interface VentaService {
     List<Venta> listarVentas();
 
     // === Operaciones con paginación y búsqueda ===
-    Page<Venta> listarVentas(Pageable pageable);
+    // Sin COUNT(*): para el total, TotalesService
+    Slice<Venta> listarVentas(Pageable pageable);
+    PaginaCursor<Venta> listarVentas(String despues, String antes, int tamanio);
     Page<Venta> buscarVentas(String keyword, Pageable pageable);
 
     // === Filtros específicos ===
@@ -30,8 +36,10 @@ public interface VentaService {
     List<Venta> obtenerPorEstado(EstadoVenta estado);
 
     // === Reportes ===
-    List<Venta> listarVentasEntreFechas(LocalDateTime inicio, LocalDateTime fin);
     List<Venta> listarVentasDespuesDe(LocalDateTime fecha);
+    boolean existenVentasEntreFechas(LocalDateTime inicio, LocalDateTime fin);
+    String versionVentasEntreFechas(LocalDateTime inicio, LocalDateTime fin);
+    void exportarVentasPdf(LocalDateTime inicio, LocalDateTime fin, OutputStream salida) throws IOException;
 
     // === Operaciones de negocio ===
     void cambiarEstado(Long id, EstadoVenta nuevoEstado); // Ej: PENDIENTE → PAGADA → ANULADA
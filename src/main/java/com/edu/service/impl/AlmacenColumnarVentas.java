@@ -0,0 +1,376 @@
+package com.edu.service.impl;
+
+import com.edu.dto.DimensionVentas;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Almacén columnar de las líneas de venta: una fila por DetalleVenta y una columna por campo, cada una en
+// un arreglo primitivo (día como epoch-day, ids como int, importe en centavos, estado como ordinal), sin
+// objetos ni BigDecimal por fila. Un solo escritor agrega al final (la sincronización la hace quien lo usa);
+// los lectores escanean la última Vista publicada en paralelo con fork-join, sin bloqueos.
+// Los cambios de cabecera (estado, cliente, usuario) se escriben sobre las filas existentes: un escaneo
+// concurrente puede ver una venta a medio actualizar, igual que el resto de vistas en memoria.
+class AlmacenColumnarVentas {
+
+    // Filas por tarea hoja del escaneo paralelo
+    private static final int UMBRAL = 1 << 15;
+    // Hasta este número de claves posibles, cada hoja acumula en arreglos indexados por clave (sin hash)
+    private static final int MAXIMO_DENSO = 1 << 12;
+    private static final int CAPACIDAD_INICIAL = 1 << 12;
+
+    // Filtro ya traducido a primitivos; -1 = sin filtro
+    record Filtro(long diaDesde, long diaHasta, int estados, int producto, int cliente, int usuario, int categoria) {
+    }
+
+    // Grupos resultantes: clave y acumulados en arreglos paralelos
+    record Resultado(long[] claves, long[] ventas, long[] unidades, long[] centavos, int grupos) {
+    }
+
+    // Columnas + filas válidas. Se publica una nueva al agregar; los arreglos solo se reemplazan al crecer
+    private record Vista(long[] dia, int[] producto, int[] cliente, int[] usuario, int[] unidades,
+                         long[] centavos, byte[] estado, boolean[] primera, int filas) {
+    }
+
+    private volatile Vista vista = new Vista(new long[CAPACIDAD_INICIAL], new int[CAPACIDAD_INICIAL],
+            new int[CAPACIDAD_INICIAL], new int[CAPACIDAD_INICIAL], new int[CAPACIDAD_INICIAL],
+            new long[CAPACIDAD_INICIAL], new byte[CAPACIDAD_INICIAL], new boolean[CAPACIDAD_INICIAL], 0);
+
+    // Categoría (ordinal) por id de producto; -1 = desconocida. Copia al escribir: cambia poco
+    private volatile byte[] categorias = new byte[0];
+
+    // Venta → primera fila; sus líneas son contiguas
+    private final MapaLargo filaPorVenta = new MapaLargo();
+
+    // Rangos de claves vistos (para decidir la acumulación densa)
+    private volatile long diaMinimo = Long.MAX_VALUE;
+    private volatile long diaMaximo = Long.MIN_VALUE;
+    private volatile int idMaximo;
+
+    // === Escritura (un solo escritor) ===
+
+    // Agrega las líneas de una venta; false si ya estaba (entrega repetida del outbox)
+    boolean agregarVenta(long ventaId, long dia, int cliente, int usuario, int estado,
+                         int[] productos, int[] unidades, long[] centavos) {
+        if (productos.length == 0 || filaPorVenta.get(ventaId) >= 0) {
+            return false;
+        }
+        Vista v = asegurarCapacidad(productos.length);
+        int fila = v.filas;
+        filaPorVenta.put(ventaId, fila);
+        diaMinimo = Math.min(diaMinimo, dia);
+        diaMaximo = Math.max(diaMaximo, dia);
+        int mayor = Math.max(idMaximo, Math.max(cliente, usuario));
+        for (int i = 0; i < productos.length; i++, fila++) {
+            mayor = Math.max(mayor, productos[i]);
+            v.dia[fila] = dia;
+            v.producto[fila] = productos[i];
+            v.cliente[fila] = cliente;
+            v.usuario[fila] = usuario;
+            v.unidades[fila] = unidades[i];
+            v.centavos[fila] = centavos[i];
+            v.estado[fila] = (byte) estado;
+            v.primera[fila] = i == 0;
+        }
+        idMaximo = mayor;
+        vista = new Vista(v.dia, v.producto, v.cliente, v.usuario, v.unidades, v.centavos, v.estado, v.primera, fila);
+        return true;
+    }
+
+    void actualizarCabecera(long ventaId, int cliente, int usuario, int estado) {
+        int fila = filaPorVenta.get(ventaId);
+        if (fila < 0) {
+            return;
+        }
+        idMaximo = Math.max(idMaximo, Math.max(cliente, usuario));
+        Vista v = vista;
+        do {
+            v.cliente[fila] = cliente;
+            v.usuario[fila] = usuario;
+            v.estado[fila] = (byte) estado;
+            fila++;
+        } while (fila < v.filas && !v.primera[fila]);
+    }
+
+    void categoria(int producto, int categoria) {
+        byte[] actual = categorias;
+        byte[] nuevo = Arrays.copyOf(actual, Math.max(actual.length, producto + 1));
+        Arrays.fill(nuevo, actual.length, nuevo.length, (byte) -1);
+        nuevo[producto] = (byte) categoria;
+        categorias = nuevo;
+    }
+
+    private Vista asegurarCapacidad(int adicionales) {
+        Vista v = vista;
+        int necesaria = v.filas + adicionales;
+        if (necesaria <= v.dia.length) {
+            return v;
+        }
+        int capacidad = Math.max(necesaria, v.dia.length * 2);
+        Vista nueva = new Vista(Arrays.copyOf(v.dia, capacidad), Arrays.copyOf(v.producto, capacidad),
+                Arrays.copyOf(v.cliente, capacidad), Arrays.copyOf(v.usuario, capacidad),
+                Arrays.copyOf(v.unidades, capacidad), Arrays.copyOf(v.centavos, capacidad),
+                Arrays.copyOf(v.estado, capacidad), Arrays.copyOf(v.primera, capacidad), v.filas);
+        vista = nueva;
+        return nueva;
+    }
+
+    // === Consulta ===
+    int filas() {
+        return vista.filas;
+    }
+
+    Resultado agrupar(DimensionVentas dimension, Filtro filtro, boolean porLinea) {
+        Vista v = vista;
+        // Rango de claves posibles [base, base + rango); se lee después de la vista, así cubre todas sus filas
+        long base = switch (dimension) {
+            case DIA -> Math.max(filtro.diaDesde(), diaMinimo);
+            case CATEGORIA -> -1;
+            default -> 0;
+        };
+        long rango = switch (dimension) {
+            case DIA -> Math.min(filtro.diaHasta(), diaMaximo) - base + 1;
+            case PRODUCTO, CLIENTE, USUARIO -> idMaximo + 1L;
+            case CATEGORIA -> Byte.MAX_VALUE + 2L;
+            case ESTADO -> Byte.MAX_VALUE + 1L;
+        };
+        int denso = rango > 0 && rango <= MAXIMO_DENSO ? (int) rango : 0;
+        Parcial parcial = ForkJoinPool.commonPool()
+                .invoke(new Escaneo(v, categorias, filtro, dimension, porLinea, base, denso, 0, v.filas));
+        return parcial.resultado();
+    }
+
+    // Divide el rango de filas en mitades hasta UMBRAL; cada hoja agrega en su propio Parcial
+    private static final class Escaneo extends RecursiveTask<Parcial> {
+
+        private final Vista v;
+        private final byte[] categorias;
+        private final Filtro f;
+        private final DimensionVentas dimension;
+        private final boolean porLinea;
+        private final long base;
+        private final int denso;
+        private final int desde;
+        private final int hasta;
+
+        Escaneo(Vista v, byte[] categorias, Filtro f, DimensionVentas dimension, boolean porLinea,
+                long base, int denso, int desde, int hasta) {
+            this.v = v;
+            this.categorias = categorias;
+            this.f = f;
+            this.dimension = dimension;
+            this.porLinea = porLinea;
+            this.base = base;
+            this.denso = denso;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (hasta - desde <= UMBRAL) {
+                return escanear();
+            }
+            int medio = (desde + hasta) >>> 1;
+            Escaneo izquierda = new Escaneo(v, categorias, f, dimension, porLinea, base, denso, desde, medio);
+            izquierda.fork();
+            Parcial derecha = new Escaneo(v, categorias, f, dimension, porLinea, base, denso, medio, hasta).compute();
+            return izquierda.join().unir(derecha);
+        }
+
+        private Parcial escanear() {
+            Parcial parcial = denso > 0 ? new Parcial(base, denso) : new Parcial();
+            for (int i = desde; i < hasta; i++) {
+                long dia = v.dia[i];
+                if (dia < f.diaDesde() || dia > f.diaHasta() || (f.estados() & (1 << v.estado[i])) == 0) {
+                    continue;
+                }
+                int producto = v.producto[i];
+                int categoria = producto < categorias.length ? categorias[producto] : -1;
+                if ((f.producto() >= 0 && producto != f.producto())
+                        || (f.cliente() >= 0 && v.cliente[i] != f.cliente())
+                        || (f.usuario() >= 0 && v.usuario[i] != f.usuario())
+                        || (f.categoria() >= 0 && categoria != f.categoria())) {
+                    continue;
+                }
+                long clave = switch (dimension) {
+                    case DIA -> dia;
+                    case PRODUCTO -> producto;
+                    case CLIENTE -> v.cliente[i];
+                    case USUARIO -> v.usuario[i];
+                    case CATEGORIA -> categoria;
+                    case ESTADO -> v.estado[i];
+                };
+                parcial.sumar(clave, porLinea || v.primera[i] ? 1 : 0, v.unidades[i], v.centavos[i]);
+            }
+            return parcial;
+        }
+    }
+
+    // Acumulados de un rango de filas. Disperso: clave → posición por MapaLargo.
+    // Denso: la posición es clave - base y los grupos vacíos se descartan al final
+    private static final class Parcial {
+
+        private final MapaLargo posiciones;
+        private final long base;
+        private long[] claves;
+        private long[] ventas;
+        private long[] unidades;
+        private long[] centavos;
+        private boolean[] usados;
+        private int grupos;
+
+        Parcial() {
+            this.posiciones = new MapaLargo();
+            this.base = 0;
+            this.claves = new long[16];
+            this.ventas = new long[16];
+            this.unidades = new long[16];
+            this.centavos = new long[16];
+        }
+
+        Parcial(long base, int rango) {
+            this.posiciones = null;
+            this.base = base;
+            this.ventas = new long[rango];
+            this.unidades = new long[rango];
+            this.centavos = new long[rango];
+            this.usados = new boolean[rango];
+        }
+
+        void sumar(long clave, long ventas, long unidades, long centavos) {
+            int posicion;
+            if (posiciones == null) {
+                posicion = (int) (clave - base);
+                usados[posicion] = true;
+            } else {
+                posicion = posiciones.get(clave);
+                if (posicion < 0) {
+                    posicion = nuevoGrupo(clave);
+                }
+            }
+            this.ventas[posicion] += ventas;
+            this.unidades[posicion] += unidades;
+            this.centavos[posicion] += centavos;
+        }
+
+        private int nuevoGrupo(long clave) {
+            if (grupos == claves.length) {
+                int capacidad = grupos * 2;
+                claves = Arrays.copyOf(claves, capacidad);
+                ventas = Arrays.copyOf(ventas, capacidad);
+                unidades = Arrays.copyOf(unidades, capacidad);
+                centavos = Arrays.copyOf(centavos, capacidad);
+            }
+            int posicion = grupos++;
+            posiciones.put(clave, posicion);
+            claves[posicion] = clave;
+            return posicion;
+        }
+
+        Parcial unir(Parcial otro) {
+            if (posiciones == null) {
+                for (int i = 0; i < usados.length; i++) {
+                    usados[i] |= otro.usados[i];
+                    ventas[i] += otro.ventas[i];
+                    unidades[i] += otro.unidades[i];
+                    centavos[i] += otro.centavos[i];
+                }
+                return this;
+            }
+            // Vuelca el más chico sobre el más grande
+            Parcial destino = grupos >= otro.grupos ? this : otro;
+            Parcial origen = destino == this ? otro : this;
+            for (int i = 0; i < origen.grupos; i++) {
+                destino.sumar(origen.claves[i], origen.ventas[i], origen.unidades[i], origen.centavos[i]);
+            }
+            return destino;
+        }
+
+        Resultado resultado() {
+            if (posiciones != null) {
+                return new Resultado(claves, ventas, unidades, centavos, grupos);
+            }
+            int n = 0;
+            for (boolean usado : usados) {
+                if (usado) {
+                    n++;
+                }
+            }
+            Resultado resultado = new Resultado(new long[n], new long[n], new long[n], new long[n], n);
+            for (int i = 0, j = 0; i < usados.length; i++) {
+                if (usados[i]) {
+                    resultado.claves()[j] = base + i;
+                    resultado.ventas()[j] = ventas[i];
+                    resultado.unidades()[j] = unidades[i];
+                    resultado.centavos()[j] = centavos[i];
+                    j++;
+                }
+            }
+            return resultado;
+        }
+    }
+
+    // Tabla hash de direccionamiento abierto long → int (>= 0), sin objetos por entrada
+    private static final class MapaLargo {
+
+        private static final long VACIA = Long.MIN_VALUE;
+
+        private long[] claves = vacias(16);
+        private int[] valores = new int[16];
+        private int tamanio;
+
+        int get(long clave) {
+            int mascara = claves.length - 1;
+            for (int i = indice(clave, mascara); ; i = (i + 1) & mascara) {
+                if (claves[i] == clave) {
+                    return valores[i];
+                }
+                if (claves[i] == VACIA) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long clave, int valor) {
+            if ((tamanio + 1) * 2 > claves.length) {
+                redimensionar();
+            }
+            int mascara = claves.length - 1;
+            int i = indice(clave, mascara);
+            while (claves[i] != VACIA && claves[i] != clave) {
+                i = (i + 1) & mascara;
+            }
+            if (claves[i] == VACIA) {
+                tamanio++;
+            }
+            claves[i] = clave;
+            valores[i] = valor;
+        }
+
+        private void redimensionar() {
+            long[] anteriores = claves;
+            int[] anterioresValores = valores;
+            claves = vacias(anteriores.length * 2);
+            valores = new int[anteriores.length * 2];
+            tamanio = 0;
+            for (int i = 0; i < anteriores.length; i++) {
+                if (anteriores[i] != VACIA) {
+                    put(anteriores[i], anterioresValores[i]);
+                }
+            }
+        }
+
+        private static int indice(long clave, int mascara) {
+            long h = clave * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+
+        private static long[] vacias(int capacidad) {
+            long[] arreglo = new long[capacidad];
+            Arrays.fill(arreglo, VACIA);
+            return arreglo;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.edu.service.impl;
+
+import com.edu.dto.ConsultaVentas;
+import com.edu.dto.DimensionVentas;
+import com.edu.dto.Evento;
+import com.edu.dto.FilaAnalitica;
+import com.edu.entity.Categoria;
+import com.edu.entity.DetalleVenta;
+import com.edu.entity.EstadoVenta;
+import com.edu.entity.TipoEvento;
+import com.edu.entity.Venta;
+import com.edu.exception.BusinessException;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.VentaRepository;
+import com.edu.service.AnaliticaVentasService;
+import com.edu.service.SuscriptorEventos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class AnaliticaVentasServiceImpl implements AnaliticaVentasService, SuscriptorEventos {
+
+    private static final Logger log = LoggerFactory.getLogger(AnaliticaVentasServiceImpl.class);
+
+    private static final EstadoVenta[] ESTADOS = EstadoVenta.values();
+    private static final Categoria[] CATEGORIAS = Categoria.values();
+    private static final int SIN_ANULADAS = (1 << EstadoVenta.PENDIENTE.ordinal()) | (1 << EstadoVenta.PAGADA.ordinal());
+
+    private final VentaRepository ventaRepository;
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate lectura;
+
+    // Se reemplaza al terminar la carga; las escrituras van dentro de bloques synchronized
+    private volatile AlmacenColumnarVentas almacen = new AlmacenColumnarVentas();
+    private volatile boolean disponible;
+
+    public AnaliticaVentasServiceImpl(VentaRepository ventaRepository, ProductoRepository productoRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.ventaRepository = ventaRepository;
+        this.productoRepository = productoRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    @Override
+    public boolean disponible() {
+        return disponible;
+    }
+
+    @Override
+    public int filas() {
+        return almacen.filas();
+    }
+
+    // === Consulta ===
+    @Override
+    public List<FilaAnalitica> agrupar(ConsultaVentas consulta) {
+        DimensionVentas dimension = consulta.getAgruparPor();
+        if (dimension == null) {
+            throw new BusinessException("Debe indicar por qué dimensión agrupar.");
+        }
+        if (consulta.getDesde() != null && consulta.getHasta() != null && consulta.getDesde().isAfter(consulta.getHasta())) {
+            throw new BusinessException("La fecha de inicio no puede ser posterior a la fecha de fin.");
+        }
+
+        int estados = 0;
+        for (EstadoVenta estado : Optional.ofNullable(consulta.getEstados()).orElse(Set.of())) {
+            estados |= 1 << estado.ordinal();
+        }
+        AlmacenColumnarVentas.Filtro filtro = new AlmacenColumnarVentas.Filtro(
+                consulta.getDesde() != null ? consulta.getDesde().toEpochDay() : Long.MIN_VALUE,
+                consulta.getHasta() != null ? consulta.getHasta().toEpochDay() : Long.MAX_VALUE,
+                estados != 0 ? estados : SIN_ANULADAS,
+                id(consulta.getProductoId()), id(consulta.getClienteId()), id(consulta.getUsuarioId()),
+                consulta.getCategoria() != null ? consulta.getCategoria().ordinal() : -1);
+        // Por producto o categoría se cuentan líneas: una venta aporta una por producto
+        boolean porLinea = dimension == DimensionVentas.PRODUCTO || dimension == DimensionVentas.CATEGORIA
+                || consulta.getProductoId() != null || consulta.getCategoria() != null;
+
+        long inicio = System.nanoTime();
+        AlmacenColumnarVentas.Resultado resultado = almacen.agrupar(dimension, filtro, porLinea);
+        log.debug("Agregación por {} sobre {} líneas en {} µs", dimension, almacen.filas(),
+                (System.nanoTime() - inicio) / 1000);
+
+        List<FilaAnalitica> filas = new ArrayList<>(resultado.grupos());
+        for (int i = 0; i < resultado.grupos(); i++) {
+            filas.add(new FilaAnalitica(clave(dimension, resultado.claves()[i]), resultado.ventas()[i],
+                    resultado.unidades()[i], BigDecimal.valueOf(resultado.centavos()[i], 2)));
+        }
+        filas.sort(dimension == DimensionVentas.DIA
+                ? Comparator.comparing(fila -> (LocalDate) fila.getClave())
+                : Comparator.comparing(FilaAnalitica::getImporte).reversed());
+        return filas;
+    }
+
+    private static int id(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new BusinessException("Id fuera de rango: " + id);
+        }
+        return id.intValue();
+    }
+
+    private static Object clave(DimensionVentas dimension, long clave) {
+        return switch (dimension) {
+            case DIA -> LocalDate.ofEpochDay(clave);
+            case PRODUCTO, CLIENTE, USUARIO -> clave;
+            case CATEGORIA -> clave >= 0 ? CATEGORIAS[(int) clave] : null;
+            case ESTADO -> ESTADOS[(int) clave];
+        };
+    }
+
+    // === Mantenimiento (eventos del outbox) ===
+    @Override
+    public String nombre() {
+        return "analitica-ventas";
+    }
+
+    @Override
+    public void procesar(List<Evento> eventos) {
+        Set<Long> idsVentas = SuscriptorEventos.agregados(eventos,
+                TipoEvento.VENTA_REGISTRADA, TipoEvento.VENTA_ACTUALIZADA, TipoEvento.VENTA_ANULADA);
+        Set<Long> idsProductos = SuscriptorEventos.agregados(eventos, TipoEvento.PRODUCTO_ACTUALIZADO);
+
+        lectura.executeWithoutResult(status -> {
+            List<Consumer<AlmacenColumnarVentas>> cambios = new ArrayList<>();
+            productoRepository.findAllById(idsProductos).forEach(p -> {
+                int producto = Math.toIntExact(p.getId());
+                int categoria = p.getCategoria().ordinal();
+                cambios.add(a -> a.categoria(producto, categoria));
+            });
+            // Estado actual de la venta: alta si no estaba, si no, solo la cabecera
+            if (!idsVentas.isEmpty()) {
+                for (Venta venta : ventaRepository.findConDetalles(idsVentas)) {
+                    cambios.add(cambioVenta(venta));
+                }
+            }
+
+            synchronized (this) {
+                for (Consumer<AlmacenColumnarVentas> cambio : cambios) {
+                    cambio.accept(almacen);
+                }
+            }
+        });
+    }
+
+    private static Consumer<AlmacenColumnarVentas> cambioVenta(Venta venta) {
+        long ventaId = venta.getId();
+        long dia = venta.getFechaVenta().toLocalDate().toEpochDay();
+        int cliente = Math.toIntExact(venta.getCliente().getId());
+        int usuario = Math.toIntExact(venta.getUsuario().getId());
+        int estado = venta.getEstado().ordinal();
+
+        List<DetalleVenta> detalles = venta.getDetalles();
+        int[] productos = new int[detalles.size()];
+        int[] unidades = new int[detalles.size()];
+        long[] centavos = new long[detalles.size()];
+        for (int i = 0; i < detalles.size(); i++) {
+            DetalleVenta detalle = detalles.get(i);
+            productos[i] = Math.toIntExact(detalle.getProducto().getId());
+            unidades[i] = detalle.getCantidad();
+            centavos[i] = centavos(detalle.getSubtotal());
+        }
+        return a -> {
+            if (!a.agregarVenta(ventaId, dia, cliente, usuario, estado, productos, unidades, centavos)) {
+                a.actualizarCabecera(ventaId, cliente, usuario, estado);
+            }
+        };
+    }
+
+    private static long centavos(BigDecimal importe) {
+        return importe.movePointRight(2).longValue();
+    }
+
+    // === Carga desde la BD ===
+
+    // La invoca el outbox al iniciar: hasta que termine, disponible() es false
+    @Override
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        AlmacenColumnarVentas nuevo = new AlmacenColumnarVentas();
+        lectura.executeWithoutResult(status -> {
+            try (Stream<Object[]> filas = productoRepository.streamCamposBusqueda()) {
+                filas.forEach(f -> nuevo.categoria(Math.toIntExact((Long) f[0]), ((Categoria) f[2]).ordinal()));
+            }
+            try (Stream<Object[]> filas = ventaRepository.streamLineasAnalitica()) {
+                cargarLineas(nuevo, filas.iterator());
+            }
+        });
+        synchronized (this) {
+            almacen = nuevo;
+            disponible = true;
+        }
+        log.info("Almacén analítico de ventas cargado: {} líneas en {} ms",
+                nuevo.filas(), System.currentTimeMillis() - inicio);
+    }
+
+    // Las líneas llegan ordenadas por venta: se juntan las de cada una y se agregan de a una venta
+    private static void cargarLineas(AlmacenColumnarVentas destino, Iterator<Object[]> filas) {
+        long ventaActual = -1;
+        Object[] cabecera = null;
+        int[] productos = new int[8];
+        int[] unidades = new int[8];
+        long[] centavos = new long[8];
+        int lineas = 0;
+
+        while (true) {
+            Object[] fila = filas.hasNext() ? filas.next() : null;
+            long ventaId = fila != null ? (Long) fila[0] : -1;
+            if (ventaId != ventaActual && lineas > 0) {
+                destino.agregarVenta(ventaActual, ((LocalDateTime) cabecera[1]).toLocalDate().toEpochDay(),
+                        Math.toIntExact((Long) cabecera[2]), Math.toIntExact((Long) cabecera[3]),
+                        ((EstadoVenta) cabecera[4]).ordinal(), Arrays.copyOf(productos, lineas),
+                        Arrays.copyOf(unidades, lineas), Arrays.copyOf(centavos, lineas));
+                lineas = 0;
+            }
+            if (fila == null) {
+                return;
+            }
+            if (lineas == productos.length) {
+                productos = Arrays.copyOf(productos, lineas * 2);
+                unidades = Arrays.copyOf(unidades, lineas * 2);
+                centavos = Arrays.copyOf(centavos, lineas * 2);
+            }
+            ventaActual = ventaId;
+            cabecera = fila;
+            productos[lineas] = Math.toIntExact((Long) fila[5]);
+            unidades[lineas] = (Integer) fila[6];
+            centavos[lineas] = centavos((BigDecimal) fila[7]);
+            lineas++;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.edu.service.impl;
+
+import com.edu.dto.Evento;
+import com.edu.dto.OpcionBusqueda;
+import com.edu.entity.DetalleVenta;
+import com.edu.entity.EstadoProducto;
+import com.edu.entity.Producto;
+import com.edu.entity.TipoEvento;
+import com.edu.entity.Venta;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.VentaDiariaRepository;
+import com.edu.repository.VentaRepository;
+import com.edu.service.AutocompletadoProductoService;
+import com.edu.service.SuscriptorEventos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class AutocompletadoProductoServiceImpl implements AutocompletadoProductoService, SuscriptorEventos {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompletadoProductoServiceImpl.class);
+
+    private final ProductoRepository productoRepository;
+    private final VentaDiariaRepository ventaDiariaRepository;
+    private final VentaRepository ventaRepository;
+    private final TransactionTemplate lectura;
+    private final int mejoresPorNodo;
+
+    private volatile TrieProductos trie;
+    private volatile boolean disponible;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public AutocompletadoProductoServiceImpl(ProductoRepository productoRepository,
+                                             VentaDiariaRepository ventaDiariaRepository,
+                                             VentaRepository ventaRepository,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${gesa.autocompletado.mejores-por-nodo:16}") int mejoresPorNodo) {
+        this.productoRepository = productoRepository;
+        this.ventaDiariaRepository = ventaDiariaRepository;
+        this.ventaRepository = ventaRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.mejoresPorNodo = mejoresPorNodo;
+        this.trie = new TrieProductos(mejoresPorNodo);
+    }
+
+    @Override
+    public boolean disponible() {
+        return disponible;
+    }
+
+    // === Consulta ===
+    @Override
+    public Slice<OpcionBusqueda> buscar(String prefijo, int pagina, int tamanio) {
+        List<OpcionBusqueda> opciones = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : trie.buscar(prefijo == null ? "" : prefijo, pagina, tamanio)) {
+                opciones.add(new OpcionBusqueda(id, trie.nombre(id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // TrieProductos devuelve un elemento de más si hay otra página
+        boolean hayMas = opciones.size() > tamanio;
+        if (hayMas) {
+            opciones.remove(tamanio);
+        }
+        return new SliceImpl<>(opciones, PageRequest.of(pagina, tamanio), hayMas);
+    }
+
+    // === Mantenimiento (eventos del outbox) ===
+    @Override
+    public String nombre() {
+        return "autocompletado-productos";
+    }
+
+    @Override
+    public void procesar(List<Evento> eventos) {
+        Set<Long> idsVentas = SuscriptorEventos.agregados(eventos, TipoEvento.VENTA_REGISTRADA, TipoEvento.VENTA_ANULADA);
+        Set<Long> idsProductos = SuscriptorEventos.agregados(eventos, TipoEvento.PRODUCTO_ACTUALIZADO);
+
+        lectura.executeWithoutResult(status -> {
+            Map<Long, Venta> ventas = new HashMap<>();
+            if (!idsVentas.isEmpty()) {
+                ventaRepository.findConDetalles(idsVentas).forEach(v -> ventas.put(v.getId(), v));
+            }
+            productoRepository.findAllById(idsProductos).forEach(this::productoGuardado);
+
+            for (Evento evento : eventos) {
+                Venta venta = ventas.get(evento.getAgregadoId());
+                if (venta == null) {
+                    continue;
+                }
+                // Una venta registrada ya ANULADA no suma (y su anulación tampoco llega como evento)
+                if (evento.getTipo() == TipoEvento.VENTA_REGISTRADA && !evento.booleano("anulada")) {
+                    sumarVendidos(venta, 1);
+                } else if (evento.getTipo() == TipoEvento.VENTA_ANULADA) {
+                    sumarVendidos(venta, -1);
+                }
+            }
+        });
+    }
+
+    private void productoGuardado(Producto producto) {
+        long id = producto.getId();
+        String nombre = producto.getNombre();
+        boolean activo = producto.getEstado() == EstadoProducto.ACTIVO;
+        aplicar(trie -> {
+            if (activo) {
+                trie.guardar(id, nombre);
+            } else {
+                trie.quitar(id);
+            }
+        });
+    }
+
+    private void sumarVendidos(Venta venta, int signo) {
+        Map<Long, Long> cantidades = new HashMap<>();
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            cantidades.merge(detalle.getProducto().getId(), (long) signo * detalle.getCantidad(), Long::sum);
+        }
+        aplicar(trie -> cantidades.forEach(trie::sumarVendidos));
+    }
+
+    private void aplicar(Consumer<TrieProductos> cambio) {
+        lock.writeLock().lock();
+        try {
+            cambio.accept(trie);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // === Construcción desde la BD ===
+
+    // La invoca el outbox al iniciar: mientras tanto el autocompletado va a la BD
+    @Override
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        TrieProductos nuevo = new TrieProductos(mejoresPorNodo);
+        lectura.executeWithoutResult(status -> cargar(nuevo));
+        lock.writeLock().lock();
+        try {
+            trie = nuevo;
+            disponible = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Autocompletado de productos construido en {} ms", System.currentTimeMillis() - inicio);
+    }
+
+    // Primero las ventas: así cada producto entra al trie ya con su peso
+    private void cargar(TrieProductos nuevo) {
+        for (Object[] fila : ventaDiariaRepository.unidadesPorProducto()) {
+            nuevo.sumarVendidos((Long) fila[0], ((Number) fila[1]).longValue());
+        }
+        try (Stream<Object[]> filas = productoRepository.streamCamposBusqueda()) {
+            filas.filter(f -> f[3] == EstadoProducto.ACTIVO)
+                    .forEach(f -> nuevo.guardar((Long) f[0], (String) f[1]));
+        }
+    }
+}
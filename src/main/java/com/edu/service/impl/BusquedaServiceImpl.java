@@ -0,0 +1,57 @@
+package com.edu.service.impl;
+
+import com.edu.dto.OpcionBusqueda;
+import com.edu.repository.ClienteRepository;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.UsuarioRepository;
+import com.edu.service.AutocompletadoProductoService;
+import com.edu.service.BusquedaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BusquedaServiceImpl implements BusquedaService {
+
+    // Pocas opciones por página: el usuario sigue escribiendo para acotar
+    private static final int TAMANIO_PAGINA = 10;
+
+    private final ClienteRepository clienteRepository;
+    private final ProductoRepository productoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final AutocompletadoProductoService autocompletadoProductoService;
+
+    @Override
+    public Slice<OpcionBusqueda> buscarClientes(String prefijo, int pagina) {
+        return clienteRepository.buscarOpciones(patron(prefijo), pagina(pagina));
+    }
+
+    @Override
+    public Slice<OpcionBusqueda> buscarProductos(String prefijo, int pagina) {
+        // Desde memoria y por unidades vendidas; la BD solo mientras se construye el trie
+        if (autocompletadoProductoService.disponible()) {
+            return autocompletadoProductoService.buscar(prefijo, Math.max(pagina, 0), TAMANIO_PAGINA);
+        }
+        return productoRepository.buscarOpciones(patron(prefijo), pagina(pagina));
+    }
+
+    @Override
+    public Slice<OpcionBusqueda> buscarUsuarios(String prefijo, int pagina) {
+        return usuarioRepository.buscarOpciones(patron(prefijo), pagina(pagina));
+    }
+
+    // "texto%" con los comodines del usuario escapados ('!' es el carácter ESCAPE de las consultas)
+    private static String patron(String prefijo) {
+        String texto = prefijo == null ? "" : prefijo.trim();
+        return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    private static Pageable pagina(int pagina) {
+        return PageRequest.of(Math.max(pagina, 0), TAMANIO_PAGINA);
+    }
+}
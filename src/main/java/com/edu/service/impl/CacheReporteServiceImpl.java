@@ -0,0 +1,150 @@
+package com.edu.service.impl;
+
+import com.edu.service.CacheReporteService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+@Service
+public class CacheReporteServiceImpl implements CacheReporteService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheReporteServiceImpl.class);
+
+    private final Path directorio;
+    private final long maxBytes;
+
+    // Orden de acceso: el primero es el menos usado recientemente
+    private final LinkedHashMap<String, Path> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    // Rango → clave vigente, para descartar versiones que ya no se pueden volver a pedir
+    private final Map<String, String> vigentes = new HashMap<>();
+    private long bytes;
+
+    public CacheReporteServiceImpl(@Value("${gesa.reportes.cache.directorio}") String directorio,
+                                   @Value("${gesa.reportes.cache.max-mb:200}") long maxMb) throws IOException {
+        this.directorio = Files.createDirectories(Paths.get(directorio));
+        this.maxBytes = maxMb * 1024 * 1024;
+        cargarExistentes();
+    }
+
+    // === Consulta ===
+    @Override
+    public synchronized Optional<Path> buscar(String rango, String version) {
+        Path archivo = entradas.get(clave(rango, version));
+        return Optional.ofNullable(archivo).filter(Files::exists);
+    }
+
+    // === Alta / desalojo ===
+    @Override
+    public void guardar(String rango, String version, Path archivo) {
+        String clave = clave(rango, version);
+        Path destino = directorio.resolve(clave + ".pdf");
+        Path temporal = directorio.resolve(clave + ".pdf.tmp");
+        long tamanio;
+        try {
+            // La copia se hace fuera del bloqueo; solo se publica el archivo completo
+            Files.copy(archivo, temporal, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tamanio = Files.size(destino);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el reporte en caché", e);
+            borrar(temporal);
+            return;
+        }
+
+        synchronized (this) {
+            String anterior = vigentes.put(rango, clave);
+            if (anterior != null && !anterior.equals(clave)) {
+                quitar(anterior);
+            }
+            if (entradas.put(clave, destino) == null) {
+                bytes += tamanio;
+            }
+            desalojar();
+        }
+    }
+
+    private void desalojar() {
+        Iterator<Map.Entry<String, Path>> it = entradas.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Path> entrada = it.next();
+            it.remove();
+            vigentes.values().remove(entrada.getKey());
+            bytes -= tamanioDe(entrada.getValue());
+            borrar(entrada.getValue());
+        }
+    }
+
+    private void quitar(String clave) {
+        Path archivo = entradas.remove(clave);
+        if (archivo != null) {
+            bytes -= tamanioDe(archivo);
+            borrar(archivo);
+        }
+    }
+
+    // Los archivos de ejecuciones anteriores siguen siendo válidos: se ordenan por última modificación
+    private void cargarExistentes() throws IOException {
+        List<Path> archivos;
+        try (Stream<Path> listado = Files.list(directorio)) {
+            archivos = listado.toList();
+        }
+        archivos.stream()
+                .filter(archivo -> archivo.toString().endsWith(".pdf.tmp"))
+                .forEach(this::borrar);
+        archivos.stream()
+                .filter(archivo -> archivo.toString().endsWith(".pdf"))
+                .sorted(Comparator.comparing(this::ultimaModificacion))
+                .forEach(archivo -> {
+                    String nombre = archivo.getFileName().toString();
+                    entradas.put(nombre.substring(0, nombre.length() - 4), archivo);
+                    bytes += tamanioDe(archivo);
+                });
+        desalojar();
+    }
+
+    // Nombre de archivo seguro a partir de la clave lógica
+    private static String clave(String rango, String version) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((rango + "#" + version).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long tamanioDe(Path archivo) {
+        try {
+            return Files.size(archivo);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private FileTime ultimaModificacion(Path archivo) {
+        try {
+            return Files.getLastModifiedTime(archivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void borrar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar {}", archivo, e);
+        }
+    }
+}
@@ -1,27 +1,60 @@
 package com.edu.service.impl;
 
+import com.edu.dto.PaginaCursor;
 import com.edu.entity.Cliente;
 import com.edu.entity.EstadoCliente;
+import com.edu.entity.TipoEvento;
 import com.edu.exception.BusinessException;
 import com.edu.repository.ClienteRepository;
 import com.edu.service.ClienteService;
-import jakarta.transaction.Transactional;
+import com.edu.service.ContadorService;
+import com.edu.service.EventoService;
+import com.edu.service.IndiceBusquedaService;
+import com.edu.service.PdfService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ClienteServiceImpl implements ClienteService {
 
+    private static final String[] ENCABEZADOS_PDF =
+            {"ID", "Nombre", "Dirección", "Teléfono", "Correo", "Estado", "Fecha Registro"};
+    private static final int FILAS_POR_LIMPIEZA = 500;
+    private static final DateTimeFormatter FORMATO_FECHA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     private final ClienteRepository clienteRepository;
+    private final EventoService eventoService;
+    private final ContadorService contadorService;
+    private final PdfService pdfService;
+    private final IndiceBusquedaService indiceBusquedaService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    public ClienteServiceImpl(ClienteRepository clienteRepository) {
+    public ClienteServiceImpl(ClienteRepository clienteRepository, EventoService eventoService,
+                              PdfService pdfService, IndiceBusquedaService indiceBusquedaService,
+                              ContadorService contadorService) {
         this.clienteRepository = clienteRepository;
+        this.eventoService = eventoService;
+        this.contadorService = contadorService;
+        this.pdfService = pdfService;
+        this.indiceBusquedaService = indiceBusquedaService;
     }
 
     // === CRUD ===
@@ -37,17 +70,42 @@ public class ClienteServiceImpl implements ClienteService {
         cliente.setEstado(EstadoCliente.ACTIVO); // por defecto
         cliente.setFechaRegistro(LocalDateTime.now());
 
-        return clienteRepository.save(cliente);
+        Cliente guardado = clienteRepository.save(cliente);
+        eventoService.publicar(TipoEvento.CLIENTE_CREADO, guardado.getId());
+        contadorService.clienteRegistrado(guardado.getEstado());
+        return guardado;
     }
 
     @Override
-    public Page<Cliente> listarClientes(Pageable pageable) {
-        return clienteRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Slice<Cliente> listarClientes(Pageable pageable) {
+        return clienteRepository.findBy(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<Cliente> listarClientes(String despues, String antes, int tamanio) {
+        Limit limite = Limit.of(tamanio + 1);
+
+        Long idAntes = PaginaCursor.leerId(antes);
+        if (idAntes != null) {
+            return PaginaCursor.de(clienteRepository.findByIdLessThanOrderByIdDesc(idAntes, limite),
+                    tamanio, true, true, c -> c.getId().toString());
+        }
+
+        Long idDespues = PaginaCursor.leerId(despues);
+        List<Cliente> filas = clienteRepository.findByIdGreaterThanOrderByIdAsc(idDespues == null ? 0L : idDespues, limite);
+        return PaginaCursor.de(filas, tamanio, false, idDespues != null, c -> c.getId().toString());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<Cliente> buscarClientes(String keyword, Pageable pageable) {
-        return clienteRepository.buscarClientes(keyword, pageable);
+        if (!indiceBusquedaService.disponible()) {
+            return IndiceBusquedaService.paginaSinConteo(clienteRepository.buscarClientes(keyword, pageable));
+        }
+        return IndiceBusquedaService.pagina(indiceBusquedaService.buscarClientes(keyword), pageable,
+                clienteRepository::findAllById, Cliente::getId);
 
     }
 
@@ -70,9 +128,12 @@ public class ClienteServiceImpl implements ClienteService {
         existente.setDireccion(cliente.getDireccion());
         existente.setCorreo(cliente.getCorreo());
         existente.setTelefono(cliente.getTelefono());
+        contadorService.clienteCambiado(existente.getEstado(), cliente.getEstado());
         existente.setEstado(cliente.getEstado());
 
-        return clienteRepository.save(existente);
+        Cliente guardado = clienteRepository.save(existente);
+        eventoService.publicar(TipoEvento.CLIENTE_ACTUALIZADO, guardado.getId());
+        return guardado;
     }
 
     @Override
@@ -81,32 +142,33 @@ public class ClienteServiceImpl implements ClienteService {
                 .orElseThrow(() -> new BusinessException("Cliente no encontrado con id: " + id));
 
         // Eliminación lógica (desactivar cliente)
+        contadorService.clienteCambiado(existente.getEstado(), EstadoCliente.INACTIVO);
         existente.setEstado(EstadoCliente.INACTIVO);
         clienteRepository.save(existente);
+        eventoService.publicar(TipoEvento.CLIENTE_ACTUALIZADO, existente.getId());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Cliente> obtenerClientePorId(Long id) {
         return clienteRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Cliente> listarClientes() {
         return clienteRepository.findAll();
     }
 
-    @Override
-    public Integer SumaListaClientes() {
-       return clienteRepository.findAll().size();
-    }
-
     // === Búsquedas ===
     @Override
+    @Transactional(readOnly = true)
     public Optional<Cliente> obtenerPorCorreo(String correo) {
         return clienteRepository.findByCorreo(correo);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Cliente> obtenerPorNombre(String nombre) {
         return clienteRepository.findByNombre(nombre);
     }
@@ -116,6 +178,8 @@ public class ClienteServiceImpl implements ClienteService {
         Cliente cliente = clienteRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("Cliente no encontrado con id: " + id));
 
+        EstadoCliente anterior = cliente.getEstado();
+
         // defensa por si estado es null (por si acaso)
         if (cliente.getEstado() == null) {
             cliente.setEstado(EstadoCliente.ACTIVO);
@@ -129,45 +193,82 @@ public class ClienteServiceImpl implements ClienteService {
         }
 
         clienteRepository.save(cliente);
+        contadorService.clienteCambiado(anterior, cliente.getEstado());
+        eventoService.publicar(TipoEvento.CLIENTE_ACTUALIZADO, cliente.getId());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Cliente> buscarPorNombre(String nombreParcial) {
         return clienteRepository.findByNombreContainingIgnoreCase(nombreParcial);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Cliente> obtenerPorEstado(EstadoCliente estado) {
         return clienteRepository.findByEstado(estado);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Cliente> obtenerPorTelefono(String telefono) {
         return clienteRepository.findByTelefono(telefono);
     }
 
     // === Validaciones ===
     @Override
+    @Transactional(readOnly = true)
     public boolean existeCorreo(String correo) {
         return clienteRepository.existsByCorreo(correo);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existeTelefono(String telefono) {
         return clienteRepository.existsByTelefono(telefono);
     }
 
     // === Reportes ===
     @Override
+    @Transactional(readOnly = true)
     public List<Cliente> listarClientesRegistradosDespuesDe(LocalDateTime fecha) {
         return clienteRepository.findByFechaRegistroAfter(fecha);
     }
 
     @Override
-    public List<Cliente> listarClientesRegistradosEntre(LocalDateTime inicio, LocalDateTime fin) {
-        if (clienteRepository.findByFechaRegistroBetween(inicio, fin) == null) {
-            throw new BusinessException("No hay registros registrados");
+    @Transactional(readOnly = true)
+    public boolean existenClientesRegistradosEntre(LocalDateTime inicio, LocalDateTime fin) {
+        return clienteRepository.existsByFechaRegistroBetween(inicio, fin);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String versionClientesRegistradosEntre(LocalDateTime inicio, LocalDateTime fin) {
+        return Arrays.toString(clienteRepository.versionEntreFechas(inicio, fin).get(0));
+    }
+
+    // Lectura con cursor y escritura fila por fila (ver VentaServiceImpl.exportarVentasPdf)
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarClientesPdf(LocalDateTime inicio, LocalDateTime fin, OutputStream salida) throws IOException {
+        int[] leidos = {0};
+        try (Stream<Cliente> clientes = clienteRepository.streamByFechaRegistroBetween(inicio, fin)) {
+            Stream<String[]> filas = clientes.map(cliente -> {
+                String[] fila = {
+                        String.valueOf(cliente.getId()),
+                        cliente.getNombre(),
+                        cliente.getDireccion(),
+                        cliente.getTelefono(),
+                        cliente.getCorreo(),
+                        String.valueOf(cliente.getEstado()),
+                        cliente.getFechaRegistro().format(FORMATO_FECHA_HORA)
+                };
+                if (++leidos[0] % FILAS_POR_LIMPIEZA == 0) {
+                    entityManager.clear();
+                }
+                return fila;
+            });
+            pdfService.generarReporteTabla("Reporte de Clientes", ENCABEZADOS_PDF, filas, salida);
         }
-        return clienteRepository.findByFechaRegistroBetween(inicio, fin);
     }
 }
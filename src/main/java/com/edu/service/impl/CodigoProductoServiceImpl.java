@@ -0,0 +1,136 @@
+package com.edu.service.impl;
+
+import com.edu.dto.ProductoCodigo;
+import com.edu.entity.EstadoProducto;
+import com.edu.entity.Producto;
+import com.edu.repository.ProductoRepository;
+import com.edu.service.CodigoProductoService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Índice código → producto para escanear en caja sin consultar la BD.
+ * Las escrituras de ProductoServiceImpl y el descuento de stock de las ventas lo actualizan
+ * al confirmar la transacción; una reconciliación periódica corrige cualquier desvío.
+ * Las lecturas no toman bloqueos: solo un get sobre un ConcurrentHashMap.
+ */
+@Service
+public class CodigoProductoServiceImpl implements CodigoProductoService {
+
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate lectura;
+
+    // Entradas inmutables; se reemplazan enteras. Solo se modifican dentro de bloques synchronized
+    private volatile Map<String, ProductoCodigo> porCodigo = new ConcurrentHashMap<>();
+    private volatile Map<Long, String> codigoPorId = new ConcurrentHashMap<>();
+    private volatile boolean cargado;
+
+    public CodigoProductoServiceImpl(ProductoRepository productoRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.productoRepository = productoRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    // === Lectura ===
+    @Override
+    public Optional<ProductoCodigo> buscar(String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return Optional.empty();
+        }
+        String clave = codigo.trim();
+        if (cargado) {
+            return Optional.ofNullable(porCodigo.get(clave));
+        }
+        // Antes de la primera carga se consulta la BD
+        return productoRepository.findByCodigo(clave)
+                .filter(p -> p.getEstado() == EstadoProducto.ACTIVO)
+                .map(CodigoProductoServiceImpl::entrada);
+    }
+
+    // === Actualizaciones incrementales ===
+    @Override
+    public void productoGuardado(Producto producto) {
+        Long id = producto.getId();
+        ProductoCodigo entrada = producto.getCodigo() != null && producto.getEstado() == EstadoProducto.ACTIVO
+                ? entrada(producto) : null;
+
+        Transacciones.alConfirmar(() -> {
+            synchronized (this) {
+                // El código pudo cambiar o quitarse: primero se saca el anterior
+                String anterior = codigoPorId.remove(id);
+                if (anterior != null) {
+                    porCodigo.remove(anterior);
+                }
+                if (entrada != null) {
+                    porCodigo.put(entrada.getCodigo(), entrada);
+                    codigoPorId.put(id, entrada.getCodigo());
+                }
+            }
+        });
+    }
+
+    @Override
+    public void stockDescontado(Map<Long, Integer> cantidadPorProducto) {
+        Map<Long, Integer> cantidades = Map.copyOf(cantidadPorProducto);
+
+        Transacciones.alConfirmar(() -> {
+            synchronized (this) {
+                cantidades.forEach((id, cantidad) -> {
+                    String codigo = codigoPorId.get(id);
+                    if (codigo != null) {
+                        porCodigo.computeIfPresent(codigo, (c, actual) -> new ProductoCodigo(actual.getId(),
+                                c, actual.getNombre(), actual.getPrecio(), actual.getStock() - cantidad));
+                    }
+                });
+            }
+        });
+    }
+
+    // === Reconciliación ===
+
+    /**
+     * Recarga el índice desde la BD y lo reemplaza de una vez.
+     * Un cambio confirmado justo entre la lectura y el reemplazo puede quedar fuera;
+     * la siguiente reconciliación lo incorpora.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${gesa.codigos.reconciliacion-ms:300000}",
+            initialDelayString = "${gesa.codigos.reconciliacion-ms:300000}")
+    public void reconciliar() {
+        Map<String, ProductoCodigo> nuevoPorCodigo = new ConcurrentHashMap<>();
+        Map<Long, String> nuevoCodigoPorId = new ConcurrentHashMap<>();
+        lectura.executeWithoutResult(status -> {
+            try (Stream<Object[]> filas = productoRepository.streamCodigos()) {
+                filas.forEach(f -> {
+                    ProductoCodigo entrada = new ProductoCodigo((Long) f[0], (String) f[1], (String) f[2],
+                            (BigDecimal) f[3], (Integer) f[4]);
+                    nuevoPorCodigo.put(entrada.getCodigo(), entrada);
+                    nuevoCodigoPorId.put(entrada.getId(), entrada.getCodigo());
+                });
+            }
+        });
+        synchronized (this) {
+            porCodigo = nuevoPorCodigo;
+            codigoPorId = nuevoCodigoPorId;
+            cargado = true;
+        }
+    }
+
+    // === Internos ===
+    private static ProductoCodigo entrada(Producto producto) {
+        return new ProductoCodigo(producto.getId(), producto.getCodigo(), producto.getNombre(),
+                producto.getPrecio(), producto.getStock() - producto.getStockReservado());
+    }
+}
@@ -0,0 +1,350 @@
+package com.edu.service.impl;
+
+import com.edu.entity.*;
+import com.edu.repository.ClienteRepository;
+import com.edu.repository.ContadorRepository;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.ProveedorRepository;
+import com.edu.repository.VentaRepository;
+import com.edu.service.ContadorService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contadores por entidad y estado en LongAdder (sin bloqueos entre escritores). Los servicios
+ * informan altas y cambios de estado y se aplican al confirmar; un checkpoint periódico los guarda
+ * en la tabla contadores. Al iniciar se cargan del checkpoint; solo si la parada anterior no lo
+ * guardó (caída) se corrigen en segundo plano con un GROUP BY contra un corte consistente de la BD.
+ */
+@Service
+public class ContadorServiceImpl implements ContadorService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadorServiceImpl.class);
+
+    private static final String CLIENTES = "clientes";
+    private static final String PRODUCTOS = "productos";
+    private static final String PROVEEDORES = "proveedores";
+    private static final String VENTAS = "ventas";
+    // Fila del checkpoint: entidades contadas al parar en orden, o 0 con la aplicación en marcha.
+    // Un checkpoint de una versión que contaba menos entidades también se reconcilia
+    private static final String CIERRE = "checkpoint:cerrado";
+    private static final long ENTIDADES = 4;
+
+    private final ContadorRepository contadorRepository;
+    private final ClienteRepository clienteRepository;
+    private final ProductoRepository productoRepository;
+    private final ProveedorRepository proveedorRepository;
+    private final VentaRepository ventaRepository;
+    private final TransactionTemplate corte;
+    private final TransactionTemplate escritura;
+
+    // Clave: entidad y dimensiones separadas por ":" (combinaciones de enums: pocas y acotadas)
+    private final Map<String, LongAdder> contadores = new ConcurrentHashMap<>();
+    // Compartido por cada commit que informa cambios (de beforeCommit a afterCompletion); exclusivo
+    // para fijar el corte de la reconciliación y para aplicarla: ningún commit queda a medias en ese momento
+    private final ReentrantReadWriteLock confirmaciones = new ReentrantReadWriteLock();
+    // Durante la reconciliación, lo confirmado después del corte (la foto de la BD no lo incluye)
+    private volatile Map<String, LongAdder> posteriores;
+    // Hasta cargar el checkpoint no se guarda nada (se pisaría con ceros)
+    private volatile boolean cargado;
+
+    public ContadorServiceImpl(ContadorRepository contadorRepository, ClienteRepository clienteRepository,
+                               ProductoRepository productoRepository, ProveedorRepository proveedorRepository,
+                               VentaRepository ventaRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.contadorRepository = contadorRepository;
+        this.clienteRepository = clienteRepository;
+        this.productoRepository = productoRepository;
+        this.proveedorRepository = proveedorRepository;
+        this.ventaRepository = ventaRepository;
+        // Con REPEATABLE READ (el nivel por defecto de InnoDB) los tres GROUP BY ven la misma foto,
+        // la de la primera lectura (ver reconciliar). HibernateJpaDialect no admite fijarlo por transacción
+        this.corte = new TransactionTemplate(transactionManager);
+        this.corte.setReadOnly(true);
+        this.escritura = new TransactionTemplate(transactionManager);
+    }
+
+    // === Consulta ===
+    @Override
+    public long clientes(EstadoCliente estado) {
+        return sumar(CLIENTES, estado);
+    }
+
+    @Override
+    public long productos(Categoria categoria, EstadoProducto estado) {
+        return sumar(PRODUCTOS, categoria, estado);
+    }
+
+    @Override
+    public long proveedores(EstadoProveedor estado) {
+        return sumar(PROVEEDORES, estado);
+    }
+
+    @Override
+    public long ventas(EstadoVenta estado) {
+        return sumar(VENTAS, estado);
+    }
+
+    @Override
+    public Map<String, Long> todos() {
+        Map<String, Long> resultado = new TreeMap<>();
+        contadores.forEach((clave, valor) -> resultado.put(clave, valor.sum()));
+        return resultado;
+    }
+
+    // Con todas las dimensiones es una sola lectura; con comodines recorre las claves (número fijo)
+    private long sumar(String entidad, Object... dimensiones) {
+        if (Arrays.stream(dimensiones).allMatch(Objects::nonNull)) {
+            LongAdder contador = contadores.get(clave(entidad, dimensiones));
+            return contador == null ? 0 : contador.sum();
+        }
+        long total = 0;
+        for (Map.Entry<String, LongAdder> entry : contadores.entrySet()) {
+            if (coincide(entry.getKey(), entidad, dimensiones)) {
+                total += entry.getValue().sum();
+            }
+        }
+        return total;
+    }
+
+    private static boolean coincide(String clave, String entidad, Object[] dimensiones) {
+        String[] partes = clave.split(":");
+        if (partes.length != dimensiones.length + 1 || !partes[0].equals(entidad)) {
+            return false;
+        }
+        for (int i = 0; i < dimensiones.length; i++) {
+            if (dimensiones[i] != null && !partes[i + 1].equals(dimensiones[i].toString())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // === Mantenimiento ===
+    @Override
+    public void clienteRegistrado(EstadoCliente estado) {
+        alConfirmar(() -> incrementar(clave(CLIENTES, estado), 1));
+    }
+
+    @Override
+    public void clienteCambiado(EstadoCliente anterior, EstadoCliente nuevo) {
+        mover(clave(CLIENTES, anterior), clave(CLIENTES, nuevo));
+    }
+
+    @Override
+    public void productoRegistrado(Categoria categoria, EstadoProducto estado) {
+        alConfirmar(() -> incrementar(clave(PRODUCTOS, categoria, estado), 1));
+    }
+
+    @Override
+    public void productoCambiado(Categoria categoriaAnterior, EstadoProducto estadoAnterior,
+                                 Categoria categoria, EstadoProducto estado) {
+        mover(clave(PRODUCTOS, categoriaAnterior, estadoAnterior), clave(PRODUCTOS, categoria, estado));
+    }
+
+    @Override
+    public void proveedorRegistrado(EstadoProveedor estado) {
+        alConfirmar(() -> incrementar(clave(PROVEEDORES, estado), 1));
+    }
+
+    @Override
+    public void proveedorCambiado(EstadoProveedor anterior, EstadoProveedor nuevo) {
+        mover(clave(PROVEEDORES, anterior), clave(PROVEEDORES, nuevo));
+    }
+
+    @Override
+    public void ventaRegistrada(EstadoVenta estado) {
+        alConfirmar(() -> incrementar(clave(VENTAS, estado), 1));
+    }
+
+    @Override
+    public void ventaCambiada(EstadoVenta anterior, EstadoVenta nuevo) {
+        mover(clave(VENTAS, anterior), clave(VENTAS, nuevo));
+    }
+
+    private void mover(String desde, String hacia) {
+        if (!desde.equals(hacia)) {
+            alConfirmar(() -> {
+                incrementar(desde, -1);
+                incrementar(hacia, 1);
+            });
+        }
+    }
+
+    private void incrementar(String clave, long cantidad) {
+        contadores.computeIfAbsent(clave, c -> new LongAdder()).add(cantidad);
+        Map<String, LongAdder> despues = posteriores;
+        if (despues != null) {
+            despues.computeIfAbsent(clave, c -> new LongAdder()).add(cantidad);
+        }
+    }
+
+    private static String clave(String entidad, Object... dimensiones) {
+        StringBuilder clave = new StringBuilder(entidad);
+        for (Object dimension : dimensiones) {
+            clave.append(':').append(dimension);
+        }
+        return clave.toString();
+    }
+
+    // El commit y su cambio ocurren con el bloqueo compartido: para la reconciliación, un commit
+    // está entero antes o entero después del corte
+    private void alConfirmar(Runnable cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean bloqueado;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    confirmaciones.readLock().lock();
+                    bloqueado = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    cambio.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (bloqueado) {
+                        confirmaciones.readLock().unlock();
+                    }
+                }
+            });
+        } else {
+            confirmaciones.readLock().lock();
+            try {
+                cambio.run();
+            } finally {
+                confirmaciones.readLock().unlock();
+            }
+        }
+    }
+
+    // === Checkpoint y reconciliación ===
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        // Se suma (no se asigna): conserva lo que ya se contó desde que arrancó la aplicación
+        boolean cerrado = false;
+        for (Contador contador : contadorRepository.findAll()) {
+            if (CIERRE.equals(contador.getClave())) {
+                cerrado = contador.getValor() == ENTIDADES;
+            } else {
+                incrementar(contador.getClave(), contador.getValor());
+            }
+        }
+        cargado = true;
+        // Desde aquí una caída deja el checkpoint marcado como incompleto
+        checkpoint();
+
+        if (cerrado) {
+            log.info("Contadores cargados del checkpoint de la última parada");
+            return;
+        }
+        Thread hilo = new Thread(this::reconciliar, "contadores");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    // Corrige cada contador con el conteo real de un corte consistente. Con las confirmaciones en pausa
+    // (un instante) se fija la foto de la transacción y se empieza a acumular aparte lo que se confirme
+    // después; al terminar los GROUP BY, cada contador pasa a ser lo de la foto más lo posterior
+    private void reconciliar() {
+        try {
+            long inicio = System.currentTimeMillis();
+            Map<String, Long> reales = new HashMap<>();
+            corte.executeWithoutResult(status -> {
+                // La conexión se pide antes de la pausa: los commits en espera también tienen la suya
+                contadorRepository.conectar();
+                confirmaciones.writeLock().lock();
+                try {
+                    // La primera lectura fija la foto (REPEATABLE READ: lectura consistente de InnoDB)
+                    contadorRepository.findById(CIERRE);
+                    posteriores = new ConcurrentHashMap<>();
+                } finally {
+                    confirmaciones.writeLock().unlock();
+                }
+                for (Object[] fila : clienteRepository.contarPorEstado()) {
+                    reales.merge(clave(CLIENTES, fila[0]), (Long) fila[1], Long::sum);
+                }
+                for (Object[] fila : productoRepository.contarPorCategoriaYEstado()) {
+                    reales.merge(clave(PRODUCTOS, fila[0], fila[1]), (Long) fila[2], Long::sum);
+                }
+                for (Object[] fila : proveedorRepository.contarPorEstado()) {
+                    reales.merge(clave(PROVEEDORES, fila[0]), (Long) fila[1], Long::sum);
+                }
+                for (Object[] fila : ventaRepository.contarPorEstado()) {
+                    reales.merge(clave(VENTAS, fila[0]), (Long) fila[1], Long::sum);
+                }
+            });
+
+            int corregidos = 0;
+            confirmaciones.writeLock().lock();
+            try {
+                Map<String, LongAdder> despues = posteriores;
+                Set<String> claves = new HashSet<>(contadores.keySet());
+                claves.addAll(reales.keySet());
+                for (String clave : claves) {
+                    LongAdder posterior = despues.get(clave);
+                    long objetivo = reales.getOrDefault(clave, 0L) + (posterior == null ? 0 : posterior.sum());
+                    LongAdder actual = contadores.get(clave);
+                    long diferencia = objetivo - (actual == null ? 0 : actual.sum());
+                    if (diferencia != 0) {
+                        contadores.computeIfAbsent(clave, c -> new LongAdder()).add(diferencia);
+                        corregidos++;
+                    }
+                }
+            } finally {
+                posteriores = null;
+                confirmaciones.writeLock().unlock();
+            }
+            log.info("Contadores reconciliados en {} ms ({} corregidos)", System.currentTimeMillis() - inicio, corregidos);
+        } catch (RuntimeException e) {
+            posteriores = null;
+            log.error("No se pudieron reconciliar los contadores; quedan los del último checkpoint", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gesa.contadores.checkpoint-ms:30000}",
+            initialDelayString = "${gesa.contadores.checkpoint-ms:30000}")
+    public void checkpoint() {
+        guardar(false);
+    }
+
+    private void guardar(boolean cierre) {
+        if (!cargado) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Contador> filas = new ArrayList<>();
+        todos().forEach((clave, valor) -> filas.add(new Contador(clave, valor, ahora)));
+        filas.add(new Contador(CIERRE, cierre ? ENTIDADES : 0L, ahora));
+        escritura.executeWithoutResult(status -> contadorRepository.saveAll(filas));
+    }
+
+    // Con la aplicación detenida no hay cambios: el próximo arranque usa este checkpoint sin recontar
+    @PreDestroy
+    public void detener() {
+        try {
+            guardar(true);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo guardar el checkpoint de los contadores al detener", e);
+        }
+    }
+}
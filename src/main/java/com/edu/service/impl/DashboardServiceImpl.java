@@ -0,0 +1,216 @@
+package com.edu.service.impl;
+
+import com.edu.dto.Evento;
+import com.edu.dto.ResumenDashboard;
+import com.edu.dto.VentaReciente;
+import com.edu.entity.DetalleVenta;
+import com.edu.entity.TipoEvento;
+import com.edu.entity.Venta;
+import com.edu.repository.ClienteRepository;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.VentaDiariaRepository;
+import com.edu.repository.VentaRepository;
+import com.edu.service.DashboardService;
+import com.edu.service.SuscriptorEventos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Mantiene en memoria los indicadores del dashboard.
+ * Los eventos del outbox lo actualizan de forma incremental y el propio outbox lo reconcilia
+ * contra la BD al iniciar y periódicamente, con el corte de eventos leído junto con la foto.
+ * Los lectores solo leen la última foto publicada, sin bloqueos ni consultas.
+ */
+@Service
+public class DashboardServiceImpl implements DashboardService, SuscriptorEventos {
+
+    private static final int ULTIMAS_VENTAS = 3;
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("dd");
+
+    private final VentaRepository ventaRepository;
+    private final ProductoRepository productoRepository;
+    private final ClienteRepository clienteRepository;
+    private final VentaDiariaRepository ventaDiariaRepository;
+    private final TransactionTemplate lectura;
+    private final long reconciliacionMs;
+
+    // Estado acumulado; solo se modifica dentro de bloques synchronized
+    private BigDecimal totalVentas = BigDecimal.ZERO;
+    private long totalStock;
+    private long totalClientes;
+    private final Deque<VentaReciente> ultimasVentas = new ArrayDeque<>();
+    private final TreeMap<LocalDate, BigDecimal> ventasDelMes = new TreeMap<>();
+    private YearMonth mesActual = YearMonth.now();
+
+    // Última foto publicada (inmutable)
+    private volatile ResumenDashboard resumen =
+            new ResumenDashboard(BigDecimal.ZERO, 0, 0, List.of(), List.of());
+
+    public DashboardServiceImpl(VentaRepository ventaRepository, ProductoRepository productoRepository,
+                                ClienteRepository clienteRepository, VentaDiariaRepository ventaDiariaRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${gesa.dashboard.reconciliacion-ms:300000}") long reconciliacionMs) {
+        this.ventaRepository = ventaRepository;
+        this.productoRepository = productoRepository;
+        this.clienteRepository = clienteRepository;
+        this.ventaDiariaRepository = ventaDiariaRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.reconciliacionMs = reconciliacionMs;
+    }
+
+    // === Lectura ===
+    @Override
+    public ResumenDashboard obtenerResumen() {
+        return resumen;
+    }
+
+    // === Actualizaciones incrementales (eventos del outbox) ===
+    @Override
+    public String nombre() {
+        return "dashboard";
+    }
+
+    @Override
+    public void procesar(List<Evento> eventos) {
+        Set<Long> idsVentas = SuscriptorEventos.agregados(eventos, TipoEvento.VENTA_REGISTRADA, TipoEvento.VENTA_ANULADA);
+
+        lectura.executeWithoutResult(status -> {
+            Map<Long, Venta> ventas = new HashMap<>();
+            if (!idsVentas.isEmpty()) {
+                ventaRepository.findConDetalles(idsVentas).forEach(v -> ventas.put(v.getId(), v));
+            }
+
+            synchronized (this) {
+                for (Evento evento : eventos) {
+                    aplicar(evento, ventas.get(evento.getAgregadoId()));
+                }
+                publicar();
+            }
+        });
+    }
+
+    // Se invoca con el monitor tomado
+    private void aplicar(Evento evento, Venta venta) {
+        switch (evento.getTipo()) {
+            case VENTA_REGISTRADA -> {
+                if (venta != null) {
+                    ventaRegistrada(venta, evento.booleano("stockDescontado"), evento.booleano("anulada"));
+                }
+            }
+            case VENTA_ANULADA -> {
+                if (venta != null) {
+                    acumularVenta(venta.getTotal(), venta.getFechaVenta().toLocalDate(), -1);
+                }
+            }
+            case PRODUCTO_ACTUALIZADO -> totalStock += evento.entero("diferenciaStock");
+            // Una venta PENDIENTE solo reserva: el stock baja al pagarla
+            case STOCK_MODIFICADO -> totalStock += evento.entero("diferencia");
+            case CLIENTE_CREADO -> totalClientes++;
+            default -> {
+            }
+        }
+    }
+
+    private void ventaRegistrada(Venta venta, boolean descuentaStock, boolean anulada) {
+        VentaReciente reciente = new VentaReciente(venta.getId(), venta.getCliente().getNombre(),
+                venta.getTotal(), venta.getFechaVenta());
+
+        ultimasVentas.addFirst(reciente);
+        while (ultimasVentas.size() > ULTIMAS_VENTAS) {
+            ultimasVentas.removeLast();
+        }
+        if (descuentaStock) {
+            for (DetalleVenta detalle : venta.getDetalles()) {
+                totalStock -= detalle.getCantidad();
+            }
+        }
+        if (!anulada) {
+            acumularVenta(reciente.getTotal(), reciente.getFechaVenta().toLocalDate(), 1);
+        }
+    }
+
+    // === Reconciliación ===
+
+    /**
+     * Recalcula todos los indicadores desde la BD y reemplaza el estado en memoria.
+     * La invoca el outbox en el hilo del suscriptor y en la transacción de su corte: los eventos
+     * posteriores a la foto se aplican después, una sola vez.
+     */
+    @Override
+    public void reconstruir() {
+        lectura.executeWithoutResult(status -> {
+            BigDecimal total = Optional.ofNullable(ventaRepository.sumarTotalVentas()).orElse(BigDecimal.ZERO);
+            long stock = Optional.ofNullable(productoRepository.SumaStock()).orElse(0);
+            long clientes = clienteRepository.count();
+
+            List<VentaReciente> recientes = ventaRepository.findTop3ByOrderByFechaVentaDesc().stream()
+                    .map(v -> new VentaReciente(v.getId(), v.getCliente().getNombre(), v.getTotal(), v.getFechaVenta()))
+                    .toList();
+
+            YearMonth mes = YearMonth.now();
+            TreeMap<LocalDate, BigDecimal> delMes = new TreeMap<>();
+            for (Object[] fila : ventaDiariaRepository.totalesPorDia(mes.atDay(1), mes.atEndOfMonth())) {
+                delMes.put((LocalDate) fila[0], (BigDecimal) fila[2]);
+            }
+
+            synchronized (this) {
+                totalVentas = total;
+                totalStock = stock;
+                totalClientes = clientes;
+                ultimasVentas.clear();
+                ultimasVentas.addAll(recientes);
+                ventasDelMes.clear();
+                ventasDelMes.putAll(delMes);
+                mesActual = mes;
+                publicar();
+            }
+        });
+    }
+
+    @Override
+    public long reconstruirCadaMs() {
+        return reconciliacionMs;
+    }
+
+    // === Internos ===
+
+    // signo = 1 para una venta nueva, -1 para una anulación
+    private void acumularVenta(BigDecimal total, LocalDate fecha, int signo) {
+        BigDecimal importe = signo > 0 ? total : total.negate();
+        totalVentas = totalVentas.add(importe);
+
+        YearMonth ahora = YearMonth.now();
+        if (!ahora.equals(mesActual)) {
+            ventasDelMes.clear();
+            mesActual = ahora;
+        }
+        if (YearMonth.from(fecha).equals(mesActual)) {
+            ventasDelMes.merge(fecha, importe, BigDecimal::add);
+        }
+    }
+
+    // Publica una nueva foto inmutable; se invoca con el monitor tomado
+    private void publicar() {
+        List<Map<String, Object>> delMes = new ArrayList<>();
+        ventasDelMes.forEach((fecha, total) -> {
+            if (total.signum() > 0) {
+                Map<String, Object> ventaDiaria = new LinkedHashMap<>();
+                ventaDiaria.put("fecha", fecha.format(FORMATO_DIA));
+                ventaDiaria.put("total", total);
+                delMes.add(ventaDiaria);
+            }
+        });
+
+        resumen = new ResumenDashboard(totalVentas, totalStock, totalClientes,
+                List.copyOf(ultimasVentas), List.copyOf(delMes));
+    }
+}
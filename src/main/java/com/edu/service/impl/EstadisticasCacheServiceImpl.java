@@ -0,0 +1,45 @@
+package com.edu.service.impl;
+
+import com.edu.dto.EstadisticasCache;
+import com.edu.service.EstadisticasCacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class EstadisticasCacheServiceImpl implements EstadisticasCacheService {
+
+    private final Statistics estadisticas;
+
+    public EstadisticasCacheServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public EstadisticasCache obtener() {
+        List<EstadisticasCache.Region> regiones = new ArrayList<>();
+        String[] nombres = estadisticas.getSecondLevelCacheRegionNames();
+        Arrays.sort(nombres);
+        for (String nombre : nombres) {
+            CacheRegionStatistics region = estadisticas.getCacheRegionStatistics(nombre);
+            if (region != null) {
+                regiones.add(new EstadisticasCache.Region(nombre, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), region.getElementCountInMemory()));
+            }
+        }
+        return new EstadisticasCache(estadisticas.getStart(), estadisticas.getPrepareStatementCount(),
+                estadisticas.getEntityLoadCount(), estadisticas.getQueryCacheHitCount(),
+                estadisticas.getQueryCacheMissCount(), regiones);
+    }
+
+    @Override
+    public void reiniciar() {
+        estadisticas.clear();
+    }
+}
@@ -0,0 +1,395 @@
+package com.edu.service.impl;
+
+import com.edu.dto.Evento;
+import com.edu.entity.EventoOutbox;
+import com.edu.entity.TipoEvento;
+import com.edu.exception.BusinessException;
+import com.edu.repository.EventoOutboxRepository;
+import com.edu.service.EventoService;
+import com.edu.service.SuscriptorEventos;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Outbox transaccional: los servicios escriben el evento junto con su cambio y cada suscriptor
+ * lo recibe después, en lotes y en su propio hilo.
+ * Al iniciar (y al pedir una reconstrucción) el suscriptor relee su vista desde la BD en la misma
+ * transacción en la que se toma el corte del outbox: la entrega sigue exactamente con los eventos
+ * que esa foto no incluye, sin perder ni repetir ninguno.
+ * Un hueco en los ids (transacción aún sin confirmar) detiene la entrega hasta que se llena o se
+ * sabe que fue un rollback de este proceso. Si pasa el margen sin saberlo, la entrega sigue, pero
+ * esos ids quedan pendientes y se buscan en la BD hasta que aparecen: nunca se dan por perdidos.
+ */
+@Service
+public class EventoServiceImpl implements EventoService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventoServiceImpl.class);
+    private static final TypeReference<Map<String, Object>> TIPO_DATOS = new TypeReference<>() {
+    };
+
+    // Ids por debajo del último que pueden seguir sin confirmar al tomar un corte (transacciones en curso)
+    private static final long VENTANA_CORTE = 1000;
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final List<SuscriptorEventos> suscriptores;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate lectura;
+    private final int lote;
+    private final Duration margen;
+    private final long esperaMs;
+    private final Duration retencion;
+
+    private final Map<String, Entrega> entregas = new ConcurrentHashMap<>();
+    // Ids de eventos cuya transacción hizo rollback en este proceso: sus huecos se saltan sin esperar
+    private final Set<Long> descartados = ConcurrentHashMap.newKeySet();
+    private final Object senal = new Object();
+    private volatile boolean activo;
+    private ExecutorService hilos;
+
+    // Estado de entrega de un suscriptor; salvo posicion y reconstruir, solo lo usa su hilo
+    private static final class Entrega {
+        final SuscriptorEventos suscriptor;
+        // Último evento entregado o incluido en la foto
+        volatile long posicion;
+        volatile boolean reconstruir = true;
+        long ultimaReconstruccion;
+        // Ids posteriores a la posición que la foto ya incluye (hasta el corte): se saltan sin entregarlos
+        Set<Long> incluidos = Set.of();
+        long corte;
+        // Id de la fila que sigue a cada hueco → cuándo se vio (nanoTime)
+        final NavigableMap<Long, Long> huecos = new TreeMap<>();
+        // Ids saltados tras el margen sin constar su rollback (otra instancia, o el commit falló a medias)
+        final NavigableSet<Long> pendientes = new TreeSet<>();
+        long ultimaRevision;
+
+        Entrega(SuscriptorEventos suscriptor) {
+            this.suscriptor = suscriptor;
+        }
+    }
+
+    public EventoServiceImpl(EventoOutboxRepository eventoOutboxRepository,
+                             List<SuscriptorEventos> suscriptores,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${gesa.outbox.lote:200}") int lote,
+                             @Value("${gesa.outbox.margen-ms:5000}") long margenMs,
+                             @Value("${gesa.outbox.espera-ms:1000}") long esperaMs,
+                             @Value("${gesa.outbox.retencion-dias:7}") long retencionDias) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.suscriptores = suscriptores;
+        this.objectMapper = objectMapper;
+        // Sin nombre: la foto y el corte se leen del primario (ver EnrutadorDataSource)
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.lote = lote;
+        this.margen = Duration.ofMillis(margenMs);
+        this.esperaMs = esperaMs;
+        this.retencion = Duration.ofDays(retencionDias);
+    }
+
+    // === Publicación ===
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publicar(TipoEvento tipo, Long agregadoId) {
+        publicar(tipo, agregadoId, Map.of());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publicar(TipoEvento tipo, Long agregadoId, Map<String, Object> datos) {
+        long id = eventoOutboxRepository.save(EventoOutbox.builder()
+                .tipo(tipo)
+                .agregadoId(agregadoId)
+                .datos(datos.isEmpty() ? null : escribir(datos))
+                .creado(LocalDateTime.now())
+                .build()).getId();
+
+        // Al confirmar se despierta a los suscriptores en lugar de esperar al siguiente sondeo;
+        // tras un rollback el id ya no llegará y su hueco no tiene que esperar al margen
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                despertar();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    descartados.add(id);
+                    despertar();
+                }
+            }
+        });
+    }
+
+    // === Despacho ===
+
+    // Cada suscriptor empieza reconstruyendo su vista en su hilo (ver reconstruir)
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        for (SuscriptorEventos suscriptor : suscriptores) {
+            entregas.put(suscriptor.nombre(), new Entrega(suscriptor));
+        }
+
+        activo = true;
+        hilos = Executors.newFixedThreadPool(Math.max(suscriptores.size(), 1), tarea -> {
+            Thread hilo = new Thread(tarea, "eventos-outbox");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        entregas.values().forEach(entrega -> hilos.submit(() -> bucle(entrega)));
+        log.info("Outbox: {} suscriptores", suscriptores.size());
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        if (hilos != null) {
+            hilos.shutdownNow();
+        }
+    }
+
+    private void bucle(Entrega entrega) {
+        while (activo) {
+            try {
+                if (entrega.reconstruir || vencida(entrega)) {
+                    reconstruir(entrega);
+                } else if (revisarPendientes(entrega) + entregar(entrega) == 0) {
+                    esperar();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // El lote (o la reconstrucción) se reintenta desde la misma posición
+                log.error("Outbox: error en el suscriptor {}", entrega.suscriptor.nombre(), e);
+                try {
+                    esperar();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Reconstrucción periódica (p.ej. la reconciliación del dashboard), en el mismo hilo que los lotes
+    private static boolean vencida(Entrega entrega) {
+        long cadaMs = entrega.suscriptor.reconstruirCadaMs();
+        return cadaMs > 0 && System.nanoTime() - entrega.ultimaReconstruccion >= cadaMs * 1_000_000;
+    }
+
+    // Foto de la vista y corte del outbox en la misma transacción de solo lectura (con REPEATABLE READ,
+    // la lectura consistente de InnoDB): los ids visibles del corte son justo los que la foto ya refleja.
+    // Los ids de la ventana que aún no se ven (transacciones en curso) se entregan cuando se confirmen
+    private void reconstruir(Entrega entrega) {
+        entrega.reconstruir = false;
+        entrega.ultimaReconstruccion = System.nanoTime();
+        try {
+            lectura.executeWithoutResult(status -> {
+                long ultimo = eventoOutboxRepository.ultimoId();
+                long desde = Math.max(ultimo - VENTANA_CORTE, 0);
+                Set<Long> incluidos = new HashSet<>(eventoOutboxRepository.idsEntre(desde, ultimo));
+
+                // Los pendientes que ya se ven entran en la foto; los del tramo nuevo vuelven a ser huecos
+                entrega.pendientes.removeIf(id -> id > desde);
+                Set<Long> visibles = new HashSet<>();
+                eventoOutboxRepository.findAllById(entrega.pendientes).forEach(fila -> visibles.add(fila.getId()));
+
+                entrega.suscriptor.reconstruir();
+
+                entrega.pendientes.removeAll(visibles);
+                entrega.incluidos = incluidos;
+                entrega.corte = ultimo;
+                entrega.huecos.clear();
+                entrega.posicion = desde;
+                log.info("Outbox: {} reconstruido hasta el evento {}", entrega.suscriptor.nombre(), ultimo);
+            });
+        } catch (RuntimeException e) {
+            entrega.reconstruir = true;
+            throw e;
+        }
+    }
+
+    private int entregar(Entrega entrega) {
+        long desde = entrega.posicion;
+        List<EventoOutbox> filas = eventoOutboxRepository.findByIdGreaterThanOrderByIdAsc(desde, Limit.of(lote));
+
+        // El margen de un hueco corre desde que se vio por primera vez, no desde el "creado" de la fila
+        // siguiente: una transacción que tarda más que el margen no se salta por una fila posterior ya vieja.
+        // Se anotan todos los huecos del lote a la vez para que venzan juntos
+        long ahora = System.nanoTime();
+        long anterior = desde;
+        for (EventoOutbox fila : filas) {
+            if (fila.getId() != anterior + 1) {
+                entrega.huecos.putIfAbsent(fila.getId(), ahora);
+            }
+            anterior = fila.getId();
+        }
+
+        List<Evento> eventos = new ArrayList<>();
+        long esperado = desde + 1;
+        for (EventoOutbox fila : filas) {
+            if (fila.getId() != esperado && !descartados(esperado, fila.getId())) {
+                if (ahora - entrega.huecos.get(fila.getId()) < margen.toNanos()) {
+                    break;
+                }
+                // Sin constancia del rollback: se sigue, pero los ids se vigilan (ver revisarPendientes)
+                for (long id = esperado; id < fila.getId(); id++) {
+                    if (!descartados.contains(id)) {
+                        entrega.pendientes.add(id);
+                    }
+                }
+                log.warn("Outbox: {} sigue sin los ids {}-{} (sin confirmar tras el margen), quedan pendientes",
+                        entrega.suscriptor.nombre(), esperado, fila.getId() - 1);
+            }
+            if (!entrega.incluidos.contains(fila.getId())) {
+                eventos.add(aEvento(fila));
+            }
+            esperado = fila.getId() + 1;
+        }
+        if (esperado == desde + 1) {
+            return 0;
+        }
+
+        if (!eventos.isEmpty()) {
+            entrega.suscriptor.procesar(eventos);
+        }
+        // Si se pidió una reconstrucción mientras tanto, la posición la fija el nuevo corte
+        entrega.posicion = esperado - 1;
+        entrega.huecos.headMap(esperado, false).clear();
+        if (esperado - 1 >= entrega.corte) {
+            entrega.incluidos = Set.of();
+        }
+        return (int) (esperado - 1 - desde);
+    }
+
+    // Busca en la BD los ids pendientes (cada margen) y entrega los que se confirmaron tarde.
+    // Los suscriptores suman y restan por evento o releen el agregado: el orden no altera el resultado
+    private int revisarPendientes(Entrega entrega) {
+        entrega.pendientes.removeAll(descartados);
+        long ahora = System.nanoTime();
+        if (entrega.pendientes.isEmpty() || ahora - entrega.ultimaRevision < margen.toNanos()) {
+            return 0;
+        }
+        entrega.ultimaRevision = ahora;
+
+        List<EventoOutbox> tardios = new ArrayList<>(eventoOutboxRepository.findAllById(entrega.pendientes));
+        if (tardios.isEmpty()) {
+            return 0;
+        }
+        tardios.sort(Comparator.comparing(EventoOutbox::getId));
+        List<Evento> eventos = new ArrayList<>();
+        for (EventoOutbox fila : tardios) {
+            if (!entrega.incluidos.contains(fila.getId())) {
+                eventos.add(aEvento(fila));
+            }
+        }
+        if (!eventos.isEmpty()) {
+            entrega.suscriptor.procesar(eventos);
+        }
+        tardios.forEach(fila -> entrega.pendientes.remove(fila.getId()));
+        log.info("Outbox: {} recibe {} eventos confirmados después del margen",
+                entrega.suscriptor.nombre(), tardios.size());
+        return tardios.size();
+    }
+
+    // Todos los ids del hueco [desde, hasta) son rollbacks de este proceso
+    private boolean descartados(long desde, long hasta) {
+        for (long id = desde; id < hasta; id++) {
+            if (!descartados.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void esperar() throws InterruptedException {
+        synchronized (senal) {
+            senal.wait(esperaMs);
+        }
+    }
+
+    private void despertar() {
+        synchronized (senal) {
+            senal.notifyAll();
+        }
+    }
+
+    // === Mantenimiento ===
+
+    // Borra lo que ya recibieron todos los suscriptores (se conserva la retención para consultarlos)
+    @Scheduled(fixedDelayString = "${gesa.outbox.limpieza-ms:3600000}",
+            initialDelayString = "${gesa.outbox.limpieza-ms:3600000}")
+    @Transactional
+    public void limpiar() {
+        OptionalLong minima = entregas.values().stream().mapToLong(entrega -> entrega.posicion).min();
+        if (minima.isPresent()) {
+            int filas = eventoOutboxRepository.eliminarEntregados(minima.getAsLong(),
+                    LocalDateTime.now().minus(retencion));
+            descartados.removeIf(id -> id <= minima.getAsLong());
+            log.debug("Outbox: {} eventos eliminados", filas);
+        }
+    }
+
+    @Override
+    public Map<String, Long> posiciones() {
+        Map<String, Long> resultado = new TreeMap<>();
+        entregas.forEach((nombre, entrega) -> resultado.put(nombre, entrega.posicion));
+        return resultado;
+    }
+
+    @Override
+    public void reconstruir(String suscriptor) {
+        Entrega entrega = entregas.get(suscriptor);
+        if (entrega == null) {
+            throw new BusinessException("Suscriptor no encontrado: " + suscriptor);
+        }
+        entrega.reconstruir = true;
+        despertar();
+    }
+
+    // === Internos ===
+    private Evento aEvento(EventoOutbox fila) {
+        Map<String, Object> datos = Map.of();
+        if (fila.getDatos() != null) {
+            try {
+                datos = objectMapper.readValue(fila.getDatos(), TIPO_DATOS);
+            } catch (JsonProcessingException e) {
+                log.warn("Outbox: datos ilegibles en el evento {}", fila.getId(), e);
+            }
+        }
+        return new Evento(fila.getId(), fila.getTipo(), fila.getAgregadoId(), datos, fila.getCreado());
+    }
+
+    private String escribir(Map<String, Object> datos) {
+        try {
+            return objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar los datos del evento", e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.edu.service.impl;
+
+import com.edu.dto.Evento;
+import com.edu.entity.*;
+import com.edu.repository.*;
+import com.edu.service.IndiceBusquedaService;
+import com.edu.service.SuscriptorEventos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class IndiceBusquedaServiceImpl implements IndiceBusquedaService, SuscriptorEventos {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusquedaServiceImpl.class);
+
+    // Todos los índices juntos, para poder reconstruirlos aparte y reemplazarlos de una vez
+    private static final class Indices {
+        // Campos: nombre, correo, estado
+        final IndiceInvertido clientes = new IndiceInvertido(3, 2, 1);
+        // Campos: nombre, correo, ruc, estado
+        final IndiceInvertido proveedores = new IndiceInvertido(3, 2, 2, 1);
+        // Campos: nombre, categoría, estado (+ nombre del proveedor por relación)
+        final IndiceInvertido productos = new IndiceInvertido(3, 2, 1);
+        // Campo: email (solo para buscar ventas)
+        final IndiceInvertido usuarios = new IndiceInvertido(1);
+
+        final IndiceRelaciones productosPorProveedor = new IndiceRelaciones();
+        final IndiceRelaciones ventasPorCliente = new IndiceRelaciones();
+        final IndiceRelaciones ventasPorUsuario = new IndiceRelaciones();
+        final IndiceRelaciones ventasPorProducto = new IndiceRelaciones();
+    }
+
+    private final VentaRepository ventaRepository;
+    private final ProductoRepository productoRepository;
+    private final ClienteRepository clienteRepository;
+    private final ProveedorRepository proveedorRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate lectura;
+
+    private volatile Indices indices = new Indices();
+    private volatile boolean disponible;
+
+    public IndiceBusquedaServiceImpl(VentaRepository ventaRepository,
+                                     ProductoRepository productoRepository,
+                                     ClienteRepository clienteRepository,
+                                     ProveedorRepository proveedorRepository,
+                                     UsuarioRepository usuarioRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.ventaRepository = ventaRepository;
+        this.productoRepository = productoRepository;
+        this.clienteRepository = clienteRepository;
+        this.proveedorRepository = proveedorRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    @Override
+    public boolean disponible() {
+        return disponible;
+    }
+
+    // === Consulta ===
+    @Override
+    public List<Long> buscarClientes(String keyword) {
+        return indices.clientes.buscarOrdenado(keyword);
+    }
+
+    @Override
+    public List<Long> buscarProveedores(String keyword) {
+        return indices.proveedores.buscarOrdenado(keyword);
+    }
+
+    @Override
+    public List<Long> buscarProductos(String keyword) {
+        Indices actual = indices;
+        Map<Long, Integer> puntajes = actual.productos.buscar(keyword);
+        // Productos de los proveedores que coinciden (menor relevancia que un campo propio)
+        Set<Long> proveedores = actual.proveedores.buscar(keyword).keySet();
+        for (Long id : actual.productosPorProveedor.origenesDe(proveedores)) {
+            puntajes.putIfAbsent(id, 1);
+        }
+        return IndiceInvertido.ordenar(puntajes);
+    }
+
+    @Override
+    public List<Long> buscarVentas(String keyword) {
+        Indices actual = indices;
+        // Ventas del cliente, usuario o producto que coincide; las más recientes primero
+        Set<Long> ventas = new HashSet<>();
+        ventas.addAll(actual.ventasPorCliente.origenesDe(soloNombre(actual.clientes, keyword)));
+        ventas.addAll(actual.ventasPorUsuario.origenesDe(actual.usuarios.buscar(keyword).keySet()));
+        ventas.addAll(actual.ventasPorProducto.origenesDe(soloNombre(actual.productos, keyword)));
+        List<Long> ids = new ArrayList<>(ventas);
+        ids.sort(Comparator.reverseOrder());
+        return ids;
+    }
+
+    // En ventas solo cuenta el nombre del cliente o producto (campo 0), no su correo ni estado
+    private static Set<Long> soloNombre(IndiceInvertido indice, String keyword) {
+        return indice.buscarEnCampo(keyword, 0).keySet();
+    }
+
+    // === Mantenimiento (eventos del outbox) ===
+    @Override
+    public String nombre() {
+        return "indice-busqueda";
+    }
+
+    // Se relee el estado actual de cada entidad: reindexar dos veces lo mismo no cambia nada
+    @Override
+    public void procesar(List<Evento> eventos) {
+        Set<Long> clientes = SuscriptorEventos.agregados(eventos, TipoEvento.CLIENTE_CREADO, TipoEvento.CLIENTE_ACTUALIZADO);
+        Set<Long> proveedores = SuscriptorEventos.agregados(eventos, TipoEvento.PROVEEDOR_ACTUALIZADO);
+        Set<Long> productos = SuscriptorEventos.agregados(eventos, TipoEvento.PRODUCTO_ACTUALIZADO);
+        Set<Long> usuarios = SuscriptorEventos.agregados(eventos, TipoEvento.USUARIO_REGISTRADO);
+        Set<Long> ventas = SuscriptorEventos.agregados(eventos, TipoEvento.VENTA_REGISTRADA, TipoEvento.VENTA_ACTUALIZADA);
+
+        lectura.executeWithoutResult(status -> {
+            clienteRepository.findAllById(clientes).forEach(this::clienteGuardado);
+            proveedorRepository.findAllById(proveedores).forEach(this::proveedorGuardado);
+            if (!productos.isEmpty()) {
+                productoRepository.findByIdIn(productos).forEach(this::productoGuardado);
+            }
+            usuarioRepository.findAllById(usuarios).forEach(this::usuarioGuardado);
+            if (!ventas.isEmpty()) {
+                ventaRepository.findConDetalles(ventas).forEach(this::ventaGuardada);
+            }
+        });
+    }
+
+    private void clienteGuardado(Cliente cliente) {
+        Long id = cliente.getId();
+        String[] campos = {cliente.getNombre(), cliente.getCorreo(), String.valueOf(cliente.getEstado())};
+        aplicar(indices -> indices.clientes.guardar(id, campos));
+    }
+
+    private void proveedorGuardado(Proveedor proveedor) {
+        Long id = proveedor.getId();
+        String[] campos = {proveedor.getNombre(), proveedor.getCorreo(), proveedor.getRuc(),
+                String.valueOf(proveedor.getEstado())};
+        aplicar(indices -> indices.proveedores.guardar(id, campos));
+    }
+
+    private void productoGuardado(Producto producto) {
+        Long id = producto.getId();
+        String[] campos = {producto.getNombre(), String.valueOf(producto.getCategoria()),
+                String.valueOf(producto.getEstado())};
+        Long proveedorId = producto.getProveedor() != null ? producto.getProveedor().getId() : null;
+        aplicar(indices -> {
+            indices.productos.guardar(id, campos);
+            indices.productosPorProveedor.guardar(id, proveedorId == null ? List.of() : List.of(proveedorId));
+        });
+    }
+
+    private void usuarioGuardado(Usuario usuario) {
+        Long id = usuario.getId();
+        String email = usuario.getEmail();
+        aplicar(indices -> indices.usuarios.guardar(id, email));
+    }
+
+    private void ventaGuardada(Venta venta) {
+        Long id = venta.getId();
+        Long clienteId = venta.getCliente().getId();
+        Long usuarioId = venta.getUsuario().getId();
+        List<Long> productos = venta.getDetalles().stream().map(d -> d.getProducto().getId()).toList();
+        aplicar(indices -> {
+            indices.ventasPorCliente.guardar(id, List.of(clienteId));
+            indices.ventasPorUsuario.guardar(id, List.of(usuarioId));
+            indices.ventasPorProducto.guardar(id, productos);
+        });
+    }
+
+    private synchronized void aplicar(Consumer<Indices> cambio) {
+        cambio.accept(indices);
+    }
+
+    // === Reconstrucción desde la BD ===
+
+    // La invoca el outbox al iniciar: mientras tanto las búsquedas van a la BD
+    @Override
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        Indices nuevos = new Indices();
+        lectura.executeWithoutResult(status -> cargar(nuevos));
+        synchronized (this) {
+            indices = nuevos;
+            disponible = true;
+        }
+        log.info("Índice de búsqueda construido en {} ms", System.currentTimeMillis() - inicio);
+    }
+
+    private void cargar(Indices nuevos) {
+        try (Stream<Object[]> filas = clienteRepository.streamCamposBusqueda()) {
+            filas.forEach(f -> nuevos.clientes.guardar((Long) f[0], (String) f[1], (String) f[2], String.valueOf(f[3])));
+        }
+        try (Stream<Object[]> filas = proveedorRepository.streamCamposBusqueda()) {
+            filas.forEach(f -> nuevos.proveedores.guardar((Long) f[0], (String) f[1], (String) f[2], (String) f[3],
+                    String.valueOf(f[4])));
+        }
+        try (Stream<Object[]> filas = productoRepository.streamCamposBusqueda()) {
+            filas.forEach(f -> {
+                nuevos.productos.guardar((Long) f[0], (String) f[1], String.valueOf(f[2]), String.valueOf(f[3]));
+                nuevos.productosPorProveedor.agregar((Long) f[0], (Long) f[4]);
+            });
+        }
+        for (Object[] f : usuarioRepository.findCamposBusqueda()) {
+            nuevos.usuarios.guardar((Long) f[0], (String) f[1]);
+        }
+        try (Stream<Object[]> filas = ventaRepository.streamRelacionesBusqueda()) {
+            filas.forEach(f -> {
+                nuevos.ventasPorCliente.agregar((Long) f[0], (Long) f[1]);
+                nuevos.ventasPorUsuario.agregar((Long) f[0], (Long) f[2]);
+            });
+        }
+        try (Stream<Object[]> filas = ventaRepository.streamProductosBusqueda()) {
+            filas.forEach(f -> nuevos.ventasPorProducto.agregar((Long) f[0], (Long) f[1]));
+        }
+    }
+}
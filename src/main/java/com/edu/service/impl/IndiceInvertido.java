@@ -0,0 +1,176 @@
+package com.edu.service.impl;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice de texto en memoria por trigramas: encuentra los documentos cuyo campo contiene el texto
+// buscado (misma semántica que LIKE '%texto%' con collation sin acentos ni mayúsculas).
+// Los trigramas acotan los candidatos y luego se verifica la subcadena en el texto guardado.
+class IndiceInvertido {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final int N = 3;
+
+    // Peso de cada campo al ordenar por relevancia
+    private final int[] pesos;
+    private final Map<Long, String[]> documentos = new HashMap<>();
+    private final Map<String, Set<Long>> trigramas = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    IndiceInvertido(int... pesos) {
+        this.pesos = pesos;
+    }
+
+    // === Escritura ===
+    void guardar(Long id, String... campos) {
+        String[] normalizados = new String[campos.length];
+        for (int i = 0; i < campos.length; i++) {
+            normalizados[i] = normalizar(campos[i]);
+        }
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            documentos.put(id, normalizados);
+            for (String campo : normalizados) {
+                for (String trigrama : trigramas(campo)) {
+                    trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void quitar(Long id) {
+        String[] anteriores = documentos.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String campo : anteriores) {
+            for (String trigrama : trigramas(campo)) {
+                Set<Long> ids = trigramas.get(trigrama);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        trigramas.remove(trigrama);
+                    }
+                }
+            }
+        }
+    }
+
+    // === Consulta ===
+
+    // Documentos que contienen el texto en alguno de los campos, con su puntaje
+    Map<Long, Integer> buscar(String texto) {
+        return buscar(texto, -1);
+    }
+
+    // Igual, pero solo mirando un campo (índice según el orden de guardar)
+    Map<Long, Integer> buscarEnCampo(String texto, int campo) {
+        return buscar(texto, campo);
+    }
+
+    private Map<Long, Integer> buscar(String texto, int soloCampo) {
+        String consulta = normalizar(texto);
+        Map<Long, Integer> puntajes = new HashMap<>();
+        if (consulta.isEmpty()) {
+            return puntajes;
+        }
+        lock.readLock().lock();
+        try {
+            for (Long id : candidatos(consulta)) {
+                int puntaje = puntaje(documentos.get(id), consulta, soloCampo);
+                if (puntaje > 0) {
+                    puntajes.put(id, puntaje);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return puntajes;
+    }
+
+    // Ids de mayor a menor puntaje; a igual puntaje, los más recientes primero
+    List<Long> buscarOrdenado(String texto) {
+        return ordenar(buscar(texto));
+    }
+
+    static List<Long> ordenar(Map<Long, Integer> puntajes) {
+        List<Long> ids = new ArrayList<>(puntajes.keySet());
+        ids.sort(Comparator.<Long>comparingInt(puntajes::get).reversed().thenComparing(Comparator.reverseOrder()));
+        return ids;
+    }
+
+    private Collection<Long> candidatos(String consulta) {
+        // Consultas de menos de 3 caracteres no tienen trigramas: se recorren los documentos
+        if (consulta.length() < N) {
+            return documentos.keySet();
+        }
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String trigrama : trigramas(consulta)) {
+            Set<Long> ids = trigramas.get(trigrama);
+            if (ids == null) {
+                return List.of();
+            }
+            listas.add(ids);
+        }
+        // Se parte de la lista más corta y se filtra con las demás
+        listas.sort(Comparator.comparingInt(Set::size));
+        List<Long> resultado = new ArrayList<>();
+        for (Long id : listas.get(0)) {
+            boolean enTodas = true;
+            for (int i = 1; i < listas.size() && enTodas; i++) {
+                enTodas = listas.get(i).contains(id);
+            }
+            if (enTodas) {
+                resultado.add(id);
+            }
+        }
+        return resultado;
+    }
+
+    // Campo igual al texto (3) > empieza una palabra (2) > lo contiene (1), multiplicado por el peso
+    private int puntaje(String[] campos, String consulta, int soloCampo) {
+        int mejor = 0;
+        for (int i = 0; i < campos.length; i++) {
+            if (soloCampo >= 0 && i != soloCampo) {
+                continue;
+            }
+            String campo = campos[i];
+            int posicion = campo.indexOf(consulta);
+            if (posicion < 0) {
+                continue;
+            }
+            int nivel;
+            if (campo.length() == consulta.length()) {
+                nivel = 3;
+            } else if (posicion == 0 || campo.charAt(posicion - 1) == ' ' || campo.contains(" " + consulta)) {
+                nivel = 2;
+            } else {
+                nivel = 1;
+            }
+            mejor = Math.max(mejor, nivel * pesos[i]);
+        }
+        return mejor;
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            resultado.add(texto.substring(i, i + N));
+        }
+        return resultado;
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinAcentos.toLowerCase(Locale.ROOT).trim();
+    }
+}
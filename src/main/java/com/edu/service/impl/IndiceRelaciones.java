@@ -0,0 +1,63 @@
+package com.edu.service.impl;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Relación muchos a muchos en memoria (p. ej. cliente → ventas) para buscar por el texto de la
+// entidad relacionada sin duplicarlo en cada documento: al renombrar un cliente no hay que
+// reindexar sus ventas.
+class IndiceRelaciones {
+
+    private final Map<Long, Set<Long>> porDestino = new HashMap<>();
+    private final Map<Long, Set<Long>> porOrigen = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Reemplaza los destinos de un origen (p. ej. los productos de una venta)
+    void guardar(Long origen, Collection<Long> destinos) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> anteriores = porOrigen.remove(origen);
+            if (anteriores != null) {
+                for (Long destino : anteriores) {
+                    Set<Long> origenes = porDestino.get(destino);
+                    origenes.remove(origen);
+                    if (origenes.isEmpty()) {
+                        porDestino.remove(destino);
+                    }
+                }
+            }
+            Set<Long> nuevos = new HashSet<>(destinos);
+            porOrigen.put(origen, nuevos);
+            for (Long destino : nuevos) {
+                porDestino.computeIfAbsent(destino, d -> new HashSet<>()).add(origen);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void agregar(Long origen, Long destino) {
+        lock.writeLock().lock();
+        try {
+            porOrigen.computeIfAbsent(origen, o -> new HashSet<>()).add(destino);
+            porDestino.computeIfAbsent(destino, d -> new HashSet<>()).add(origen);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Orígenes relacionados con cualquiera de los destinos
+    Set<Long> origenesDe(Collection<Long> destinos) {
+        Set<Long> resultado = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Long destino : destinos) {
+                resultado.addAll(porDestino.getOrDefault(destino, Set.of()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,147 @@
+package com.edu.service.impl;
+
+import com.edu.dto.MovimientoKardex;
+import com.edu.entity.*;
+import com.edu.repository.MovimientoStockRepository;
+import com.edu.repository.SnapshotStockRepository;
+import com.edu.service.KardexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Kardex de stock: cada cambio de Producto.stock deja un movimiento en la misma transacción.
+ * Producto.stock sigue siendo el valor que se descuenta de forma condicional al vender
+ * (es lo que impide vender sin stock); el kardex da el historial y el stock a cualquier fecha.
+ */
+@Service
+@Transactional
+public class KardexServiceImpl implements KardexService {
+
+    private static final Logger log = LoggerFactory.getLogger(KardexServiceImpl.class);
+
+    private final MovimientoStockRepository movimientoStockRepository;
+    private final SnapshotStockRepository snapshotStockRepository;
+    // Solo se compactan movimientos con esta antigüedad: una transacción que aún no confirmó
+    // un movimiento de fecha anterior al corte quedaría fuera de la snapshot
+    private final Duration margen;
+
+    public KardexServiceImpl(MovimientoStockRepository movimientoStockRepository,
+                             SnapshotStockRepository snapshotStockRepository,
+                             @Value("${gesa.kardex.margen-segundos:60}") long margenSegundos) {
+        this.movimientoStockRepository = movimientoStockRepository;
+        this.snapshotStockRepository = snapshotStockRepository;
+        this.margen = Duration.ofSeconds(margenSegundos);
+    }
+
+    // === Registro ===
+    @Override
+    public void productoCreado(Producto producto) {
+        LocalDateTime fecha = producto.getFechaRegistro();
+        snapshotStockRepository.save(SnapshotStock.builder()
+                .producto(producto)
+                .corte(fecha)
+                .stock(0L)
+                .build());
+        if (producto.getStock() > 0) {
+            registrar(producto, TipoMovimiento.REPOSICION, producto.getStock(), null, fecha);
+        }
+    }
+
+    // Edición manual del stock: lo que entra es reposición, lo que sale es ajuste
+    @Override
+    public void stockModificado(Producto producto, int diferencia) {
+        if (diferencia != 0) {
+            registrar(producto, diferencia > 0 ? TipoMovimiento.REPOSICION : TipoMovimiento.AJUSTE,
+                    diferencia, null, LocalDateTime.now());
+        }
+    }
+
+    // Venta que descuenta stock (al registrarla pagada o al confirmar su reserva)
+    @Override
+    public void ventaDescontada(Venta venta) {
+        registrarVenta(venta, TipoMovimiento.VENTA, -1);
+    }
+
+    // Anulación de una venta que ya había descontado stock: las unidades vuelven
+    @Override
+    public void ventaAnulada(Venta venta) {
+        registrarVenta(venta, TipoMovimiento.ANULACION, 1);
+    }
+
+    // Un movimiento por producto de la venta (las líneas repetidas se agrupan)
+    private void registrarVenta(Venta venta, TipoMovimiento tipo, int signo) {
+        Map<Long, Integer> cantidades = new TreeMap<>();
+        Map<Long, Producto> productos = new HashMap<>();
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            cantidades.merge(detalle.getProducto().getId(), detalle.getCantidad(), Integer::sum);
+            productos.put(detalle.getProducto().getId(), detalle.getProducto());
+        }
+        LocalDateTime fecha = LocalDateTime.now();
+        List<MovimientoStock> movimientos = new ArrayList<>();
+        cantidades.forEach((id, cantidad) -> movimientos.add(
+                movimiento(productos.get(id), tipo, signo * cantidad, venta, fecha)));
+        // Se insertan en lote junto con las líneas de la venta
+        movimientoStockRepository.saveAll(movimientos);
+    }
+
+    private void registrar(Producto producto, TipoMovimiento tipo, int cantidad, Venta venta, LocalDateTime fecha) {
+        movimientoStockRepository.save(movimiento(producto, tipo, cantidad, venta, fecha));
+    }
+
+    private static MovimientoStock movimiento(Producto producto, TipoMovimiento tipo, int cantidad,
+                                              Venta venta, LocalDateTime fecha) {
+        return MovimientoStock.builder()
+                .producto(producto)
+                .tipo(tipo)
+                .cantidad(cantidad)
+                .venta(venta)
+                .fecha(fecha)
+                .build();
+    }
+
+    // === Consulta ===
+    @Override
+    @Transactional(readOnly = true)
+    public List<MovimientoKardex> movimientos(Long productoId, LocalDateTime desde, LocalDateTime hasta) {
+        return movimientoStockRepository.kardex(productoId, desde, hasta);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> stockEn(Long productoId, LocalDateTime fecha) {
+        return snapshotStockRepository.findFirstByProductoIdAndCorteLessThanEqualOrderByCorteDesc(productoId, fecha)
+                .map(snapshot -> snapshot.getStock()
+                        + movimientoStockRepository.sumarEntre(productoId, snapshot.getCorte(), fecha));
+    }
+
+    // === Compactación ===
+
+    // Productos que ya existían antes del kardex: su stock actual es la snapshot de partida
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        int filas = snapshotStockRepository.inicializarFaltantes(LocalDateTime.now());
+        if (filas > 0) {
+            log.info("Kardex: snapshot inicial para {} productos", filas);
+        }
+    }
+
+    // Suma en una snapshot nueva los movimientos de cada producto desde su última snapshot.
+    // Los movimientos no se borran: las snapshots solo acotan cuántos hay que sumar al consultar
+    @Override
+    @Scheduled(fixedDelayString = "${gesa.kardex.compactacion-ms:600000}",
+            initialDelayString = "${gesa.kardex.compactacion-ms:600000}")
+    public void compactar() {
+        int filas = snapshotStockRepository.compactar(LocalDateTime.now().minus(margen));
+        log.debug("Kardex: {} snapshots nuevas", filas);
+    }
+}
@@ -0,0 +1,155 @@
+package com.edu.service.impl;
+
+import com.edu.dto.Evento;
+import com.edu.dto.ProductoVendido;
+import com.edu.dto.VentanaVentas;
+import com.edu.entity.DetalleVenta;
+import com.edu.entity.TipoEvento;
+import com.edu.entity.Venta;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.VentaDiariaRepository;
+import com.edu.repository.VentaRepository;
+import com.edu.service.MasVendidosService;
+import com.edu.service.SuscriptorEventos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Stream;
+
+@Service
+public class MasVendidosServiceImpl implements MasVendidosService, SuscriptorEventos {
+
+    private static final Logger log = LoggerFactory.getLogger(MasVendidosServiceImpl.class);
+
+    private final VentaRepository ventaRepository;
+    private final VentaDiariaRepository ventaDiariaRepository;
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate lectura;
+
+    // Solo se modifican dentro de bloques synchronized
+    private RankingVentas ranking = new RankingVentas(LocalDate.now());
+    private final Map<Long, String> nombres = new HashMap<>();
+    private volatile boolean disponible;
+
+    public MasVendidosServiceImpl(VentaRepository ventaRepository, VentaDiariaRepository ventaDiariaRepository,
+                                  ProductoRepository productoRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.ventaRepository = ventaRepository;
+        this.ventaDiariaRepository = ventaDiariaRepository;
+        this.productoRepository = productoRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    @Override
+    public boolean disponible() {
+        return disponible;
+    }
+
+    // === Consulta ===
+    @Override
+    public synchronized List<ProductoVendido> top(VentanaVentas ventana, int n) {
+        ranking.avanzar(LocalDate.now());
+        List<ProductoVendido> resultado = new ArrayList<>(n);
+        for (long[] fila : ranking.top(ventana, n)) {
+            resultado.add(new ProductoVendido(fila[0], nombres.get(fila[0]), fila[1]));
+        }
+        return resultado;
+    }
+
+    // === Mantenimiento (eventos del outbox) ===
+    @Override
+    public String nombre() {
+        return "mas-vendidos";
+    }
+
+    @Override
+    public void procesar(List<Evento> eventos) {
+        Set<Long> idsVentas = SuscriptorEventos.agregados(eventos, TipoEvento.VENTA_REGISTRADA, TipoEvento.VENTA_ANULADA);
+        Set<Long> idsProductos = SuscriptorEventos.agregados(eventos, TipoEvento.PRODUCTO_ACTUALIZADO);
+
+        lectura.executeWithoutResult(status -> {
+            Map<Long, Venta> ventas = new HashMap<>();
+            if (!idsVentas.isEmpty()) {
+                ventaRepository.findConDetalles(idsVentas).forEach(v -> ventas.put(v.getId(), v));
+            }
+            Map<Long, String> renombrados = new HashMap<>();
+            productoRepository.findAllById(idsProductos).forEach(p -> renombrados.put(p.getId(), p.getNombre()));
+
+            synchronized (this) {
+                renombrados.forEach(nombres::replace);
+                for (Evento evento : eventos) {
+                    Venta venta = ventas.get(evento.getAgregadoId());
+                    if (venta == null) {
+                        continue;
+                    }
+                    // Una venta registrada ya ANULADA no suma (y su anulación tampoco llega como evento)
+                    if (evento.getTipo() == TipoEvento.VENTA_REGISTRADA && !evento.booleano("anulada")) {
+                        sumarVenta(venta, 1);
+                    } else if (evento.getTipo() == TipoEvento.VENTA_ANULADA) {
+                        sumarVenta(venta, -1);
+                    }
+                }
+            }
+        });
+    }
+
+    // Se invoca con el monitor tomado
+    private void sumarVenta(Venta venta, int signo) {
+        LocalDate fecha = venta.getFechaVenta().toLocalDate();
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            long productoId = detalle.getProducto().getId();
+            long cantidad = (long) signo * detalle.getCantidad();
+            nombres.putIfAbsent(productoId, detalle.getProducto().getNombre());
+            ranking.avanzar(LocalDate.now());
+            ranking.sumar(fecha, productoId, cantidad);
+        }
+    }
+
+    // === Reconstrucción desde el resumen diario ===
+
+    // La invoca el outbox al iniciar: mientras tanto se consulta la BD
+    @Override
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        LocalDate hoy = LocalDate.now();
+        RankingVentas nuevo = new RankingVentas(hoy);
+        Map<Long, String> nuevosNombres = new HashMap<>();
+        lectura.executeWithoutResult(status -> cargar(nuevo, nuevosNombres, hoy));
+        synchronized (this) {
+            nombres.putAll(nuevosNombres);
+            ranking = nuevo;
+            disponible = true;
+        }
+        log.info("Ranking de más vendidos reconstruido en {} ms", System.currentTimeMillis() - inicio);
+    }
+
+    // Histórico: total por producto; últimos 30 días: por día y producto (el resto de ventanas sale de ahí)
+    private void cargar(RankingVentas nuevo, Map<Long, String> nuevosNombres, LocalDate hoy) {
+        LocalDate desde = hoy.minusDays(VentanaVentas.TREINTA_DIAS.getDias() - 1L);
+        Map<Long, Long> recientes = new HashMap<>();
+        for (Object[] fila : ventaDiariaRepository.unidadesPorDiaYProducto(desde)) {
+            Long productoId = (Long) fila[1];
+            long cantidad = ((Number) fila[2]).longValue();
+            nuevo.sumar((LocalDate) fila[0], productoId, cantidad);
+            recientes.merge(productoId, cantidad, Long::sum);
+        }
+        // sumar(fecha anterior a los 30 días) solo cuenta para el histórico
+        LocalDate antes = desde.minusDays(1);
+        for (Object[] fila : ventaDiariaRepository.unidadesPorProducto()) {
+            Long productoId = (Long) fila[0];
+            long historico = ((Number) fila[1]).longValue() - recientes.getOrDefault(productoId, 0L);
+            if (historico != 0) {
+                nuevo.sumar(antes, productoId, historico);
+            }
+        }
+        try (Stream<Object[]> filas = productoRepository.streamCamposBusqueda()) {
+            filas.forEach(f -> nuevosNombres.put((Long) f[0], (String) f[1]));
+        }
+    }
+}
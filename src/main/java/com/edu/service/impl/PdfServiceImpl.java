@@ -1,22 +1,100 @@
 package com.edu.service.impl;
 
 import com.edu.service.PdfService;
-import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @Service
 public class PdfServiceImpl  implements PdfService {
 
-    public ByteArrayInputStream generarPdfDesdeHtml(String html) throws Exception {
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
-        PdfRendererBuilder builder = new PdfRendererBuilder();
-        builder.useFastMode();
-        builder.withHtmlContent(html, null);
-        builder.toStream(os);
-        builder.run();
-        return new ByteArrayInputStream(os.toByteArray());
+    // Cada bloque de filas se vuelca a la página y se libera de la tabla
+    private static final int FILAS_POR_BLOQUE = 200;
+
+    private static final Color AZUL = new Color(37, 99, 235);
+    private static final Color GRIS_CLARO = new Color(249, 249, 249);
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    @Override
+    public void generarReporteTabla(String titulo, String[] encabezados, Stream<String[]> filas,
+                                    OutputStream salida) throws IOException {
+        Document documento = new Document(PageSize.A4.rotate(), 20, 20, 20, 20);
+        try {
+            // El flujo de salida lo cierra quien lo abrió (respuesta HTTP o archivo)
+            PdfWriter.getInstance(documento, salida).setCloseStream(false);
+            documento.open();
+            agregarEncabezado(documento, titulo);
+
+            Font fuenteCelda = FontFactory.getFont(FontFactory.HELVETICA, 9, Font.NORMAL);
+            PdfPTable tabla = nuevaTabla(encabezados);
+            tabla.setComplete(false);
+
+            int fila = 0;
+            Iterator<String[]> iterador = filas.iterator();
+            while (iterador.hasNext()) {
+                for (String valor : iterador.next()) {
+                    PdfPCell celda = new PdfPCell(new Phrase(valor == null ? "" : valor, fuenteCelda));
+                    celda.setPadding(5);
+                    if (fila % 2 == 1) {
+                        celda.setBackgroundColor(GRIS_CLARO);
+                    }
+                    tabla.addCell(celda);
+                }
+                if (++fila % FILAS_POR_BLOQUE == 0) {
+                    documento.add(tabla);
+                }
+            }
+            tabla.setComplete(true);
+            documento.add(tabla);
+
+            Paragraph pie = new Paragraph("© " + LocalDateTime.now().getYear()
+                    + " Gesa - Reporte generado automáticamente",
+                    FontFactory.getFont(FontFactory.HELVETICA, 8, Font.NORMAL, Color.GRAY));
+            pie.setAlignment(Element.ALIGN_CENTER);
+            pie.setSpacingBefore(20);
+            documento.add(pie);
+        } catch (DocumentException e) {
+            throw new IOException("No se pudo generar el PDF: " + e.getMessage(), e);
+        } finally {
+            documento.close();
+        }
+    }
+
+    private void agregarEncabezado(Document documento, String titulo) throws DocumentException {
+        Paragraph empresa = new Paragraph("Gesa", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20, Font.NORMAL, AZUL));
+        empresa.setAlignment(Element.ALIGN_RIGHT);
+        documento.add(empresa);
+
+        Paragraph subtitulo = new Paragraph(titulo + " - " + LocalDateTime.now().format(FORMATO_FECHA),
+                FontFactory.getFont(FontFactory.HELVETICA, 11, Font.NORMAL));
+        subtitulo.setAlignment(Element.ALIGN_RIGHT);
+        subtitulo.setSpacingAfter(15);
+        documento.add(subtitulo);
+    }
+
+    // Tabla con fila de encabezado repetida en cada página
+    private PdfPTable nuevaTabla(String[] encabezados) {
+        PdfPTable tabla = new PdfPTable(encabezados.length);
+        tabla.setWidthPercentage(100);
+        tabla.setHeaderRows(1);
+
+        Font fuenteEncabezado = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Font.NORMAL, Color.WHITE);
+        for (String encabezado : encabezados) {
+            PdfPCell celda = new PdfPCell(new Phrase(encabezado, fuenteEncabezado));
+            celda.setBackgroundColor(AZUL);
+            celda.setPadding(6);
+            tabla.addCell(celda);
+        }
+        return tabla;
     }
-}
\ No newline at end of file
+}
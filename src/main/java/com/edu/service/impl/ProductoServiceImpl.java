@@ -1,20 +1,32 @@
 package com.edu.service.impl;
 
+import com.edu.dto.PaginaCursor;
 import com.edu.entity.Categoria;
 import com.edu.entity.EstadoProducto;
 import com.edu.entity.Producto;
 import com.edu.entity.Proveedor;
+import com.edu.entity.TipoEvento;
 import com.edu.exception.BusinessException;
 import com.edu.repository.ProductoRepository;
+import com.edu.service.CodigoProductoService;
+import com.edu.service.ContadorService;
+import com.edu.service.EventoService;
+import com.edu.service.IndiceBusquedaService;
+import com.edu.service.KardexService;
 import com.edu.service.ProductoService;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -22,9 +34,25 @@ import java.util.Optional;
 public class ProductoServiceImpl implements ProductoService {
 
     private final ProductoRepository productoRepository;
-
-    public ProductoServiceImpl(ProductoRepository productoRepository) {
+    private final IndiceBusquedaService indiceBusquedaService;
+    private final EventoService eventoService;
+    private final CodigoProductoService codigoProductoService;
+    private final KardexService kardexService;
+    private final ContadorService contadorService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductoServiceImpl(ProductoRepository productoRepository, IndiceBusquedaService indiceBusquedaService,
+                               EventoService eventoService,
+                               CodigoProductoService codigoProductoService, KardexService kardexService,
+                               ContadorService contadorService) {
         this.productoRepository = productoRepository;
+        this.indiceBusquedaService = indiceBusquedaService;
+        this.eventoService = eventoService;
+        this.codigoProductoService = codigoProductoService;
+        this.kardexService = kardexService;
+        this.contadorService = contadorService;
     }
 
     // === CRUD ===
@@ -34,6 +62,11 @@ public class ProductoServiceImpl implements ProductoService {
             throw new BusinessException("El nombre del producto ya está registrado: " + producto.getNombre());
         }
 
+        producto.setCodigo(normalizarCodigo(producto.getCodigo()));
+        if (producto.getCodigo() != null && productoRepository.existsByCodigo(producto.getCodigo())) {
+            throw new BusinessException("El código ya está registrado: " + producto.getCodigo());
+        }
+
         if (producto.getPrecio() == null || producto.getPrecio().compareTo(BigDecimal.ZERO) <= 0) {
             throw new BusinessException("El precio debe ser mayor que 0.");
         }
@@ -43,9 +76,16 @@ public class ProductoServiceImpl implements ProductoService {
         }
 
         producto.setEstado(EstadoProducto.ACTIVO); // por defecto
+        producto.setStockReservado(0);
         producto.setFechaRegistro(LocalDateTime.now());
 
-        return productoRepository.save(producto);
+        Producto guardado = productoRepository.save(producto);
+        kardexService.productoCreado(guardado);
+        contadorService.productoRegistrado(guardado.getCategoria(), guardado.getEstado());
+        eventoService.publicar(TipoEvento.PRODUCTO_ACTUALIZADO, guardado.getId(),
+                Map.of("diferenciaStock", guardado.getStock()));
+        codigoProductoService.productoGuardado(guardado);
+        return guardado;
     }
 
     @Override
@@ -57,6 +97,11 @@ public class ProductoServiceImpl implements ProductoService {
             throw new BusinessException("El nombre ya está registrado: " + producto.getNombre());
         }
 
+        String codigo = normalizarCodigo(producto.getCodigo());
+        if (codigo != null && !codigo.equals(existente.getCodigo()) && productoRepository.existsByCodigo(codigo)) {
+            throw new BusinessException("El código ya está registrado: " + codigo);
+        }
+
         if (producto.getPrecio() == null || producto.getPrecio().compareTo(BigDecimal.ZERO) <= 0) {
             throw new BusinessException("El precio debe ser mayor que 0.");
         }
@@ -65,16 +110,25 @@ public class ProductoServiceImpl implements ProductoService {
             throw new BusinessException("El stock no puede ser negativo.");
         }
 
-        // Actualizar campos
-        existente.setNombre(producto.getNombre());
-        existente.setDescripcion(producto.getDescripcion());
-        existente.setCategoria(producto.getCategoria());
-        existente.setProveedor(producto.getProveedor());
-        existente.setPrecio(producto.getPrecio());
-        existente.setStock(producto.getStock());
-        existente.setEstado(producto.getEstado());
-
-        return productoRepository.save(existente);
+        // El cambio de stock del formulario se aplica como diferencia sobre el stock actual de la BD:
+        // las ventas y reservas confirmadas mientras tanto se conservan
+        int diferenciaStock = producto.getStock() - existente.getStock();
+        LocalDateTime ahora = LocalDateTime.now();
+        if (diferenciaStock != 0 && productoRepository.ajustarStock(id, diferenciaStock, ahora) == 0) {
+            throw new BusinessException("El stock no puede ser menor que las unidades reservadas por ventas pendientes.");
+        }
+        productoRepository.actualizarDatos(id, producto.getNombre(), codigo, producto.getDescripcion(),
+                producto.getCategoria(), producto.getProveedor(), producto.getPrecio(), producto.getEstado(), ahora);
+        contadorService.productoCambiado(existente.getCategoria(), existente.getEstado(),
+                producto.getCategoria(), producto.getEstado());
+
+        // Los UPDATE no pasan por la entidad: se relee para devolver y publicar el estado actual
+        entityManager.refresh(existente);
+        kardexService.stockModificado(existente, diferenciaStock);
+        eventoService.publicar(TipoEvento.PRODUCTO_ACTUALIZADO, existente.getId(),
+                Map.of("diferenciaStock", diferenciaStock));
+        codigoProductoService.productoGuardado(existente);
+        return existente;
     }
 
     @Override
@@ -83,74 +137,116 @@ public class ProductoServiceImpl implements ProductoService {
                 .orElseThrow(() -> new BusinessException("Producto no encontrado con id: " + id));
 
         // Eliminación lógica
-        existente.setEstado(EstadoProducto.INACTIVO);
-        productoRepository.save(existente);
+        contadorService.productoCambiado(existente.getCategoria(), existente.getEstado(),
+                existente.getCategoria(), EstadoProducto.INACTIVO);
+        productoRepository.cambiarEstado(id, EstadoProducto.INACTIVO, LocalDateTime.now());
+        entityManager.refresh(existente);
+        eventoService.publicar(TipoEvento.PRODUCTO_ACTUALIZADO, existente.getId());
+        codigoProductoService.productoGuardado(existente);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Producto> obtenerProductoPorId(Long id) {
         return productoRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Producto> listarProductos() {
         return productoRepository.findAll();
     }
 
     @Override
-    public Page<Producto> listarProductos(Pageable pageable) {
-        return productoRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Slice<Producto> listarProductos(Pageable pageable) {
+        return productoRepository.findBy(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<Producto> listarProductos(String despues, String antes, int tamanio) {
+        Limit limite = Limit.of(tamanio + 1);
+
+        Long idAntes = PaginaCursor.leerId(antes);
+        if (idAntes != null) {
+            return PaginaCursor.de(productoRepository.findByIdLessThanOrderByIdDesc(idAntes, limite),
+                    tamanio, true, true, c -> c.getId().toString());
+        }
+
+        Long idDespues = PaginaCursor.leerId(despues);
+        List<Producto> filas = productoRepository.findByIdGreaterThanOrderByIdAsc(idDespues == null ? 0L : idDespues, limite);
+        return PaginaCursor.de(filas, tamanio, false, idDespues != null, c -> c.getId().toString());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Producto> buscarProductos(String keyword, Pageable pageable) {
-        return productoRepository.buscarProductos(keyword, pageable);
+        if (!indiceBusquedaService.disponible()) {
+            return IndiceBusquedaService.paginaSinConteo(productoRepository.buscarProductos(keyword, pageable));
+        }
+        return IndiceBusquedaService.pagina(indiceBusquedaService.buscarProductos(keyword), pageable,
+                productoRepository::findByIdIn, Producto::getId);
     }
 
     // === Búsquedas ===
     @Override
+    @Transactional(readOnly = true)
     public Optional<Producto> obtenerPorNombre(String nombre) {
         return productoRepository.findByNombre(nombre);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Producto> buscarPorNombre(String nombreParcial) {
         return productoRepository.findByNombreContainingIgnoreCase(nombreParcial);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Producto> obtenerPorEstado(EstadoProducto estado) {
         return productoRepository.findByEstado(estado);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Producto> obtenerPorCategoria(Categoria categoria) {
         return productoRepository.findByCategoria(categoria);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Producto> obtenerPorProveedor(Proveedor proveedor) {
         return productoRepository.findByProveedor(proveedor);
     }
 
     // === Validaciones ===
     @Override
+    @Transactional(readOnly = true)
     public boolean existeNombre(String nombre) {
         return productoRepository.existsByNombre(nombre);
     }
 
+    // Código vacío = sin código (la restricción única admite varios NULL)
+    private static String normalizarCodigo(String codigo) {
+        return codigo == null || codigo.isBlank() ? null : codigo.trim();
+    }
+
     // === Reportes ===
     @Override
+    @Transactional(readOnly = true)
     public List<Producto> listarProductosRegistradosDespuesDe(LocalDateTime fecha) {
         return productoRepository.findByFechaRegistroAfter(fecha);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Producto> listarProductosRegistradosEntre(LocalDateTime inicio, LocalDateTime fin) {
         return productoRepository.findByFechaRegistroBetween(inicio, fin);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Integer SumaStock() {
         return Optional.ofNullable(productoRepository.SumaStock())
                 .orElse(0);
@@ -161,17 +257,14 @@ public class ProductoServiceImpl implements ProductoService {
     public void cambiarEstado(Long id) {
         Producto producto = productoRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("Producto no encontrado con id: " + id));
-
-        if (producto.getEstado() == null) {
-            producto.setEstado(EstadoProducto.ACTIVO);
-        }
-
-        if (producto.getEstado() == EstadoProducto.ACTIVO) {
-            producto.setEstado(EstadoProducto.INACTIVO);
-        } else {
-            producto.setEstado(EstadoProducto.ACTIVO);
-        }
-
-        productoRepository.save(producto);
+        EstadoProducto anterior = producto.getEstado();
+        EstadoProducto nuevo = anterior == EstadoProducto.INACTIVO ? EstadoProducto.ACTIVO : EstadoProducto.INACTIVO;
+
+        // Solo la columna estado: no reescribe el stock que cambian las ventas concurrentes
+        productoRepository.cambiarEstado(id, nuevo, LocalDateTime.now());
+        entityManager.refresh(producto);
+        contadorService.productoCambiado(producto.getCategoria(), anterior, producto.getCategoria(), producto.getEstado());
+        eventoService.publicar(TipoEvento.PRODUCTO_ACTUALIZADO, producto.getId());
+        codigoProductoService.productoGuardado(producto);
     }
 }
@@ -1,14 +1,21 @@
 package com.edu.service.impl;
 
+import com.edu.dto.PaginaCursor;
 import com.edu.entity.EstadoProveedor;
 import com.edu.entity.Proveedor;
+import com.edu.entity.TipoEvento;
 import com.edu.exception.BusinessException;
 import com.edu.repository.ProveedorRepository;
+import com.edu.service.ContadorService;
+import com.edu.service.EventoService;
+import com.edu.service.IndiceBusquedaService;
 import com.edu.service.ProveedorService;
-import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,9 +26,16 @@ import java.util.Optional;
 public class ProveedorServiceImpl implements ProveedorService {
 
     private final ProveedorRepository proveedorRepository;
+    private final IndiceBusquedaService indiceBusquedaService;
+    private final EventoService eventoService;
+    private final ContadorService contadorService;
 
-    public ProveedorServiceImpl(ProveedorRepository proveedorRepository) {
+    public ProveedorServiceImpl(ProveedorRepository proveedorRepository, IndiceBusquedaService indiceBusquedaService,
+                                EventoService eventoService, ContadorService contadorService) {
         this.proveedorRepository = proveedorRepository;
+        this.indiceBusquedaService = indiceBusquedaService;
+        this.eventoService = eventoService;
+        this.contadorService = contadorService;
     }
 
     // === CRUD ===
@@ -43,7 +57,10 @@ public class ProveedorServiceImpl implements ProveedorService {
         proveedor.setEstado(EstadoProveedor.ACTIVO); // por defecto
         proveedor.setFechaRegistro(LocalDateTime.now());
 
-        return proveedorRepository.save(proveedor);
+        Proveedor guardado = proveedorRepository.save(proveedor);
+        eventoService.publicar(TipoEvento.PROVEEDOR_ACTUALIZADO, guardado.getId());
+        contadorService.proveedorRegistrado(guardado.getEstado());
+        return guardado;
     }
 
     @Override
@@ -74,9 +91,12 @@ public class ProveedorServiceImpl implements ProveedorService {
         existente.setCorreo(proveedor.getCorreo());
         existente.setTelefono(proveedor.getTelefono());
         existente.setRuc(proveedor.getRuc());
+        contadorService.proveedorCambiado(existente.getEstado(), proveedor.getEstado());
         existente.setEstado(proveedor.getEstado());
 
-        return proveedorRepository.save(existente);
+        Proveedor guardado = proveedorRepository.save(existente);
+        eventoService.publicar(TipoEvento.PROVEEDOR_ACTUALIZADO, guardado.getId());
+        return guardado;
     }
 
     @Override
@@ -85,84 +105,121 @@ public class ProveedorServiceImpl implements ProveedorService {
                 .orElseThrow(() -> new BusinessException("Proveedor no encontrado con id: " + id));
 
         // Eliminación lógica (cambiar estado)
+        contadorService.proveedorCambiado(existente.getEstado(), EstadoProveedor.INACTIVO);
         existente.setEstado(EstadoProveedor.INACTIVO);
         proveedorRepository.save(existente);
+        eventoService.publicar(TipoEvento.PROVEEDOR_ACTUALIZADO, existente.getId());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Proveedor> obtenerProveedorPorId(Long id) {
         return proveedorRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Proveedor> listarProveedores() {
         return proveedorRepository.findAll();
     }
 
     @Override
-    public Page<Proveedor> listarProveedores(Pageable pageable) {
-        return proveedorRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Slice<Proveedor> listarProveedores(Pageable pageable) {
+        return proveedorRepository.findBy(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<Proveedor> listarProveedores(String despues, String antes, int tamanio) {
+        Limit limite = Limit.of(tamanio + 1);
+
+        Long idAntes = PaginaCursor.leerId(antes);
+        if (idAntes != null) {
+            return PaginaCursor.de(proveedorRepository.findByIdLessThanOrderByIdDesc(idAntes, limite),
+                    tamanio, true, true, c -> c.getId().toString());
+        }
+
+        Long idDespues = PaginaCursor.leerId(despues);
+        List<Proveedor> filas = proveedorRepository.findByIdGreaterThanOrderByIdAsc(idDespues == null ? 0L : idDespues, limite);
+        return PaginaCursor.de(filas, tamanio, false, idDespues != null, c -> c.getId().toString());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<Proveedor> buscarProveedores(String keyword, Pageable pageable) {
-        return proveedorRepository.buscarProveedores(keyword, pageable);
+        if (!indiceBusquedaService.disponible()) {
+            return IndiceBusquedaService.paginaSinConteo(proveedorRepository.buscarProveedores(keyword, pageable));
+        }
+        return IndiceBusquedaService.pagina(indiceBusquedaService.buscarProveedores(keyword), pageable,
+                proveedorRepository::findAllById, Proveedor::getId);
     }
 
     // === Búsquedas ===
     @Override
+    @Transactional(readOnly = true)
     public Optional<Proveedor> obtenerPorRuc(String ruc) {
         return proveedorRepository.findByRuc(ruc);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Proveedor> obtenerPorCorreo(String correo) {
         return proveedorRepository.findByCorreo(correo);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Proveedor> obtenerPorNombre(String nombre) {
         return proveedorRepository.findByNombre(nombre);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Proveedor> buscarPorNombre(String nombreParcial) {
         return proveedorRepository.findByNombreContainingIgnoreCase(nombreParcial);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Proveedor> obtenerPorEstado(EstadoProveedor estado) {
         return proveedorRepository.findByEstado(estado);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Proveedor> obtenerPorTelefono(String telefono) {
         return proveedorRepository.findByTelefono(telefono);
     }
 
     // === Validaciones ===
     @Override
+    @Transactional(readOnly = true)
     public boolean existeRuc(String ruc) {
         return proveedorRepository.existsByRuc(ruc);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existeCorreo(String correo) {
         return proveedorRepository.existsByCorreo(correo);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existeTelefono(String telefono) {
         return proveedorRepository.existsByTelefono(telefono);
     }
 
     // === Reportes ===
     @Override
+    @Transactional(readOnly = true)
     public List<Proveedor> listarProveedoresRegistradosDespuesDe(LocalDateTime fecha) {
         return proveedorRepository.findByFechaRegistroAfter(fecha);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Proveedor> listarProveedoresRegistradosEntre(LocalDateTime inicio, LocalDateTime fin) {
         return proveedorRepository.findByFechaRegistroBetween(inicio, fin);
     }
@@ -172,6 +229,7 @@ public class ProveedorServiceImpl implements ProveedorService {
         Proveedor proveedor = proveedorRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("Proveedor no encontrado con id: " + id));
 
+        EstadoProveedor anterior = proveedor.getEstado();
         if (proveedor.getEstado() == null) {
             proveedor.setEstado(EstadoProveedor.ACTIVO);
         }
@@ -183,5 +241,7 @@ public class ProveedorServiceImpl implements ProveedorService {
         }
 
         proveedorRepository.save(proveedor);
+        eventoService.publicar(TipoEvento.PROVEEDOR_ACTUALIZADO, proveedor.getId());
+        contadorService.proveedorCambiado(anterior, proveedor.getEstado());
     }
 }
\ No newline at end of file
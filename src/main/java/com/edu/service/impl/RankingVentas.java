@@ -0,0 +1,105 @@
+package com.edu.service.impl;
+
+import com.edu.dto.VentanaVentas;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Unidades vendidas por producto en cada ventana (contadores exactos) con un orden siempre
+// actualizado: el top N es recorrer los N primeros del TreeSet, O(k) sin ordenar nada.
+// Guarda el detalle por día de los últimos 30 días para restar lo que sale de cada ventana
+// al cambiar de día. No es thread-safe: la sincronización la hace quien lo usa.
+class RankingVentas {
+
+    private static final int DIAS_GUARDADOS = VentanaVentas.TREINTA_DIAS.getDias();
+
+    private record Posicion(long productoId, long cantidad) {
+    }
+
+    // Más unidades primero; a igual cantidad, por id
+    private static final Comparator<Posicion> ORDEN = Comparator
+            .comparingLong(Posicion::cantidad).reversed()
+            .thenComparingLong(Posicion::productoId);
+
+    private static final class Ranking {
+        final Map<Long, Posicion> posiciones = new HashMap<>();
+        final TreeSet<Posicion> orden = new TreeSet<>(ORDEN);
+
+        void sumar(long productoId, long cantidad) {
+            Posicion actual = posiciones.remove(productoId);
+            long total = cantidad;
+            if (actual != null) {
+                orden.remove(actual);
+                total += actual.cantidad();
+            }
+            if (total > 0) {
+                Posicion nueva = new Posicion(productoId, total);
+                posiciones.put(productoId, nueva);
+                orden.add(nueva);
+            }
+        }
+    }
+
+    private final Map<VentanaVentas, Ranking> rankings = new EnumMap<>(VentanaVentas.class);
+    private final TreeMap<LocalDate, Map<Long, Long>> porDia = new TreeMap<>();
+    private LocalDate hoy;
+
+    RankingVentas(LocalDate hoy) {
+        this.hoy = hoy;
+        for (VentanaVentas ventana : VentanaVentas.values()) {
+            rankings.put(ventana, new Ranking());
+        }
+    }
+
+    // === Escritura ===
+
+    // cantidad negativa para anulaciones
+    void sumar(LocalDate fecha, long productoId, long cantidad) {
+        rankings.get(VentanaVentas.HISTORICO).sumar(productoId, cantidad);
+        if (fecha.isAfter(hoy) || fecha.isBefore(inicio(DIAS_GUARDADOS, hoy))) {
+            return;
+        }
+        porDia.computeIfAbsent(fecha, f -> new HashMap<>()).merge(productoId, cantidad, Long::sum);
+        for (VentanaVentas ventana : VentanaVentas.values()) {
+            if (ventana.getDias() > 0 && !fecha.isBefore(inicio(ventana.getDias(), hoy))) {
+                rankings.get(ventana).sumar(productoId, cantidad);
+            }
+        }
+    }
+
+    // Cambio de día: cada ventana resta los días que quedaron fuera
+    void avanzar(LocalDate nuevoHoy) {
+        if (!nuevoHoy.isAfter(hoy)) {
+            return;
+        }
+        for (VentanaVentas ventana : VentanaVentas.values()) {
+            if (ventana.getDias() == 0) {
+                continue;
+            }
+            Ranking ranking = rankings.get(ventana);
+            LocalDate desde = inicio(ventana.getDias(), hoy);
+            LocalDate hasta = inicio(ventana.getDias(), nuevoHoy);
+            porDia.subMap(desde, true, hasta, false).values()
+                    .forEach(dia -> dia.forEach((productoId, cantidad) -> ranking.sumar(productoId, -cantidad)));
+        }
+        porDia.headMap(inicio(DIAS_GUARDADOS, nuevoHoy), false).clear();
+        hoy = nuevoHoy;
+    }
+
+    // === Consulta ===
+
+    // [productoId, cantidad] de los n más vendidos
+    List<long[]> top(VentanaVentas ventana, int n) {
+        List<long[]> resultado = new ArrayList<>(n);
+        Iterator<Posicion> it = rankings.get(ventana).orden.iterator();
+        while (resultado.size() < n && it.hasNext()) {
+            Posicion posicion = it.next();
+            resultado.add(new long[]{posicion.productoId(), posicion.cantidad()});
+        }
+        return resultado;
+    }
+
+    private static LocalDate inicio(int dias, LocalDate hoy) {
+        return hoy.minusDays(dias - 1L);
+    }
+}
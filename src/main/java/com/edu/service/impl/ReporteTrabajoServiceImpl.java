@@ -0,0 +1,187 @@
+package com.edu.service.impl;
+
+import com.edu.config.ContextoReporte;
+import com.edu.dto.TipoReporte;
+import com.edu.dto.TrabajoReporte;
+import com.edu.exception.BusinessException;
+import com.edu.service.CacheReporteService;
+import com.edu.service.ClienteService;
+import com.edu.service.ReporteTrabajoService;
+import com.edu.service.VentaService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@Service
+public class ReporteTrabajoServiceImpl implements ReporteTrabajoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReporteTrabajoServiceImpl.class);
+
+    private final VentaService ventaService;
+    private final ClienteService clienteService;
+    private final CacheReporteService cacheReporteService;
+    private final Path directorio;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, TrabajoReporte> trabajos = new ConcurrentHashMap<>();
+
+    public ReporteTrabajoServiceImpl(VentaService ventaService,
+                                     ClienteService clienteService,
+                                     CacheReporteService cacheReporteService,
+                                     @Value("${gesa.reportes.directorio}") String directorio,
+                                     @Value("${gesa.reportes.hilos:2}") int hilos,
+                                     @Value("${gesa.reportes.cola:20}") int capacidadCola,
+                                     @Value("${gesa.reportes.ttl-minutos:30}") long ttlMinutos) throws IOException {
+        this.ventaService = ventaService;
+        this.clienteService = clienteService;
+        this.cacheReporteService = cacheReporteService;
+        this.directorio = Files.createDirectories(Paths.get(directorio));
+        this.ttl = Duration.ofMinutes(ttlMinutos);
+
+        // Pool acotado: como mucho "hilos" PDFs a la vez y "cola" esperando; el resto se rechaza
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                r -> {
+                    Thread hilo = new Thread(r, "reportes-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Los trabajos viven en memoria: los archivos de una ejecución anterior ya no tienen dueño
+        limpiarDirectorio();
+    }
+
+    // === Encolar / consultar ===
+    @Override
+    public TrabajoReporte encolar(TipoReporte tipo, LocalDateTime inicio, LocalDateTime fin, String usuario) {
+        TrabajoReporte trabajo = new TrabajoReporte(UUID.randomUUID().toString(), tipo, inicio, fin, usuario);
+        trabajos.put(trabajo.getId(), trabajo);
+        try {
+            // Las consultas del PDF usan el pool de reportes, no el de las ventas
+            executor.execute(() -> ContextoReporte.ejecutar(() -> generar(trabajo)));
+        } catch (RejectedExecutionException e) {
+            trabajos.remove(trabajo.getId());
+            throw new BusinessException("Hay demasiados reportes en proceso. Intente nuevamente en unos minutos.");
+        }
+        return trabajo;
+    }
+
+    @Override
+    public Optional<TrabajoReporte> buscar(String id, String usuario) {
+        return Optional.ofNullable(trabajos.get(id))
+                .filter(trabajo -> trabajo.getUsuario().equals(usuario));
+    }
+
+    // === Generación ===
+    private void generar(TrabajoReporte trabajo) {
+        trabajo.iniciar();
+        if (!hayDatos(trabajo)) {
+            trabajo.sinDatos();
+            return;
+        }
+        Path temporal = directorio.resolve(trabajo.getId() + ".pdf.tmp");
+        Path destino = directorio.resolve(trabajo.getId() + ".pdf");
+        try {
+            // Misma versión de los datos del rango → mismo PDF: se sirve una copia del generado antes
+            String rango = trabajo.getTipo() + "|" + trabajo.getFechaInicio() + "|" + trabajo.getFechaFin();
+            String version = version(trabajo);
+            Optional<Path> cacheado = cacheReporteService.buscar(rango, version);
+            if (cacheado.isPresent() && copiar(cacheado.get(), destino)) {
+                trabajo.completar(destino);
+                return;
+            }
+
+            try (OutputStream salida = Files.newOutputStream(temporal)) {
+                switch (trabajo.getTipo()) {
+                    case VENTAS -> ventaService.exportarVentasPdf(trabajo.getFechaInicio(), trabajo.getFechaFin(), salida);
+                    case CLIENTES -> clienteService.exportarClientesPdf(trabajo.getFechaInicio(), trabajo.getFechaFin(), salida);
+                }
+            }
+            cacheReporteService.guardar(rango, version, temporal);
+            // Solo se publica el archivo completo
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            trabajo.completar(destino);
+        } catch (Exception e) {
+            log.error("Error generando el reporte {} ({})", trabajo.getId(), trabajo.getTipo(), e);
+            borrar(temporal);
+            trabajo.fallar("No se pudo generar el reporte.");
+        }
+    }
+
+    private boolean hayDatos(TrabajoReporte trabajo) {
+        return switch (trabajo.getTipo()) {
+            case VENTAS -> ventaService.existenVentasEntreFechas(trabajo.getFechaInicio(), trabajo.getFechaFin());
+            case CLIENTES -> clienteService.existenClientesRegistradosEntre(trabajo.getFechaInicio(), trabajo.getFechaFin());
+        };
+    }
+
+    private String version(TrabajoReporte trabajo) {
+        return switch (trabajo.getTipo()) {
+            case VENTAS -> ventaService.versionVentasEntreFechas(trabajo.getFechaInicio(), trabajo.getFechaFin());
+            case CLIENTES -> clienteService.versionClientesRegistradosEntre(trabajo.getFechaInicio(), trabajo.getFechaFin());
+        };
+    }
+
+    // Si la entrada se desalojó mientras tanto, se vuelve a generar
+    private boolean copiar(Path origen, Path destino) {
+        try {
+            Files.copy(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            borrar(destino);
+            return false;
+        }
+    }
+
+    // === Limpieza por TTL ===
+    @Scheduled(fixedDelayString = "${gesa.reportes.limpieza-ms:60000}")
+    public void limpiarVencidos() {
+        LocalDateTime limite = LocalDateTime.now().minus(ttl);
+        trabajos.values().removeIf(trabajo -> {
+            boolean vencido = trabajo.getFinalizado() != null && trabajo.getFinalizado().isBefore(limite);
+            if (vencido && trabajo.getArchivo() != null) {
+                borrar(trabajo.getArchivo());
+            }
+            return vencido;
+        });
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    private void limpiarDirectorio() {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.filter(Files::isRegularFile).forEach(this::borrar);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void borrar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar {}", archivo, e);
+        }
+    }
+}
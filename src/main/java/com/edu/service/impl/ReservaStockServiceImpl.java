@@ -0,0 +1,180 @@
+package com.edu.service.impl;
+
+import com.edu.entity.ReservaStock;
+import com.edu.entity.Venta;
+import com.edu.exception.BusinessException;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.ReservaStockRepository;
+import com.edu.service.CodigoProductoService;
+import com.edu.service.ReservaStockService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservas de stock con vencimiento. Los vencimientos van en una DelayQueue en memoria:
+ * liberar cuesta lo mismo que el número de reservas vencidas, sin recorrer la tabla.
+ * Al iniciar se vuelve a llenar la cola con las reservas que quedaron en la BD.
+ */
+@Service
+@Transactional
+public class ReservaStockServiceImpl implements ReservaStockService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservaStockServiceImpl.class);
+
+    // Vencimiento de las reservas de una venta
+    private static final class Vencimiento implements Delayed {
+        final Long ventaId;
+        final long expiraMillis;
+
+        Vencimiento(Long ventaId, LocalDateTime expira) {
+            this.ventaId = ventaId;
+            this.expiraMillis = expira.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiraMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed otro) {
+            return Long.compare(expiraMillis, ((Vencimiento) otro).expiraMillis);
+        }
+    }
+
+    private final ReservaStockRepository reservaStockRepository;
+    private final ProductoRepository productoRepository;
+    private final CodigoProductoService codigoProductoService;
+    private final Duration ttl;
+    private final DelayQueue<Vencimiento> vencimientos = new DelayQueue<>();
+
+    public ReservaStockServiceImpl(ReservaStockRepository reservaStockRepository,
+                                   ProductoRepository productoRepository,
+                                   CodigoProductoService codigoProductoService,
+                                   @Value("${gesa.reservas.ttl-minutos:15}") long ttlMinutos) {
+        this.reservaStockRepository = reservaStockRepository;
+        this.productoRepository = productoRepository;
+        this.codigoProductoService = codigoProductoService;
+        this.ttl = Duration.ofMinutes(ttlMinutos);
+    }
+
+    // === Reserva ===
+    @Override
+    public void reservar(Venta venta, Map<Long, Integer> cantidadPorProducto) {
+        // Las reservas toman sus ids (otra conexión del pool) antes de bloquear las filas de los productos
+        LocalDateTime expira = LocalDateTime.now().plus(ttl);
+        List<ReservaStock> reservas = new ArrayList<>();
+        cantidadPorProducto.forEach((productoId, cantidad) -> reservas.add(ReservaStock.builder()
+                .venta(venta)
+                .producto(productoRepository.getReferenceById(productoId))
+                .cantidad(cantidad)
+                .expira(expira)
+                .build()));
+        reservaStockRepository.saveAll(reservas);
+
+        // Mismo orden de bloqueo que el descuento de stock (el mapa viene ordenado por id)
+        for (Map.Entry<Long, Integer> entry : cantidadPorProducto.entrySet()) {
+            if (productoRepository.reservarStock(entry.getKey(), entry.getValue()) == 0) {
+                throw new BusinessException("Stock insuficiente para reservar el producto con id: " + entry.getKey());
+            }
+        }
+
+        codigoProductoService.stockDescontado(cantidadPorProducto);
+        Vencimiento vencimiento = new Vencimiento(venta.getId(), expira);
+        Transacciones.alConfirmar(() -> vencimientos.add(vencimiento));
+    }
+
+    @Override
+    public boolean confirmar(Venta venta) {
+        List<ReservaStock> reservas = reservaStockRepository.bloquearPorVenta(venta.getId());
+        if (reservas.isEmpty()) {
+            return false;
+        }
+        for (Map.Entry<Long, Integer> entry : porProducto(reservas).entrySet()) {
+            productoRepository.confirmarReserva(entry.getKey(), entry.getValue());
+        }
+        // El disponible no cambia: las unidades ya estaban apartadas
+        reservaStockRepository.deleteAllInBatch(reservas);
+        return true;
+    }
+
+    @Override
+    public void liberar(Venta venta) {
+        devolver(reservaStockRepository.bloquearPorVenta(venta.getId()));
+    }
+
+    // === Vencimiento ===
+
+    // Solo toma de la cola lo que ya venció; la consulta filtra por esas ventas.
+    // Si la liberación hace rollback (espera de bloqueo, deadlock con un confirmar...), lo tomado
+    // vuelve a la cola y se reintenta en el siguiente ciclo
+    @Override
+    @Scheduled(fixedDelayString = "${gesa.reservas.liberacion-ms:5000}")
+    public void liberarVencidas() {
+        List<Vencimiento> tomados = new ArrayList<>();
+        Set<Long> ventas = new HashSet<>();
+        for (Vencimiento vencido = vencimientos.poll(); vencido != null; vencido = vencimientos.poll()) {
+            tomados.add(vencido);
+            ventas.add(vencido.ventaId);
+        }
+        if (ventas.isEmpty()) {
+            return;
+        }
+        Transacciones.alRevertir(() -> vencimientos.addAll(tomados));
+        List<ReservaStock> vencidas = reservaStockRepository.bloquearVencidas(ventas, LocalDateTime.now());
+        devolver(vencidas);
+        if (!vencidas.isEmpty()) {
+            log.info("Reservas vencidas liberadas: {} ({} ventas)", vencidas.size(), ventas.size());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargarVencimientos() {
+        for (Object[] fila : reservaStockRepository.vencimientos()) {
+            vencimientos.add(new Vencimiento((Long) fila[0], (LocalDateTime) fila[1]));
+        }
+        if (!vencimientos.isEmpty()) {
+            log.info("Reservas de stock pendientes: {} ventas", vencimientos.size());
+        }
+    }
+
+    // === Internos ===
+    private void devolver(List<ReservaStock> reservas) {
+        if (reservas.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> cantidades = porProducto(reservas);
+        for (Map.Entry<Long, Integer> entry : cantidades.entrySet()) {
+            productoRepository.liberarReserva(entry.getKey(), entry.getValue());
+        }
+        reservaStockRepository.deleteAllInBatch(reservas);
+
+        Map<Long, Integer> devueltas = new HashMap<>();
+        cantidades.forEach((productoId, cantidad) -> devueltas.put(productoId, -cantidad));
+        codigoProductoService.stockDescontado(devueltas);
+    }
+
+    // TreeMap: las filas de productos se bloquean siempre en el mismo orden
+    private static Map<Long, Integer> porProducto(List<ReservaStock> reservas) {
+        Map<Long, Integer> cantidades = new TreeMap<>();
+        for (ReservaStock reserva : reservas) {
+            cantidades.merge(reserva.getProducto().getId(), reserva.getCantidad(), Integer::sum);
+        }
+        return cantidades;
+    }
+}
@@ -0,0 +1,212 @@
+package com.edu.service.impl;
+
+import com.edu.config.ContextoReporte;
+import com.edu.dto.ResumenRango;
+import com.edu.entity.EstadoVenta;
+import com.edu.exception.BusinessException;
+import com.edu.repository.ClienteRepository;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.VentaRepository;
+import com.edu.service.ResumenRangoService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class ResumenRangoServiceImpl implements ResumenRangoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumenRangoServiceImpl.class);
+
+    private final VentaRepository ventaRepository;
+    private final ProductoRepository productoRepository;
+    private final ClienteRepository clienteRepository;
+    private final TransactionTemplate lectura;
+    private final ThreadPoolExecutor executor;
+    private final int maximoMeses;
+    private final int top;
+    private final long timeoutSegundos;
+
+    // Resultado de un tramo (un mes del rango)
+    private record Tramo(YearMonth mes, long ventas, long anuladas, BigDecimal total,
+                         Map<Long, Acumulado> productos, Map<Long, Acumulado> clientes) {
+    }
+
+    private static final class Acumulado {
+        long cantidad;
+        BigDecimal total = BigDecimal.ZERO;
+
+        void sumar(long cantidad, BigDecimal total) {
+            this.cantidad += cantidad;
+            this.total = this.total.add(total);
+        }
+    }
+
+    public ResumenRangoServiceImpl(VentaRepository ventaRepository, ProductoRepository productoRepository,
+                                   ClienteRepository clienteRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${gesa.reportes.rango.hilos:4}") int hilos,
+                                   @Value("${gesa.reportes.rango.cola:50}") int capacidadCola,
+                                   @Value("${gesa.reportes.rango.max-meses:120}") int maximoMeses,
+                                   @Value("${gesa.reportes.rango.top:10}") int top,
+                                   @Value("${gesa.reportes.rango.timeout-segundos:60}") long timeoutSegundos) {
+        this.ventaRepository = ventaRepository;
+        this.productoRepository = productoRepository;
+        this.clienteRepository = clienteRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        // Con nombre: como un @Transactional(readOnly = true), puede leer de una réplica (ver EnrutadorDataSource)
+        this.lectura.setName(ResumenRangoServiceImpl.class.getName() + ".resumir");
+        this.maximoMeses = maximoMeses;
+        this.top = top;
+        this.timeoutSegundos = timeoutSegundos;
+
+        // Pool acotado y compartido por todos los resúmenes: como mucho "hilos" conexiones a la vez.
+        // Con la cola llena, el hilo que pide el resumen calcula el tramo él mismo (frena al que más pide)
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                r -> {
+                    Thread hilo = new Thread(r, "resumen-rango-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public ResumenRango resumir(LocalDate inicio, LocalDate fin) {
+        if (inicio.isAfter(fin)) {
+            throw new BusinessException("La fecha de inicio no puede ser posterior a la fecha de fin.");
+        }
+        if (ChronoUnit.MONTHS.between(YearMonth.from(inicio), YearMonth.from(fin)) >= maximoMeses) {
+            throw new BusinessException("El rango no puede superar los " + maximoMeses + " meses.");
+        }
+
+        long comienzo = System.currentTimeMillis();
+        List<Future<Tramo>> pendientes = new ArrayList<>();
+        for (YearMonth mes = YearMonth.from(inicio); !mes.isAfter(YearMonth.from(fin)); mes = mes.plusMonths(1)) {
+            LocalDate desde = mes.atDay(1).isBefore(inicio) ? inicio : mes.atDay(1);
+            LocalDate hasta = mes.atEndOfMonth().isAfter(fin) ? fin : mes.atEndOfMonth();
+            YearMonth tramo = mes;
+            // Cada tramo en el pool de reportes (el hilo del executor no hereda el contexto de la petición)
+            pendientes.add(executor.submit(() -> ContextoReporte.ejecutar(
+                    () -> lectura.execute(status -> calcular(tramo, desde, hasta)))));
+        }
+
+        List<Tramo> tramos = new ArrayList<>(pendientes.size());
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSegundos);
+        try {
+            for (Future<Tramo> pendiente : pendientes) {
+                tramos.add(pendiente.get(limite - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            throw new BusinessException("El resumen tardó más de " + timeoutSegundos + " s; pruebe con un rango menor.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Se interrumpió el cálculo del resumen.");
+        } catch (ExecutionException e) {
+            log.error("Error calculando un tramo del resumen {} - {}", inicio, fin, e.getCause());
+            throw new BusinessException("No se pudo calcular el resumen.");
+        } finally {
+            pendientes.forEach(pendiente -> pendiente.cancel(true));
+        }
+
+        ResumenRango resumen = unir(inicio, fin, tramos, System.currentTimeMillis() - comienzo);
+        log.debug("Resumen {} - {}: {} tramos en {} ms", inicio, fin, tramos.size(), resumen.getMilisegundos());
+        return resumen;
+    }
+
+    // === Un tramo: tres agregaciones en la BD sobre un mes ===
+    private Tramo calcular(YearMonth mes, LocalDate desde, LocalDate hasta) {
+        long ventas = 0;
+        long anuladas = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (Object[] fila : ventaRepository.totalesPorEstado(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay())) {
+            long cantidad = (Long) fila[1];
+            if (fila[0] == EstadoVenta.ANULADA) {
+                anuladas += cantidad;
+            } else {
+                ventas += cantidad;
+                total = total.add((BigDecimal) fila[2]);
+            }
+        }
+
+        Map<Long, Acumulado> productos = new HashMap<>();
+        for (Object[] fila : ventaRepository.totalesPorProducto(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay())) {
+            productos.computeIfAbsent((Long) fila[0], id -> new Acumulado()).sumar((Long) fila[1], (BigDecimal) fila[2]);
+        }
+        Map<Long, Acumulado> clientes = new HashMap<>();
+        for (Object[] fila : ventaRepository.totalesPorCliente(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay())) {
+            clientes.computeIfAbsent((Long) fila[0], id -> new Acumulado()).sumar((Long) fila[1], (BigDecimal) fila[2]);
+        }
+        return new Tramo(mes, ventas, anuladas, total, productos, clientes);
+    }
+
+    // === Unión de los tramos ===
+    private ResumenRango unir(LocalDate inicio, LocalDate fin, List<Tramo> tramos, long milisegundos) {
+        long ventas = 0;
+        long anuladas = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        List<ResumenRango.Mes> meses = new ArrayList<>(tramos.size());
+        Map<Long, Acumulado> productos = new HashMap<>();
+        Map<Long, Acumulado> clientes = new HashMap<>();
+
+        for (Tramo tramo : tramos) {
+            ventas += tramo.ventas();
+            anuladas += tramo.anuladas();
+            total = total.add(tramo.total());
+            meses.add(new ResumenRango.Mes(tramo.mes().getYear(), tramo.mes().getMonthValue(),
+                    tramo.ventas(), tramo.anuladas(), tramo.total()));
+            tramo.productos().forEach((id, a) -> productos.computeIfAbsent(id, k -> new Acumulado()).sumar(a.cantidad, a.total));
+            tramo.clientes().forEach((id, a) -> clientes.computeIfAbsent(id, k -> new Acumulado()).sumar(a.cantidad, a.total));
+        }
+
+        List<Long> topProductos = mayores(productos);
+        List<Long> topClientes = mayores(clientes);
+        Map<Long, String> nombresProductos = new HashMap<>();
+        Map<Long, String> nombresClientes = new HashMap<>();
+        lectura.executeWithoutResult(status -> {
+            productoRepository.findAllById(topProductos).forEach(p -> nombresProductos.put(p.getId(), p.getNombre()));
+            clienteRepository.findAllById(topClientes).forEach(c -> nombresClientes.put(c.getId(), c.getNombre()));
+        });
+
+        return new ResumenRango(inicio, fin, ventas, anuladas, total, meses,
+                items(topProductos, productos, nombresProductos), items(topClientes, clientes, nombresClientes),
+                tramos.size(), milisegundos);
+    }
+
+    // Ids de los "top" mayores por importe
+    private List<Long> mayores(Map<Long, Acumulado> acumulados) {
+        return acumulados.entrySet().stream()
+                .sorted(Map.Entry.<Long, Acumulado>comparingByValue(Comparator.comparing(a -> a.total)).reversed())
+                .limit(top)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static List<ResumenRango.Item> items(List<Long> ids, Map<Long, Acumulado> acumulados, Map<Long, String> nombres) {
+        List<ResumenRango.Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Acumulado acumulado = acumulados.get(id);
+            items.add(new ResumenRango.Item(id, nombres.get(id), acumulado.cantidad, acumulado.total));
+        }
+        return items;
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,170 @@
+package com.edu.service.impl;
+
+import com.edu.entity.DetalleVenta;
+import com.edu.entity.EstadoVenta;
+import com.edu.entity.Venta;
+import com.edu.repository.VentaDiariaClienteRepository;
+import com.edu.repository.VentaDiariaRepository;
+import com.edu.service.ResumenVentasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+
+@Service
+public class ResumenVentasServiceImpl implements ResumenVentasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumenVentasServiceImpl.class);
+
+    private final VentaDiariaRepository ventaDiariaRepository;
+    private final VentaDiariaClienteRepository ventaDiariaClienteRepository;
+    private final TransactionTemplate transaccion;
+    private final boolean reconstruirAlIniciar;
+
+    public ResumenVentasServiceImpl(VentaDiariaRepository ventaDiariaRepository,
+                                    VentaDiariaClienteRepository ventaDiariaClienteRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${gesa.ventas-diarias.reconstruir-al-iniciar:false}") boolean reconstruirAlIniciar) {
+        this.ventaDiariaRepository = ventaDiariaRepository;
+        this.ventaDiariaClienteRepository = ventaDiariaClienteRepository;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.reconstruirAlIniciar = reconstruirAlIniciar;
+    }
+
+    // === Mantenimiento ===
+    @Override
+    public void ventaRegistrada(Venta venta) {
+        if (venta.getEstado() != EstadoVenta.ANULADA) {
+            acumular(venta, 1);
+        }
+    }
+
+    @Override
+    public void ventaAnulada(Venta venta) {
+        acumular(venta, -1);
+    }
+
+    // Un upsert por producto de la venta (las líneas repetidas se agrupan) y uno para el conteo de ventas
+    private void acumular(Venta venta, int signo) {
+        Map<Long, long[]> cantidades = new TreeMap<>();
+        Map<Long, BigDecimal> importes = new HashMap<>();
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            Long productoId = detalle.getProducto().getId();
+            cantidades.computeIfAbsent(productoId, id -> new long[1])[0] += detalle.getCantidad();
+            importes.merge(productoId, detalle.getSubtotal(), BigDecimal::add);
+        }
+
+        LocalDate fecha = venta.getFechaVenta().toLocalDate();
+        for (Map.Entry<Long, long[]> entry : cantidades.entrySet()) {
+            BigDecimal importe = importes.get(entry.getKey());
+            ventaDiariaRepository.acumular(fecha, entry.getKey(), venta.getCliente().getId(),
+                    signo, signo * entry.getValue()[0], signo > 0 ? importe : importe.negate());
+        }
+        ventaDiariaClienteRepository.acumular(fecha, venta.getCliente().getId(), signo);
+    }
+
+    // === Reportes ===
+    @Override
+    public List<Map<String, Object>> ventasPorDia(LocalDate inicio, LocalDate fin) {
+        Map<List<Object>, Object> ventas = conteos(ventaDiariaClienteRepository.ventasPorDia(inicio, fin), 1);
+        List<Map<String, Object>> resultado = new ArrayList<>();
+        for (Object[] fila : ventaDiariaRepository.totalesPorDia(inicio, fin)) {
+            Map<String, Object> dia = new LinkedHashMap<>();
+            dia.put("fecha", fila[0]);
+            agregarTotales(dia, fila, 1, ventas);
+            resultado.add(dia);
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Map<String, Object>> ventasPorMes(LocalDate inicio, LocalDate fin) {
+        Map<List<Object>, Object> ventas = conteos(ventaDiariaClienteRepository.ventasPorMes(inicio, fin), 2);
+        List<Map<String, Object>> resultado = new ArrayList<>();
+        for (Object[] fila : ventaDiariaRepository.totalesPorMes(inicio, fin)) {
+            Map<String, Object> mes = new LinkedHashMap<>();
+            mes.put("anio", fila[0]);
+            mes.put("mes", fila[1]);
+            agregarTotales(mes, fila, 2, ventas);
+            resultado.add(mes);
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Map<String, Object>> ventasPorAnio(LocalDate inicio, LocalDate fin) {
+        Map<List<Object>, Object> ventas = conteos(ventaDiariaClienteRepository.ventasPorAnio(inicio, fin), 1);
+        List<Map<String, Object>> resultado = new ArrayList<>();
+        for (Object[] fila : ventaDiariaRepository.totalesPorAnio(inicio, fin)) {
+            Map<String, Object> anio = new LinkedHashMap<>();
+            anio.put("anio", fila[0]);
+            agregarTotales(anio, fila, 1, ventas);
+            resultado.add(anio);
+        }
+        return resultado;
+    }
+
+    // Número de ventas del periodo (ventas_diarias_clientes); cantidad y total, de las filas por producto
+    private static void agregarTotales(Map<String, Object> destino, Object[] fila, int desde,
+                                       Map<List<Object>, Object> ventas) {
+        destino.put("numeroVentas", ventas.getOrDefault(Arrays.asList(Arrays.copyOf(fila, desde)), 0L));
+        destino.put("cantidad", fila[desde]);
+        destino.put("total", fila[desde + 1]);
+    }
+
+    // Conteo por periodo: las primeras "claves" columnas identifican el periodo, la siguiente es el conteo
+    private static Map<List<Object>, Object> conteos(List<Object[]> filas, int claves) {
+        Map<List<Object>, Object> conteos = new HashMap<>();
+        for (Object[] fila : filas) {
+            conteos.put(Arrays.asList(Arrays.copyOf(fila, claves)), fila[claves]);
+        }
+        return conteos;
+    }
+
+    // === Reconstrucción ===
+
+    /**
+     * Recalcula ventas_diarias y ventas_diarias_clientes desde ventas/detalle_venta, un mes por transacción
+     * para no mantener bloqueos largos sobre todo el histórico.
+     */
+    @Override
+    public int reconstruir() {
+        LocalDateTime primera = ventaDiariaRepository.primeraFechaVenta();
+        if (primera == null) {
+            return 0;
+        }
+
+        int meses = 0;
+        YearMonth actual = YearMonth.now();
+        for (YearMonth mes = YearMonth.from(primera); !mes.isAfter(actual); mes = mes.plusMonths(1)) {
+            LocalDate inicio = mes.atDay(1);
+            LocalDate fin = mes.atEndOfMonth();
+            transaccion.executeWithoutResult(status -> {
+                ventaDiariaRepository.eliminarRango(inicio, fin);
+                ventaDiariaRepository.reconstruirRango(inicio.atStartOfDay(), fin.plusDays(1).atStartOfDay());
+                ventaDiariaClienteRepository.eliminarRango(inicio, fin);
+                ventaDiariaClienteRepository.reconstruirRango(inicio.atStartOfDay(), fin.plusDays(1).atStartOfDay());
+            });
+            meses++;
+        }
+        log.info("Resumen ventas_diarias reconstruido: {} meses", meses);
+        return meses;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirAlIniciar() {
+        if (reconstruirAlIniciar) {
+            reconstruir();
+        }
+    }
+}
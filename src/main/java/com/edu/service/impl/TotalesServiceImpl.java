@@ -0,0 +1,68 @@
+package com.edu.service.impl;
+
+import com.edu.entity.Cliente;
+import com.edu.entity.Producto;
+import com.edu.entity.Proveedor;
+import com.edu.entity.Venta;
+import com.edu.service.ContadorService;
+import com.edu.service.TotalesService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * El total de un listado sale de los contadores en memoria (ContadorService): las bajas son lógicas,
+ * así que la suma de todos los estados es el número de filas. No depende de los ids, que tienen
+ * huecos (bloques del generador por tabla que se pierden al reiniciar, rollbacks).
+ */
+@Service
+public class TotalesServiceImpl implements TotalesService {
+
+    private static final List<Class<?>> ENTIDADES = List.of(Cliente.class, Producto.class, Proveedor.class, Venta.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ContadorService contadorService;
+    private final TransactionTemplate lectura;
+
+    public TotalesServiceImpl(ContadorService contadorService, PlatformTransactionManager transactionManager) {
+        this.contadorService = contadorService;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    @Override
+    public long estimado(Class<?> entidad) {
+        validar(entidad);
+        if (entidad == Cliente.class) {
+            return contadorService.clientes(null);
+        }
+        if (entidad == Producto.class) {
+            return contadorService.productos(null, null);
+        }
+        if (entidad == Proveedor.class) {
+            return contadorService.proveedores(null);
+        }
+        return contadorService.ventas(null);
+    }
+
+    @Override
+    public long exacto(Class<?> entidad) {
+        String jpql = "SELECT COUNT(e) FROM " + validar(entidad).getSimpleName() + " e";
+        Number total = lectura.execute(status -> entityManager.createQuery(jpql, Number.class).getSingleResult());
+        return total == null ? 0 : total.longValue();
+    }
+
+    // === Internos ===
+    private static Class<?> validar(Class<?> entidad) {
+        if (!ENTIDADES.contains(entidad)) {
+            throw new IllegalArgumentException("Sin total para " + entidad.getSimpleName());
+        }
+        return entidad;
+    }
+}
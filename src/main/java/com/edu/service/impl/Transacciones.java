@@ -0,0 +1,39 @@
+package com.edu.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Cambios en estructuras en memoria que deben seguir al resultado de la transacción en curso
+final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    // Ejecuta la acción tras el commit; si no hay transacción activa, de inmediato
+    static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    // Ejecuta la acción si la transacción hace rollback (p. ej. para deshacer algo hecho en memoria antes)
+    static void alRevertir(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        accion.run();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.edu.service.impl;
+
+import java.util.*;
+
+// Trie de nombres de producto (normalizados) donde cada nodo guarda los K mejores productos de su
+// subárbol según las unidades vendidas: el autocompletado de la primera página es una caminata
+// por el prefijo, sin recorrer el subárbol. Los hijos van en arreglos ordenados (no en mapas)
+// para ocupar poca memoria. No es thread-safe: la sincronización la hace quien lo usa.
+class TrieProductos {
+
+    private static final class Nodo {
+        char[] letras = new char[0];
+        Nodo[] hijos = new Nodo[0];
+        // Productos cuyo nombre termina aquí (varios si difieren solo en acentos o mayúsculas)
+        long[] terminales = new long[0];
+        long[] mejores = new long[0];
+    }
+
+    private final int k;
+    private final Nodo raiz = new Nodo();
+    private final Map<Long, String> nombres = new HashMap<>();
+    private final Map<Long, String> claves = new HashMap<>();
+    private final Map<Long, Long> vendidos = new HashMap<>();
+
+    // Más vendido primero; a igual venta, por nombre
+    private final Comparator<Long> orden = Comparator
+            .<Long>comparingLong(id -> -vendidos.getOrDefault(id, 0L))
+            .thenComparing(nombres::get)
+            .thenComparing(Comparator.naturalOrder());
+
+    TrieProductos(int k) {
+        this.k = k;
+    }
+
+    // === Escritura ===
+    void guardar(long id, String nombre) {
+        quitar(id);
+        String clave = IndiceInvertido.normalizar(nombre);
+        nombres.put(id, nombre);
+        claves.put(id, clave);
+
+        Deque<Nodo> camino = new ArrayDeque<>();
+        Nodo nodo = raiz;
+        camino.push(nodo);
+        for (char letra : clave.toCharArray()) {
+            nodo = hijoOCrear(nodo, letra);
+            camino.push(nodo);
+        }
+        nodo.terminales = agregar(nodo.terminales, id);
+        recalcular(camino);
+    }
+
+    void quitar(long id) {
+        String clave = claves.remove(id);
+        if (clave == null) {
+            return;
+        }
+        Deque<Nodo> camino = camino(clave);
+        Nodo nodo = camino.peek();
+        nodo.terminales = sacar(nodo.terminales, id);
+        recalcular(camino);
+        podar(clave, camino);
+        nombres.remove(id);
+    }
+
+    // Suma (o resta) unidades vendidas y reordena los mejores de su camino
+    void sumarVendidos(long id, long cantidad) {
+        vendidos.merge(id, cantidad, Long::sum);
+        String clave = claves.get(id);
+        if (clave != null) {
+            recalcular(camino(clave));
+        }
+    }
+
+    // === Consulta ===
+    List<Long> buscar(String prefijo, int pagina, int tamanio) {
+        Nodo nodo = raiz;
+        for (char letra : IndiceInvertido.normalizar(prefijo).toCharArray()) {
+            nodo = hijo(nodo, letra);
+            if (nodo == null) {
+                return List.of();
+            }
+        }
+        long[] ids;
+        if ((pagina + 1) * tamanio < nodo.mejores.length) {
+            // La página (y saber si hay una más) sale de los mejores precalculados
+            ids = nodo.mejores;
+        } else {
+            List<Long> todos = new ArrayList<>();
+            recolectar(nodo, todos);
+            todos.sort(orden);
+            ids = todos.stream().mapToLong(Long::longValue).toArray();
+        }
+        List<Long> resultado = new ArrayList<>();
+        for (int i = pagina * tamanio; i < ids.length && i <= (pagina + 1) * tamanio; i++) {
+            resultado.add(ids[i]);
+        }
+        // Se devuelve un elemento de más para que el llamador sepa si hay otra página
+        return resultado;
+    }
+
+    String nombre(long id) {
+        return nombres.get(id);
+    }
+
+    // === Internos ===
+    private Deque<Nodo> camino(String clave) {
+        Deque<Nodo> camino = new ArrayDeque<>();
+        Nodo nodo = raiz;
+        camino.push(nodo);
+        for (char letra : clave.toCharArray()) {
+            nodo = hijo(nodo, letra);
+            camino.push(nodo);
+        }
+        return camino;
+    }
+
+    // Del nodo más profundo a la raíz: mejores = terminales propios + mejores de cada hijo
+    private void recalcular(Deque<Nodo> camino) {
+        for (Nodo nodo : camino) {
+            List<Long> candidatos = new ArrayList<>();
+            for (long id : nodo.terminales) {
+                candidatos.add(id);
+            }
+            for (Nodo hijo : nodo.hijos) {
+                for (long id : hijo.mejores) {
+                    candidatos.add(id);
+                }
+            }
+            candidatos.sort(orden);
+            nodo.mejores = candidatos.stream().limit(k).mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    // Quita los nodos que quedaron sin productos
+    private void podar(String clave, Deque<Nodo> camino) {
+        Iterator<Nodo> it = camino.iterator();
+        Nodo nodo = it.next();
+        for (int i = clave.length() - 1; i >= 0 && it.hasNext(); i--) {
+            Nodo padre = it.next();
+            if (nodo.terminales.length > 0 || nodo.hijos.length > 0) {
+                return;
+            }
+            int posicion = Arrays.binarySearch(padre.letras, clave.charAt(i));
+            padre.letras = quitarEn(padre.letras, posicion);
+            padre.hijos = quitarEn(padre.hijos, posicion);
+            nodo = padre;
+        }
+    }
+
+    private void recolectar(Nodo nodo, List<Long> destino) {
+        for (long id : nodo.terminales) {
+            destino.add(id);
+        }
+        for (Nodo hijo : nodo.hijos) {
+            recolectar(hijo, destino);
+        }
+    }
+
+    private static Nodo hijo(Nodo nodo, char letra) {
+        int posicion = Arrays.binarySearch(nodo.letras, letra);
+        return posicion >= 0 ? nodo.hijos[posicion] : null;
+    }
+
+    private static Nodo hijoOCrear(Nodo nodo, char letra) {
+        int posicion = Arrays.binarySearch(nodo.letras, letra);
+        if (posicion >= 0) {
+            return nodo.hijos[posicion];
+        }
+        int insercion = -posicion - 1;
+        Nodo nuevo = new Nodo();
+        char[] letras = new char[nodo.letras.length + 1];
+        Nodo[] hijos = new Nodo[nodo.hijos.length + 1];
+        System.arraycopy(nodo.letras, 0, letras, 0, insercion);
+        System.arraycopy(nodo.hijos, 0, hijos, 0, insercion);
+        letras[insercion] = letra;
+        hijos[insercion] = nuevo;
+        System.arraycopy(nodo.letras, insercion, letras, insercion + 1, nodo.letras.length - insercion);
+        System.arraycopy(nodo.hijos, insercion, hijos, insercion + 1, nodo.hijos.length - insercion);
+        nodo.letras = letras;
+        nodo.hijos = hijos;
+        return nuevo;
+    }
+
+    private static long[] agregar(long[] ids, long id) {
+        long[] resultado = Arrays.copyOf(ids, ids.length + 1);
+        resultado[ids.length] = id;
+        return resultado;
+    }
+
+    private static long[] sacar(long[] ids, long id) {
+        return Arrays.stream(ids).filter(actual -> actual != id).toArray();
+    }
+
+    private static char[] quitarEn(char[] arreglo, int posicion) {
+        char[] resultado = new char[arreglo.length - 1];
+        System.arraycopy(arreglo, 0, resultado, 0, posicion);
+        System.arraycopy(arreglo, posicion + 1, resultado, posicion, arreglo.length - posicion - 1);
+        return resultado;
+    }
+
+    private static Nodo[] quitarEn(Nodo[] arreglo, int posicion) {
+        Nodo[] resultado = new Nodo[arreglo.length - 1];
+        System.arraycopy(arreglo, 0, resultado, 0, posicion);
+        System.arraycopy(arreglo, posicion + 1, resultado, posicion, arreglo.length - posicion - 1);
+        return resultado;
+    }
+}
@@ -1,13 +1,17 @@
 package com.edu.service.impl;
 
 import com.edu.entity.Rol;
+import com.edu.entity.TipoEvento;
 import com.edu.entity.Usuario;
 import com.edu.repository.RolRepository;
 import com.edu.repository.UsuarioRepository;
+import com.edu.security.CacheUsuarios;
+import com.edu.service.EventoService;
 import com.edu.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,14 +22,21 @@ public class UsuarioServiceImpl implements UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final RolRepository rolRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheUsuarios cacheUsuarios;
+    private final EventoService eventoService;
 
+    // Transaccional: el evento se guarda junto con el usuario
     @Override
+    @Transactional
     public Usuario registrarUsuario(Usuario usuario, String nombreRol) {
         Rol rol = rolRepository.findByNombre(nombreRol)
                 .orElseThrow(() -> new RuntimeException("Rol no encontrado"));
         usuario.setRol(rol);
         usuario.setPassword(passwordEncoder.encode(usuario.getPassword()));
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.save(usuario);
+        cacheUsuarios.invalidar(guardado.getEmail());
+        eventoService.publicar(TipoEvento.USUARIO_REGISTRADO, guardado.getId());
+        return guardado;
     }
 
     @Override
@@ -1,39 +1,105 @@
 package com.edu.service.impl;
 
+import com.edu.dto.PaginaCursor;
+import com.edu.dto.ProductoVendido;
+import com.edu.dto.VentanaVentas;
 import com.edu.entity.*;
 import com.edu.exception.BusinessException;
+import com.edu.repository.ProductoRepository;
 import com.edu.repository.UsuarioRepository;
 import com.edu.repository.VentaRepository;
+import com.edu.security.CacheUsuarios;
+import com.edu.service.CodigoProductoService;
+import com.edu.service.ContadorService;
+import com.edu.service.EventoService;
+import com.edu.service.IndiceBusquedaService;
+import com.edu.service.KardexService;
+import com.edu.service.MasVendidosService;
+import com.edu.service.PdfService;
+import com.edu.service.ReservaStockService;
+import com.edu.service.ResumenVentasService;
 import com.edu.service.VentaService;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.sql.Date;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 @Transactional
 public class VentaServiceImpl implements VentaService {
 
+    private static final String[] ENCABEZADOS_PDF =
+            {"Cliente", "Usuario", "Productos", "Cantidad", "Total", "Estado", "Fecha Venta"};
+    private static final int FILAS_POR_LIMPIEZA = 500;
+    private static final DateTimeFormatter FORMATO_FECHA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     private final VentaRepository ventaRepository;
     private final UsuarioRepository usuarioRepository;
-
-    public VentaServiceImpl(VentaRepository ventaRepository, UsuarioRepository usuarioRepository) {
+    private final CacheUsuarios cacheUsuarios;
+    private final ProductoRepository productoRepository;
+    private final ResumenVentasService resumenVentasService;
+    private final IndiceBusquedaService indiceBusquedaService;
+    private final EventoService eventoService;
+    private final CodigoProductoService codigoProductoService;
+    private final KardexService kardexService;
+    private final ContadorService contadorService;
+    private final ReservaStockService reservaStockService;
+    private final MasVendidosService masVendidosService;
+    private final PdfService pdfService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public VentaServiceImpl(VentaRepository ventaRepository, UsuarioRepository usuarioRepository,
+                            CacheUsuarios cacheUsuarios, ProductoRepository productoRepository, EventoService eventoService,
+                            ResumenVentasService resumenVentasService, PdfService pdfService,
+                            IndiceBusquedaService indiceBusquedaService,
+                            CodigoProductoService codigoProductoService, KardexService kardexService,
+                            ReservaStockService reservaStockService, ContadorService contadorService,
+                            MasVendidosService masVendidosService) {
         this.ventaRepository = ventaRepository;
         this.usuarioRepository = usuarioRepository;
+        this.cacheUsuarios = cacheUsuarios;
+        this.productoRepository = productoRepository;
+        this.eventoService = eventoService;
+        this.resumenVentasService = resumenVentasService;
+        this.indiceBusquedaService = indiceBusquedaService;
+        this.codigoProductoService = codigoProductoService;
+        this.kardexService = kardexService;
+        this.contadorService = contadorService;
+        this.reservaStockService = reservaStockService;
+        this.masVendidosService = masVendidosService;
+        this.pdfService = pdfService;
     }
 
     // === CRUD ===
@@ -43,43 +109,89 @@ public class VentaServiceImpl implements VentaService {
             throw new BusinessException("La venta debe tener un cliente asociado.");
         }
 
-        if (venta.getProducto().getStock() < venta.getCantidad()) {
-            throw new BusinessException("Stock insuficiente para el producto: "
-                    + venta.getProducto().getNombre());
+        if (venta.getDetalles() == null || venta.getDetalles().isEmpty()) {
+            throw new BusinessException("La venta debe tener al menos un producto.");
         }
 
+        // Cantidad total por producto (TreeMap: siempre se bloquean las filas en el mismo orden)
+        Map<Long, Integer> cantidadPorProducto = new TreeMap<>();
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            if (detalle.getProducto() == null || detalle.getProducto().getId() == null) {
+                throw new BusinessException("Cada línea de la venta debe tener un producto.");
+            }
+            if (detalle.getCantidad() == null || detalle.getCantidad() < 1) {
+                throw new BusinessException("La cantidad debe ser al menos 1.");
+            }
+            cantidadPorProducto.merge(detalle.getProducto().getId(), detalle.getCantidad(), Integer::sum);
+        }
+
+        // Una sola consulta para todos los productos del ticket
+        Map<Long, Producto> productos = productoRepository.findAllById(cantidadPorProducto.keySet())
+                .stream()
+                .collect(Collectors.toMap(Producto::getId, Function.identity()));
+
         // Obtener usuario logueado desde Spring Security
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
 
-        Usuario usuario = usuarioRepository.findByEmail(email)
+        // Id desde la caché de usuarios; la referencia no consulta la BD (solo se usa como FK)
+        Long usuarioId = cacheUsuarios.buscar(email)
+                .map(CacheUsuarios.UsuarioCacheado::getId)
                 .orElseThrow(() -> new BusinessException("Usuario no encontrado."));
 
         // Asignar el usuario logueado
-        venta.setUsuario(usuario);
-
-        // DEBEMOS TRAER EL PRECIO DEL PRODUCTO Y CALCULAR EL TOTAL ANTES DE VALIDAR
-        // Convertimos el Integer a un BigDecimal para poder realizar la multiplicación
-        BigDecimal cantidadBigDecimal = new BigDecimal(venta.getCantidad());
-        // Multiplicamos el precio por la cantidad y asignamos el resultado
-        venta.setTotal(venta.getProducto().getPrecio().multiply(cantidadBigDecimal));
-
-        // Si pasa la validación, se descuenta:
-        venta.getProducto().setStock(venta.getProducto().getStock() - venta.getCantidad());
+        venta.setUsuario(usuarioRepository.getReferenceById(usuarioId));
+
+        // Precio y subtotal de cada línea; el total es la suma de los subtotales
+        BigDecimal total = BigDecimal.ZERO;
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            Producto producto = productos.get(detalle.getProducto().getId());
+            if (producto == null) {
+                throw new BusinessException("Producto no encontrado con id: " + detalle.getProducto().getId());
+            }
+            detalle.setVenta(venta);
+            detalle.setProducto(producto);
+            detalle.setPrecioUnitario(producto.getPrecio());
+            detalle.setSubtotal(producto.getPrecio().multiply(new BigDecimal(detalle.getCantidad())));
+            total = total.add(detalle.getSubtotal());
+        }
+        venta.setTotal(total);
 
-        // Esta validación ahora funcionará, ya que total tiene un valor
-        if (venta.getTotal() == null || venta.getTotal().compareTo(BigDecimal.ZERO) <= 0) {
+        if (venta.getTotal().compareTo(BigDecimal.ZERO) <= 0) {
             throw new BusinessException("El total de la venta debe ser mayor a 0.");
         }
 
+        // PENDIENTE solo aparta las unidades hasta que se paga; ANULADA no mueve stock (no se repondría nunca);
+        // el resto descuenta ya
+        boolean pendiente = venta.getEstado() == EstadoVenta.PENDIENTE;
+        boolean anulada = venta.getEstado() == EstadoVenta.ANULADA;
+        venta.setStockDescontado(!pendiente && !anulada);
+
         venta.setFechaVenta(LocalDateTime.now());
 
-        return ventaRepository.save(venta);
+        // Cabecera y líneas se insertan en lote al hacer flush (hibernate.jdbc.batch_size).
+        // Los ids (tabla secuencias) se piden con otra conexión del pool: se obtienen antes de bloquear
+        // la fila del producto, para que quien tiene el bloqueo no espere una conexión que ocupan
+        // las ventas que esperan ese mismo bloqueo
+        Venta guardada = ventaRepository.save(venta);
+        if (pendiente) {
+            reservaStockService.reservar(guardada, cantidadPorProducto);
+        } else if (!anulada) {
+            kardexService.ventaDescontada(guardada);
+            descontarStock(cantidadPorProducto, productos);
+            codigoProductoService.stockDescontado(cantidadPorProducto);
+        }
+        resumenVentasService.ventaRegistrada(guardada);
+        contadorService.ventaRegistrada(guardada.getEstado());
+        eventoService.publicar(TipoEvento.VENTA_REGISTRADA, guardada.getId(), Map.of(
+                "stockDescontado", guardada.isStockDescontado(),
+                "anulada", guardada.getEstado() == EstadoVenta.ANULADA));
+        return guardada;
     }
 
     @Override
     public Venta actualizarVenta(Long id, Venta venta) {
-        Venta existente = ventaRepository.findById(id)
+        Venta existente = ventaRepository.bloquear(id)
                 .orElseThrow(() -> new BusinessException("Venta no encontrada con id: " + id));
 
         if (venta.getCliente() == null) {
@@ -90,98 +202,223 @@ public class VentaServiceImpl implements VentaService {
             throw new BusinessException("La venta debe ser registrada por un usuario.");
         }
 
-        if (venta.getTotal() == null || venta.getTotal().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new BusinessException("El total de la venta debe ser mayor a 0.");
+        if (existente.getEstado() == EstadoVenta.ANULADA && venta.getEstado() != EstadoVenta.ANULADA) {
+            throw new BusinessException("No se puede cambiar el estado de una venta ANULADA.");
         }
 
-        // Actualizar datos
+        aplicarEstado(existente, venta.getEstado());
+
+        // Solo se actualiza la cabecera; las líneas y el total no se editan
         existente.setCliente(venta.getCliente());
         existente.setUsuario(venta.getUsuario());
-        existente.setTotal(venta.getTotal());
         existente.setEstado(venta.getEstado());
-        existente.setProducto(venta.getProducto());
-        existente.setCantidad(venta.getCantidad());
 
-        return ventaRepository.save(existente);
+        Venta guardada = ventaRepository.save(existente);
+        eventoService.publicar(TipoEvento.VENTA_ACTUALIZADA, guardada.getId());
+        return guardada;
     }
 
     @Override
     public void eliminarVenta(Long id) {
-        Venta existente = ventaRepository.findById(id)
+        Venta existente = ventaRepository.bloquear(id)
                 .orElseThrow(() -> new BusinessException("Venta no encontrada con id: " + id));
 
         // Eliminación lógica → ANULADA
+        aplicarEstado(existente, EstadoVenta.ANULADA);
         existente.setEstado(EstadoVenta.ANULADA);
         ventaRepository.save(existente);
+        // Las vistas que guardan el estado de la venta (analítica, índice) la releen
+        eventoService.publicar(TipoEvento.VENTA_ACTUALIZADA, existente.getId());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Venta> obtenerVentaPorId(Long id) {
         return ventaRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> listarVentas() {
         return ventaRepository.findAll();
     }
 
     @Override
-    public Page<Venta> listarVentas(Pageable pageable) {
-        return ventaRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Slice<Venta> listarVentas(Pageable pageable) {
+        return ventaRepository.findBy(pageable);
     }
 
+    // Cursor de ventas: "fechaVenta_id" (orden fechaVenta DESC, id DESC)
     @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<Venta> listarVentas(String despues, String antes, int tamanio) {
+        Limit limite = Limit.of(tamanio + 1);
+
+        Venta claveAntes = leerCursorVenta(antes);
+        if (claveAntes != null) {
+            return PaginaCursor.de(ventaRepository.buscarVentasAntesDe(claveAntes.getFechaVenta(), claveAntes.getId(), limite),
+                    tamanio, true, true, VentaServiceImpl::cursorVenta);
+        }
+
+        Venta claveDespues = leerCursorVenta(despues);
+        List<Venta> filas = claveDespues == null
+                ? ventaRepository.findAllByOrderByFechaVentaDescIdDesc(limite)
+                : ventaRepository.buscarVentasDespuesDe(claveDespues.getFechaVenta(), claveDespues.getId(), limite);
+        return PaginaCursor.de(filas, tamanio, false, claveDespues != null, VentaServiceImpl::cursorVenta);
+    }
+
+    private static String cursorVenta(Venta venta) {
+        return venta.getFechaVenta() + "_" + venta.getId();
+    }
+
+    // Devuelve una venta con solo fechaVenta e id, o null si el cursor no es válido
+    private static Venta leerCursorVenta(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separador = cursor.lastIndexOf('_');
+        try {
+            return Venta.builder()
+                    .fechaVenta(LocalDateTime.parse(cursor.substring(0, separador)))
+                    .id(Long.valueOf(cursor.substring(separador + 1)))
+                    .build();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<Venta> buscarVentas(String keyword, Pageable pageable) {
-        return ventaRepository.buscarVentas(keyword, pageable);
+        if (!indiceBusquedaService.disponible()) {
+            return IndiceBusquedaService.paginaSinConteo(ventaRepository.buscarVentas(keyword, pageable));
+        }
+        return IndiceBusquedaService.pagina(indiceBusquedaService.buscarVentas(keyword), pageable,
+                ventaRepository::findByIdIn, Venta::getId);
     }
 
     // === Filtros ===
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> obtenerPorUsuario(Usuario usuario) {
         return ventaRepository.findByUsuario(usuario);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> obtenerPorCliente(Cliente cliente) {
         return ventaRepository.findByCliente(cliente);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> obtenerPorProducto(Producto producto) {
         return ventaRepository.findByProducto(producto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> obtenerPorEstado(EstadoVenta estado) {
         return ventaRepository.findByEstado(estado);
     }
 
     // === Reportes ===
     @Override
-    public List<Venta> listarVentasEntreFechas(LocalDateTime inicio, LocalDateTime fin) {
-        return ventaRepository.findByFechaVentaBetween(inicio, fin);
+    @Transactional(readOnly = true)
+    public List<Venta> listarVentasDespuesDe(LocalDateTime fecha) {
+        return ventaRepository.findByFechaVentaAfter(fecha);
     }
 
     @Override
-    public List<Venta> listarVentasDespuesDe(LocalDateTime fecha) {
-        return ventaRepository.findByFechaVentaAfter(fecha);
+    @Transactional(readOnly = true)
+    public boolean existenVentasEntreFechas(LocalDateTime inicio, LocalDateTime fin) {
+        return ventaRepository.existsByFechaVentaBetween(inicio, fin);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String versionVentasEntreFechas(LocalDateTime inicio, LocalDateTime fin) {
+        return Arrays.toString(ventaRepository.versionEntreFechas(inicio, fin).get(0));
+    }
+
+    // Lee las ventas con un cursor y las escribe bloque a bloque en la salida: las líneas de cada
+    // bloque se cargan en una sola consulta y luego se limpia el contexto de persistencia para que
+    // la memoria no crezca con el rango
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarVentasPdf(LocalDateTime inicio, LocalDateTime fin, OutputStream salida) throws IOException {
+        try (Stream<Venta> ventas = ventaRepository.streamByFechaVentaBetween(inicio, fin)) {
+            Stream<String[]> filas = enBloques(ventas, FILAS_POR_LIMPIEZA).flatMap(bloque -> {
+                ventaRepository.cargarDetalles(bloque);
+                List<String[]> filasBloque = bloque.stream().map(VentaServiceImpl::filaPdf).toList();
+                entityManager.clear();
+                return filasBloque.stream();
+            });
+            pdfService.generarReporteTabla("Reporte de Ventas", ENCABEZADOS_PDF, filas, salida);
+        }
+    }
+
+    private static <T> Stream<List<T>> enBloques(Stream<T> origen, int tamanio) {
+        Iterator<T> it = origen.iterator();
+        Iterator<List<T>> bloques = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                List<T> bloque = new ArrayList<>(tamanio);
+                while (it.hasNext() && bloque.size() < tamanio) {
+                    bloque.add(it.next());
+                }
+                return bloque;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(bloques, Spliterator.ORDERED), false);
+    }
+
+    private static String[] filaPdf(Venta venta) {
+        StringBuilder productos = new StringBuilder();
+        int cantidad = 0;
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            if (!productos.isEmpty()) {
+                productos.append(", ");
+            }
+            productos.append(detalle.getProducto().getNombre()).append(" x").append(detalle.getCantidad());
+            cantidad += detalle.getCantidad();
+        }
+        return new String[]{
+                venta.getCliente().getNombre(),
+                venta.getUsuario().getEmail(),
+                productos.toString(),
+                String.valueOf(cantidad),
+                venta.getTotal().toPlainString(),
+                String.valueOf(venta.getEstado()),
+                venta.getFechaVenta().format(FORMATO_FECHA_HORA)
+        };
     }
 
     // === Negocio ===
     @Override
     public void cambiarEstado(Long id, EstadoVenta nuevoEstado) {
-        Venta venta = ventaRepository.findById(id)
+        Venta venta = ventaRepository.bloquear(id)
                 .orElseThrow(() -> new BusinessException("Venta no encontrada con id: " + id));
 
         if (venta.getEstado() == EstadoVenta.ANULADA) {
             throw new BusinessException("No se puede cambiar el estado de una venta ANULADA.");
         }
 
+        aplicarEstado(venta, nuevoEstado);
+
         venta.setEstado(nuevoEstado);
         ventaRepository.save(venta);
+        eventoService.publicar(TipoEvento.VENTA_ACTUALIZADA, venta.getId());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BigDecimal calcularTotalVentas() {
         return Optional.ofNullable(ventaRepository.sumarTotalVentas())
                 .orElse(BigDecimal.ZERO);
@@ -189,12 +426,31 @@ public class VentaServiceImpl implements VentaService {
 
     //Obtenemos las 3 utimas ventas
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> obtenerUltimasVentas() {
         return ventaRepository.findTop3ByOrderByFechaVentaDesc();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> obtenerProductosMasVendidos() {
+        // Ranking en memoria; solo se consulta la BD para cargar los productos
+        if (masVendidosService.disponible()) {
+            List<ProductoVendido> top = masVendidosService.top(VentanaVentas.HISTORICO, 3);
+            Map<Long, Producto> productos = new HashMap<>();
+            productoRepository.findAllById(top.stream().map(ProductoVendido::getId).toList())
+                    .forEach(p -> productos.put(p.getId(), p));
+            return top.stream()
+                    .filter(vendido -> productos.containsKey(vendido.getId()))
+                    .map(vendido -> {
+                        Map<String, Object> ventaMap = new LinkedHashMap<>();
+                        ventaMap.put("producto", productos.get(vendido.getId()));
+                        ventaMap.put("totalVendido", vendido.getTotalVendido());
+                        return ventaMap;
+                    })
+                    .collect(Collectors.toList());
+        }
+
         // Definimos una paginación que solo trae 3 resultados
         Pageable pageable = PageRequest.of(0, 3);
 
@@ -214,25 +470,98 @@ public class VentaServiceImpl implements VentaService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> obtenerVentasMensuales() {
-        List<Object[]> resultados = ventaRepository.findVentasMensuales();
-
-        return resultados.stream()
-                .map(result -> {
+        // Se lee el resumen diario: el costo depende de los días del mes, no de las ventas
+        YearMonth mes = YearMonth.now();
+        return resumenVentasService.ventasPorDia(mes.atDay(1), mes.atEndOfMonth()).stream()
+                .map(dia -> {
                     Map<String, Object> ventaDiaria = new LinkedHashMap<>();
-
-                    // Conversión de java.sql.Date a java.time.LocalDate
-                    Date sqlDate = (Date) result[0];
-                    LocalDate fecha = sqlDate.toLocalDate();
-
-                    BigDecimal total = (BigDecimal) result[1];
-
+                    LocalDate fecha = (LocalDate) dia.get("fecha");
                     ventaDiaria.put("fecha", fecha.format(DateTimeFormatter.ofPattern("dd")));
-                    ventaDiaria.put("total", total);
+                    ventaDiaria.put("total", dia.get("total"));
                     return ventaDiaria;
                 })
                 .collect(Collectors.toList());
     }
 
+    // Efecto en el stock de un cambio de estado (una venta ANULADA ya se rechazó antes):
+    // PENDIENTE → PAGADA descuenta lo reservado, anular devuelve lo reservado o lo descontado
+    private void aplicarEstado(Venta venta, EstadoVenta nuevoEstado) {
+        EstadoVenta actual = venta.getEstado();
+        if (nuevoEstado == null || nuevoEstado == actual || actual == EstadoVenta.ANULADA) {
+            return;
+        }
+
+        if (nuevoEstado == EstadoVenta.ANULADA) {
+            if (venta.isStockDescontado()) {
+                reponerStock(venta);
+            } else {
+                reservaStockService.liberar(venta);
+            }
+            notificarAnulacion(venta);
+        } else if (!venta.isStockDescontado()) {
+            confirmarStock(venta);
+        } else if (nuevoEstado == EstadoVenta.PENDIENTE) {
+            throw new BusinessException("Una venta PAGADA no puede volver a PENDIENTE.");
+        }
+        contadorService.ventaCambiada(actual, nuevoEstado);
+    }
+
+    // Descuento condicional en la BD (sin leer-modificar-escribir), uno por producto:
+    // si otra venta concurrente se llevó el stock, no se afecta ninguna fila
+    private void descontarStock(Map<Long, Integer> cantidadPorProducto, Map<Long, Producto> productos) {
+        for (Map.Entry<Long, Integer> entry : cantidadPorProducto.entrySet()) {
+            int filas = productoRepository.descontarStock(entry.getKey(), entry.getValue());
+            if (filas == 0) {
+                throw new BusinessException("Stock insuficiente para el producto: "
+                        + productos.get(entry.getKey()).getNombre());
+            }
+        }
+    }
 
-}
\ No newline at end of file
+    private void confirmarStock(Venta venta) {
+        Map<Long, Integer> cantidades = cantidadPorProducto(venta);
+        if (!reservaStockService.confirmar(venta)) {
+            // La reserva venció: se descuenta si todavía hay disponible
+            Map<Long, Producto> productos = new HashMap<>();
+            venta.getDetalles().forEach(d -> productos.put(d.getProducto().getId(), d.getProducto()));
+            descontarStock(cantidades, productos);
+            codigoProductoService.stockDescontado(cantidades);
+        }
+        venta.setStockDescontado(true);
+        kardexService.ventaDescontada(venta);
+        eventoService.publicar(TipoEvento.STOCK_MODIFICADO, venta.getId(), Map.of("diferencia", -unidades(cantidades)));
+    }
+
+    private void reponerStock(Venta venta) {
+        Map<Long, Integer> cantidades = cantidadPorProducto(venta);
+        Map<Long, Integer> devueltas = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : cantidades.entrySet()) {
+            productoRepository.reponerStock(entry.getKey(), entry.getValue());
+            devueltas.put(entry.getKey(), -entry.getValue());
+        }
+        kardexService.ventaAnulada(venta);
+        codigoProductoService.stockDescontado(devueltas);
+        eventoService.publicar(TipoEvento.STOCK_MODIFICADO, venta.getId(), Map.of("diferencia", unidades(cantidades)));
+    }
+
+    // TreeMap: siempre se bloquean las filas en el mismo orden
+    private static Map<Long, Integer> cantidadPorProducto(Venta venta) {
+        Map<Long, Integer> cantidades = new TreeMap<>();
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            cantidades.merge(detalle.getProducto().getId(), detalle.getCantidad(), Integer::sum);
+        }
+        return cantidades;
+    }
+
+    private static int unidades(Map<Long, Integer> cantidades) {
+        return cantidades.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // El resumen diario se corrige en la misma transacción; el resto de vistas, con el evento
+    private void notificarAnulacion(Venta venta) {
+        resumenVentasService.ventaAnulada(venta);
+        eventoService.publicar(TipoEvento.VENTA_ANULADA, venta.getId());
+    }
+}
@@ -0,0 +1,36 @@
+-- Migración manual de ventas de una sola línea al modelo cabecera/detalle.
+-- Ejecutar una vez sobre una base existente ANTES de iniciar la nueva versión
+-- (ddl-auto=update crea las tablas nuevas pero no migra datos ni elimina columnas).
+
+CREATE TABLE IF NOT EXISTS secuencias (
+    nombre VARCHAR(255) NOT NULL PRIMARY KEY,
+    valor  BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS detalle_venta (
+    id              BIGINT         NOT NULL PRIMARY KEY,
+    venta_id        BIGINT         NOT NULL,
+    producto_id     BIGINT         NOT NULL,
+    cantidad        INT            NOT NULL,
+    precio_unitario DECIMAL(12, 2) NOT NULL,
+    subtotal        DECIMAL(14, 2) NOT NULL,
+    CONSTRAINT fk_detalle_venta FOREIGN KEY (venta_id) REFERENCES ventas (id),
+    CONSTRAINT fk_detalle_producto FOREIGN KEY (producto_id) REFERENCES productos (id)
+);
+
+-- Cada venta antigua pasa a ser una cabecera con una sola línea
+INSERT INTO detalle_venta (id, venta_id, producto_id, cantidad, precio_unitario, subtotal)
+SELECT v.id, v.id, v.producto_id, v.cantidad, v.total / v.cantidad, v.total
+FROM ventas v;
+
+ALTER TABLE ventas DROP FOREIGN KEY fk_venta_producto;
+ALTER TABLE ventas DROP COLUMN producto_id, DROP COLUMN cantidad;
+ALTER TABLE ventas MODIFY id BIGINT NOT NULL;
+
+-- Los generadores continúan después de los ids existentes. Con allocationSize = 50 el optimizador
+-- pooled toma el valor guardado como el tope del bloque y reparte desde valor - 49: se siembra
+-- con MAX(id) + 50 para que el primer id nuevo sea MAX(id) + 1
+INSERT INTO secuencias (nombre, valor)
+SELECT 'ventas', COALESCE(MAX(id), 0) + 50 FROM ventas;
+INSERT INTO secuencias (nombre, valor)
+SELECT 'detalle_venta', COALESCE(MAX(id), 0) + 50 FROM detalle_venta;
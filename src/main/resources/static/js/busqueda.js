@@ -0,0 +1,107 @@
+/*
+ * Autocompletado para campos de formulario:
+ * <div class="relative">
+ *     <input type="text" class="buscador" data-url="/buscar/clientes" required/>
+ *     <input type="hidden" name="cliente"/>
+ * </div>
+ * Al escribir se consulta la URL por prefijo; al elegir una opción se guarda su id en el campo oculto.
+ */
+(function () {
+    const ESPERA_MS = 250;
+
+    function oculto(buscador) {
+        return buscador.parentElement.querySelector('input[type="hidden"]');
+    }
+
+    function lista(buscador) {
+        let ul = buscador.parentElement.querySelector('.buscador-opciones');
+        if (!ul) {
+            ul = document.createElement('ul');
+            ul.className = 'buscador-opciones absolute z-10 w-full bg-white border rounded shadow max-h-60 overflow-y-auto hidden';
+            buscador.parentElement.appendChild(ul);
+        }
+        return ul;
+    }
+
+    function cerrar(buscador) {
+        lista(buscador).classList.add('hidden');
+    }
+
+    function consultar(buscador, pagina) {
+        const url = buscador.dataset.url + '?q=' + encodeURIComponent(buscador.value) + '&page=' + pagina;
+        fetch(url)
+            .then(response => response.json())
+            .then(data => mostrar(buscador, data, pagina));
+    }
+
+    function mostrar(buscador, data, pagina) {
+        const ul = lista(buscador);
+        if (pagina === 0) {
+            ul.innerHTML = '';
+        } else {
+            ul.querySelector('.buscador-mas')?.remove();
+        }
+        if (pagina === 0 && data.opciones.length === 0) {
+            const vacio = document.createElement('li');
+            vacio.className = 'px-3 py-2 text-gray-500';
+            vacio.textContent = 'Sin resultados';
+            ul.appendChild(vacio);
+        }
+        data.opciones.forEach(opcion => {
+            const li = document.createElement('li');
+            li.className = 'px-3 py-2 cursor-pointer hover:bg-blue-100';
+            li.textContent = opcion.texto;
+            li.addEventListener('mousedown', function (e) {
+                e.preventDefault();
+                seleccionar(buscador, opcion.id, opcion.texto);
+                cerrar(buscador);
+            });
+            ul.appendChild(li);
+        });
+        if (data.hayMas) {
+            const mas = document.createElement('li');
+            mas.className = 'buscador-mas px-3 py-2 cursor-pointer text-blue-600 text-sm';
+            mas.textContent = 'Ver más...';
+            mas.addEventListener('mousedown', function (e) {
+                e.preventDefault();
+                consultar(buscador, pagina + 1);
+            });
+            ul.appendChild(mas);
+        }
+        ul.classList.remove('hidden');
+    }
+
+    // También se usa al abrir el modal de edición con el valor actual
+    function seleccionar(buscador, id, texto) {
+        buscador.value = texto;
+        oculto(buscador).value = id;
+        buscador.setCustomValidity('');
+    }
+
+    window.seleccionarOpcion = seleccionar;
+
+    document.addEventListener('input', function (e) {
+        const buscador = e.target;
+        if (!buscador.classList || !buscador.classList.contains('buscador')) {
+            return;
+        }
+        // Mientras no se elija una opción el campo no es válido
+        oculto(buscador).value = '';
+        buscador.setCustomValidity('Seleccione una opción de la lista');
+        clearTimeout(buscador._espera);
+        buscador._espera = setTimeout(() => consultar(buscador, 0), ESPERA_MS);
+    });
+
+    document.addEventListener('focusin', function (e) {
+        const buscador = e.target;
+        if (buscador.classList && buscador.classList.contains('buscador') && !oculto(buscador).value) {
+            consultar(buscador, 0);
+        }
+    });
+
+    document.addEventListener('focusout', function (e) {
+        if (e.target.classList && e.target.classList.contains('buscador')) {
+            cerrar(e.target);
+        }
+    });
+})();
@@ -0,0 +1,56 @@
+/* Reportes PDF en segundo plano: se encola el trabajo, se consulta su estado y se descarga al terminar */
+function exportarReporte(form) {
+    const alerta = (icon, title, text) => Swal.fire({
+        icon, title, text,
+        confirmButtonColor: icon === 'error' ? '#dc2626' : '#2563eb',
+        heightAuto: false,
+        scrollbarPadding: false
+    });
+
+    const esperar = (id) => new Promise((resolve, reject) => {
+        const consultar = () => fetch(form.action + '/' + id)
+            .then(response => {
+                if (!response.ok) {
+                    throw new Error('El reporte ya no está disponible');
+                }
+                return response.json();
+            })
+            .then(trabajo => {
+                if (trabajo.estado === 'EN_COLA' || trabajo.estado === 'PROCESANDO') {
+                    setTimeout(consultar, 1000);
+                } else {
+                    resolve(trabajo);
+                }
+            })
+            .catch(reject);
+        consultar();
+    });
+
+    Swal.fire({
+        title: 'Generando reporte...',
+        allowOutsideClick: false,
+        heightAuto: false,
+        scrollbarPadding: false,
+        didOpen: () => Swal.showLoading()
+    });
+
+    fetch(form.action, {
+        method: 'POST',
+        body: new FormData(form)
+    }).then(response => response.json().then(data => {
+        if (!response.ok) {
+            throw new Error(data.mensaje || 'Error en el servidor');
+        }
+        return esperar(data.id);
+    })).then(trabajo => {
+        if (trabajo.estado === 'SIN_DATOS') {
+            alerta('info', 'Sin resultados', 'No se encontraron datos en el rango de fechas seleccionado.');
+        } else if (trabajo.estado === 'ERROR') {
+            alerta('error', 'Error', trabajo.mensaje || 'No se pudo generar el reporte.');
+        } else {
+            Swal.close();
+            // El navegador descarga el archivo con el nombre de Content-Disposition
+            window.location.href = form.action + '/' + trabajo.id + '/descargar';
+        }
+    }).catch(error => alerta('error', 'Error', error.message));
+}
@@ -0,0 +1,145 @@
+package com.edu.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cada pool es una base H2 distinta con una tabla que dice quién respondió
+class EnrutadorDataSourceTest {
+
+    private static final long LECTURA_PROPIA_MS = 60_000;
+
+    private EnrutadorDataSource enrutador;
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transacciones;
+
+    @BeforeEach
+    void preparar() {
+        enrutador = new EnrutadorDataSource(base("primario"), base("aislado"), base("reportes"),
+                List.of(new EnrutadorDataSource.Replica("replica-1", base("replica"))), LECTURA_PROPIA_MS, 0);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(enrutador);
+        jdbc = new JdbcTemplate(dataSource);
+        transacciones = new DataSourceTransactionManager(dataSource);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    // === Enrutamiento ===
+    @Test
+    void lecturaDeSoloLecturaVaALaReplica() {
+        assertThat(origen(lectura())).isEqualTo("replica");
+    }
+
+    @Test
+    void escrituraVaAlPrimario() {
+        TransactionTemplate escritura = new TransactionTemplate(transacciones);
+        String origen = escritura.execute(estado -> {
+            jdbc.update("UPDATE origen SET escrituras = escrituras + 1");
+            return jdbc.queryForObject("SELECT nombre FROM origen", String.class);
+        });
+        assertThat(origen).isEqualTo("primario");
+    }
+
+    @Test
+    void soloLecturaSinNombreSigueEnElPrimario() {
+        TransactionTemplate plantilla = new TransactionTemplate(transacciones);
+        plantilla.setReadOnly(true);
+        assertThat(origen(plantilla)).isEqualTo("primario");
+    }
+
+    @Test
+    void trabajoDeReporteUsaSuPool() {
+        assertThat(ContextoReporte.ejecutar(() -> origen(lectura()))).isEqualTo("reportes");
+    }
+
+    @Test
+    void conCredencialesDelegaEnElPoolElegido() throws Exception {
+        try (Connection conexion = enrutador.getConnection("sa", "")) {
+            assertThat(conexion.getMetaData().getURL()).contains("primario");
+        }
+    }
+
+    @Test
+    void conexionAnidadaDelHiloSaleDelPoolAislado() throws Exception {
+        try (Connection primera = enrutador.getConnection()) {
+            try (Connection anidada = enrutador.getConnection()) {
+                assertThat(anidada.getMetaData().getURL()).contains("aislado");
+            }
+            assertThat(primera.getMetaData().getURL()).contains("primario");
+        }
+        try (Connection siguiente = enrutador.getConnection()) {
+            assertThat(siguiente.getMetaData().getURL()).contains("primario");
+        }
+    }
+
+    // === Leer lo propio ===
+    @Test
+    void trasEscribirLaSesionLeeDelPrimario() {
+        new TransactionTemplate(transacciones).executeWithoutResult(estado ->
+                jdbc.update("UPDATE origen SET escrituras = escrituras + 1"));
+
+        assertThat(origen(lectura())).isEqualTo("primario");
+    }
+
+    @Test
+    void vencidaLaVentanaVuelveALaReplica() {
+        new TransactionTemplate(transacciones).executeWithoutResult(estado ->
+                jdbc.update("UPDATE origen SET escrituras = escrituras + 1"));
+        RequestContextHolder.currentRequestAttributes().setAttribute(EnrutadorDataSource.ULTIMA_ESCRITURA,
+                System.currentTimeMillis() - LECTURA_PROPIA_MS - 1, RequestAttributes.SCOPE_SESSION);
+
+        assertThat(origen(lectura())).isEqualTo("replica");
+    }
+
+    @Test
+    void escrituraFallidaNoAbreLaVentana() {
+        TransactionTemplate escritura = new TransactionTemplate(transacciones);
+        escritura.executeWithoutResult(estado -> {
+            jdbc.update("UPDATE origen SET escrituras = escrituras + 1");
+            estado.setRollbackOnly();
+        });
+
+        assertThat(origen(lectura())).isEqualTo("replica");
+    }
+
+    // === Utilidades ===
+    private TransactionTemplate lectura() {
+        TransactionTemplate plantilla = new TransactionTemplate(transacciones);
+        plantilla.setReadOnly(true);
+        plantilla.setName("EnrutadorDataSourceTest.lectura");
+        return plantilla;
+    }
+
+    private String origen(TransactionTemplate plantilla) {
+        return plantilla.execute(estado -> jdbc.queryForObject("SELECT nombre FROM origen", String.class));
+    }
+
+    private static DataSource base(String nombre) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        new JdbcTemplate(dataSource).execute("CREATE TABLE IF NOT EXISTS origen (nombre VARCHAR(20), escrituras INT);"
+                + "DELETE FROM origen;"
+                + "INSERT INTO origen VALUES ('" + nombre + "', 0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,139 @@
+package com.edu.controller;
+
+import com.edu.entity.Categoria;
+import com.edu.entity.Cliente;
+import com.edu.entity.DetalleVenta;
+import com.edu.entity.EstadoVenta;
+import com.edu.entity.Producto;
+import com.edu.entity.Proveedor;
+import com.edu.entity.Rol;
+import com.edu.entity.Usuario;
+import com.edu.entity.Venta;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.ProveedorRepository;
+import com.edu.repository.RolRepository;
+import com.edu.repository.UsuarioRepository;
+import com.edu.service.ClienteService;
+import com.edu.service.VentaService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Aciertos y fallos de la caché de segundo nivel (GET /cache/estadisticas) en los flujos de listado y venta
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CacheEstadisticasTest {
+
+    private static final int VENTAS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private ProductoRepository productoRepository;
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private RolRepository rolRepository;
+
+    private String email;
+    private Cliente cliente;
+    private Producto producto;
+
+    @BeforeEach
+    void preparar() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        Rol rol = rolRepository.save(Rol.builder().nombre("VENDEDOR-" + sufijo).build());
+        email = "vendedor-" + sufijo + "@gesa.test";
+        usuarioRepository.save(Usuario.builder()
+                .username("vendedor-" + sufijo).password("x").email(email).rol(rol).enabled(true).build());
+        cliente = clienteService.crearCliente(Cliente.builder()
+                .nombre("Cliente " + sufijo).correo("cliente-" + sufijo + "@gesa.test")
+                .telefono(String.valueOf(System.nanoTime() % 1_000_000_000L)).build());
+        Proveedor proveedor = proveedorRepository.save(Proveedor.builder()
+                .nombre("Proveedor " + sufijo).ruc(String.format("%011d", System.nanoTime() % 100_000_000_000L))
+                .fechaRegistro(LocalDateTime.now()).build());
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Producto " + sufijo).precio(new BigDecimal("1.00")).stock(100).categoria(Categoria.OTROS)
+                .proveedor(proveedor).fechaRegistro(LocalDateTime.now()).build());
+    }
+
+    @Test
+    void listadoYVenta() throws Exception {
+        reiniciar();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/productos").with(user(email))).andExpect(status().isOk());
+            mockMvc.perform(get("/ventas").with(user(email))).andExpect(status().isOk());
+        }
+        // La segunda carga toma los proveedores de la caché de consultas; productos no tiene región
+        JsonNode listado = estadisticas();
+        assertThat(listado.get("consultasCacheAciertos").asLong()).isPositive();
+        assertThat(region(listado, "productos")).isNull();
+
+        reiniciar();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+        try {
+            for (int i = 0; i < VENTAS; i++) {
+                Venta venta = Venta.builder().cliente(cliente).estado(EstadoVenta.PAGADA).build();
+                venta.agregarDetalle(DetalleVenta.builder().producto(producto).cantidad(1).build());
+                ventaService.registrarVenta(venta);
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        // El proveedor de cada producto vendido sale de su región sin ir a la BD
+        JsonNode venta = estadisticas();
+        assertThat(region(venta, "proveedores").get("aciertos").asLong()).isPositive();
+        assertThat(region(venta, "proveedores").get("fallos").asLong()).isZero();
+        assertThat(region(venta, "productos")).isNull();
+    }
+
+    private static JsonNode region(JsonNode estadisticas, String nombre) {
+        for (JsonNode region : estadisticas.get("regiones")) {
+            if (region.get("nombre").asText().equals(nombre)) {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    private void reiniciar() throws Exception {
+        mockMvc.perform(post("/cache/estadisticas/reiniciar").with(user("admin").authorities(() -> "ADMIN")).with(csrf()))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode estadisticas() throws Exception {
+        String cuerpo = mockMvc.perform(get("/cache/estadisticas").with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(cuerpo);
+    }
+}
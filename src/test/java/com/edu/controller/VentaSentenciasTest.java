@@ -0,0 +1,170 @@
+package com.edu.controller;
+
+import com.edu.ContadorSentencias;
+import com.edu.dto.PaginaCursor;
+import com.edu.entity.Categoria;
+import com.edu.entity.Cliente;
+import com.edu.entity.DetalleVenta;
+import com.edu.entity.EstadoVenta;
+import com.edu.entity.Producto;
+import com.edu.entity.Proveedor;
+import com.edu.entity.Rol;
+import com.edu.entity.Usuario;
+import com.edu.entity.Venta;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.ProveedorRepository;
+import com.edu.repository.RolRepository;
+import com.edu.repository.UsuarioRepository;
+import com.edu.service.ClienteService;
+import com.edu.service.VentaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sentencias SQL por flujo de ventas: no deben crecer con las ventas de la página ni con sus líneas (N+1)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VentaSentenciasTest {
+
+    private static final int VENTAS = 10;
+    private static final int LINEAS = 3;
+
+    // Ventas con cliente y usuario, líneas por lotes y productos por lotes (el total sale de los contadores)
+    private static final int MAXIMO_LISTADO = 3;
+    // Ventas del índice con cliente y usuario, líneas por lotes y productos por lotes (sin COUNT)
+    private static final int MAXIMO_BUSQUEDA = 3;
+    // Cabecera, cliente (si no está en la caché de segundo nivel), usuario, líneas y productos
+    private static final int MAXIMO_DETALLE = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private ProductoRepository productoRepository;
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private RolRepository rolRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String email;
+    private Cliente cliente;
+    private final List<Venta> ventas = new ArrayList<>();
+
+    @BeforeEach
+    void preparar() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        Rol rol = rolRepository.save(Rol.builder().nombre("VENDEDOR-" + sufijo).build());
+        email = "vendedor-" + sufijo + "@gesa.test";
+        usuarioRepository.save(Usuario.builder()
+                .username("vendedor-" + sufijo).password("x").email(email).rol(rol).enabled(true).build());
+        // Por el servicio: el índice de búsqueda conoce al cliente por su evento
+        cliente = clienteService.crearCliente(Cliente.builder()
+                .nombre("Cliente " + sufijo).correo("cliente-" + sufijo + "@gesa.test")
+                .telefono(String.valueOf(System.nanoTime() % 1_000_000_000L)).build());
+        Proveedor proveedor = proveedorRepository.save(Proveedor.builder()
+                .nombre("Proveedor " + sufijo).ruc(String.format("%011d", System.nanoTime() % 100_000_000_000L))
+                .fechaRegistro(LocalDateTime.now()).build());
+
+        // Cada venta con productos propios: un N+1 sobre productos no se escondería tras la caché de sesión
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+        for (int i = 0; i < VENTAS; i++) {
+            Venta venta = Venta.builder().cliente(cliente).estado(EstadoVenta.PAGADA).build();
+            for (int j = 0; j < LINEAS; j++) {
+                Producto producto = productoRepository.save(Producto.builder()
+                        .nombre("Producto " + sufijo + "-" + i + "-" + j).precio(new BigDecimal("1.00")).stock(5)
+                        .categoria(Categoria.OTROS).proveedor(proveedor).fechaRegistro(LocalDateTime.now()).build());
+                venta.agregarDetalle(DetalleVenta.builder().producto(producto).cantidad(1).build());
+            }
+            ventas.add(ventaService.registrarVenta(venta));
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void limpiar() {
+        ventas.clear();
+    }
+
+    @Test
+    void listadoPorCursor() throws Exception {
+        ContadorSentencias.reiniciar();
+        MvcResult resultado = mockMvc.perform(get("/ventas").with(user(email))).andExpect(status().isOk()).andReturn();
+
+        assertThat(ContadorSentencias.total()).isLessThanOrEqualTo(MAXIMO_LISTADO);
+        PaginaCursor<?> pagina = (PaginaCursor<?>) resultado.getModelAndView().getModel().get("ventasPage");
+        assertThat(pagina.getContent()).hasSize(VENTAS);
+    }
+
+    @Test
+    void busqueda() throws Exception {
+        esperarIndice();
+
+        ContadorSentencias.reiniciar();
+        MvcResult resultado = mockMvc.perform(get("/ventas").param("keyword", cliente.getNombre()).with(user(email)))
+                .andExpect(status().isOk()).andReturn();
+
+        assertThat(ContadorSentencias.total()).isLessThanOrEqualTo(MAXIMO_BUSQUEDA);
+        Page<?> pagina = (Page<?>) resultado.getModelAndView().getModel().get("ventasPage");
+        assertThat(pagina.getContent()).hasSize(VENTAS);
+    }
+
+    @Test
+    void detalleDeUnaVenta() {
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+
+        ContadorSentencias.reiniciar();
+        List<String> lineas = lectura.execute(estado -> {
+            Venta venta = ventaService.obtenerVentaPorId(ventas.get(0).getId()).orElseThrow();
+            List<String> resultado = new ArrayList<>();
+            resultado.add(venta.getCliente().getNombre());
+            resultado.add(venta.getUsuario().getEmail());
+            venta.getDetalles().forEach(detalle -> resultado.add(detalle.getProducto().getNombre()));
+            return resultado;
+        });
+
+        assertThat(lineas).hasSize(2 + LINEAS);
+        assertThat(ContadorSentencias.total()).isLessThanOrEqualTo(MAXIMO_DETALLE);
+    }
+
+    // El índice de búsqueda en memoria recibe las ventas por el outbox, en segundo plano
+    private void esperarIndice() throws InterruptedException {
+        long limite = System.currentTimeMillis() + 15_000;
+        while (ventaService.buscarVentas(cliente.getNombre(), PageRequest.of(0, VENTAS)).getContent().size() < VENTAS
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(100);
+        }
+    }
+}
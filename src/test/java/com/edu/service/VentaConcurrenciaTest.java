@@ -0,0 +1,201 @@
+package com.edu.service;
+
+import com.edu.entity.Categoria;
+import com.edu.entity.Cliente;
+import com.edu.entity.DetalleVenta;
+import com.edu.entity.EstadoCliente;
+import com.edu.entity.EstadoVenta;
+import com.edu.entity.Producto;
+import com.edu.entity.Proveedor;
+import com.edu.entity.Rol;
+import com.edu.entity.Usuario;
+import com.edu.entity.Venta;
+import com.edu.exception.BusinessException;
+import com.edu.repository.ClienteRepository;
+import com.edu.repository.ProductoRepository;
+import com.edu.repository.ProveedorRepository;
+import com.edu.repository.RolRepository;
+import com.edu.repository.UsuarioRepository;
+import com.edu.repository.VentaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ventas simultáneas del mismo producto: el descuento condicional no deja vender más de lo que hay
+@SpringBootTest
+@ActiveProfiles("test")
+class VentaConcurrenciaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VentaConcurrenciaTest.class);
+
+    private static final int STOCK = 10;
+    private static final int VENTAS = 30;
+    // Comparación cronometrada: hilos y descuentos por hilo sobre un stock que no se agota
+    private static final int HILOS = 16;
+    private static final int DESCUENTOS = 25;
+
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private VentaRepository ventaRepository;
+    @Autowired
+    private ProductoRepository productoRepository;
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private RolRepository rolRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String email;
+    private Cliente cliente;
+    private Proveedor proveedor;
+    private Producto producto;
+
+    @BeforeEach
+    void preparar() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        Rol rol = rolRepository.save(Rol.builder().nombre("VENDEDOR-" + sufijo).build());
+        email = "vendedor-" + sufijo + "@gesa.test";
+        usuarioRepository.save(Usuario.builder()
+                .username("vendedor-" + sufijo).password("x").email(email).rol(rol).enabled(true).build());
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Cliente " + sufijo).estado(EstadoCliente.ACTIVO).fechaRegistro(LocalDateTime.now()).build());
+        proveedor = proveedorRepository.save(Proveedor.builder()
+                .nombre("Proveedor " + sufijo).ruc(String.format("%011d", System.nanoTime() % 100_000_000_000L))
+                .fechaRegistro(LocalDateTime.now()).build());
+        producto = nuevoProducto("Producto " + sufijo, STOCK);
+    }
+
+    @Test
+    void ventasSimultaneasNoVendenMasQueElStock() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(VENTAS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        for (int i = 0; i < VENTAS; i++) {
+            resultados.add(hilos.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(email, null, List.of()));
+                salida.await();
+                try {
+                    ventaService.registrarVenta(venta(EstadoVenta.PAGADA, 1));
+                    return true;
+                } catch (BusinessException e) {
+                    return false;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        salida.countDown();
+        hilos.shutdown();
+        assertThat(hilos.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        int vendidas = 0;
+        for (Future<Boolean> resultado : resultados) {
+            if (resultado.get()) {
+                vendidas++;
+            }
+        }
+        assertThat(vendidas).isEqualTo(STOCK);
+        assertThat(productoRepository.findById(producto.getId()).orElseThrow().getStock()).isZero();
+        assertThat(ventaRepository.findAll().stream()
+                .filter(venta -> venta.getCliente().getId().equals(cliente.getId()))
+                .count()).isEqualTo(STOCK);
+    }
+
+    // Descuentos por segundo del UPDATE condicional frente al camino anterior (leer la entidad, restar y
+    // guardarla). Solo cambia el paso del stock: el resto de registrarVenta es igual en los dos
+    @Test
+    void descuentoCondicionalFrenteALeerModificarEscribir() throws Exception {
+        int total = HILOS * DESCUENTOS;
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        Producto condicional = nuevoProducto("Condicional " + UUID.randomUUID(), total * 2);
+        double condicionalPorSegundo = cronometrar(() -> transaccion.executeWithoutResult(estado ->
+                productoRepository.descontarStock(condicional.getId(), 1)));
+
+        Producto anterior = nuevoProducto("Anterior " + UUID.randomUUID(), total * 2);
+        double anteriorPorSegundo = cronometrar(() -> transaccion.executeWithoutResult(estado -> {
+            Producto leido = productoRepository.findById(anterior.getId()).orElseThrow();
+            if (leido.getStock() >= 1) {
+                leido.setStock(leido.getStock() - 1);
+            }
+        }));
+
+        int finalCondicional = productoRepository.findById(condicional.getId()).orElseThrow().getStock();
+        int perdidos = productoRepository.findById(anterior.getId()).orElseThrow().getStock() - total;
+        log.info("Descuentos por segundo: condicional {}, leer-modificar-escribir {} ({} descuentos perdidos)",
+                Math.round(condicionalPorSegundo), Math.round(anteriorPorSegundo), perdidos);
+
+        assertThat(finalCondicional).isEqualTo(total);
+        assertThat(perdidos).isGreaterThanOrEqualTo(0);
+    }
+
+    // Descuentos por segundo con HILOS hilos a la vez; los que fallan también cuentan (como en una venta)
+    private double cronometrar(Runnable descuento) throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger fallidos = new AtomicInteger();
+        for (int i = 0; i < HILOS; i++) {
+            hilos.submit(() -> {
+                salida.await();
+                for (int j = 0; j < DESCUENTOS; j++) {
+                    try {
+                        descuento.run();
+                    } catch (RuntimeException e) {
+                        fallidos.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        hilos.shutdown();
+        assertThat(hilos.awaitTermination(120, TimeUnit.SECONDS)).isTrue();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        if (fallidos.get() > 0) {
+            log.info("Descuentos fallidos: {}", fallidos.get());
+        }
+        return HILOS * DESCUENTOS / segundos;
+    }
+
+    private Producto nuevoProducto(String nombre, int stock) {
+        return productoRepository.save(Producto.builder()
+                .nombre(nombre).precio(new BigDecimal("2.50")).stock(stock).categoria(Categoria.OTROS)
+                .proveedor(proveedor).fechaRegistro(LocalDateTime.now()).build());
+    }
+
+    private Venta venta(EstadoVenta estado, int cantidad) {
+        Venta venta = Venta.builder().cliente(cliente).estado(estado).build();
+        venta.agregarDetalle(DetalleVenta.builder().producto(producto).cantidad(cantidad).build());
+        return venta;
+    }
+}
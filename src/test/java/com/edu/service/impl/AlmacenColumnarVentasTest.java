@@ -0,0 +1,146 @@
+package com.edu.service.impl;
+
+import com.edu.dto.DimensionVentas;
+import com.edu.entity.EstadoVenta;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Agregaciones del almacén columnar: grupos densos y dispersos, filtros, cambios de cabecera y escaneo paralelo
+class AlmacenColumnarVentasTest {
+
+    private static final long DIA = LocalDate.of(2026, 3, 10).toEpochDay();
+    private static final int PENDIENTE = EstadoVenta.PENDIENTE.ordinal();
+    private static final int PAGADA = EstadoVenta.PAGADA.ordinal();
+    private static final int ANULADA = EstadoVenta.ANULADA.ordinal();
+    private static final int SIN_ANULADAS = (1 << PENDIENTE) | (1 << PAGADA);
+    private static final int TODAS = SIN_ANULADAS | (1 << ANULADA);
+
+    @Test
+    void porProductoCuentaLineasYPorDiaCuentaVentas() {
+        AlmacenColumnarVentas almacen = conDosVentas();
+
+        // [ventas, unidades, centavos] por clave
+        assertThat(agrupar(almacen, DimensionVentas.PRODUCTO, filtro(SIN_ANULADAS), true))
+                .containsOnlyKeys(10L, 11L)
+                .containsEntry(10L, "2/5/1400").containsEntry(11L, "1/1/300");
+        assertThat(agrupar(almacen, DimensionVentas.DIA, filtro(SIN_ANULADAS), false))
+                .containsOnlyKeys(DIA, DIA + 1)
+                .containsEntry(DIA, "1/3/800").containsEntry(DIA + 1, "1/3/900");
+    }
+
+    @Test
+    void filtrosPorRangoClienteProductoYCategoria() {
+        AlmacenColumnarVentas almacen = conDosVentas();
+        almacen.categoria(11, 4);
+
+        AlmacenColumnarVentas.Filtro soloSegundoDia = new AlmacenColumnarVentas.Filtro(
+                DIA + 1, Long.MAX_VALUE, SIN_ANULADAS, -1, -1, -1, -1);
+        assertThat(agrupar(almacen, DimensionVentas.CLIENTE, soloSegundoDia, false))
+                .containsOnlyKeys(8L).containsEntry(8L, "1/3/900");
+
+        AlmacenColumnarVentas.Filtro cliente7 = new AlmacenColumnarVentas.Filtro(
+                Long.MIN_VALUE, Long.MAX_VALUE, SIN_ANULADAS, -1, 7, -1, -1);
+        assertThat(agrupar(almacen, DimensionVentas.PRODUCTO, cliente7, true))
+                .containsOnlyKeys(10L, 11L);
+
+        AlmacenColumnarVentas.Filtro producto10 = new AlmacenColumnarVentas.Filtro(
+                Long.MIN_VALUE, Long.MAX_VALUE, SIN_ANULADAS, 10, -1, -1, -1);
+        assertThat(agrupar(almacen, DimensionVentas.DIA, producto10, true))
+                .containsEntry(DIA, "1/2/500").containsEntry(DIA + 1, "1/3/900");
+
+        // Categoría desconocida = -1; la 4 solo la tiene el producto 11
+        assertThat(agrupar(almacen, DimensionVentas.CATEGORIA, filtro(SIN_ANULADAS), true))
+                .containsOnlyKeys(-1L, 4L).containsEntry(4L, "1/1/300").containsEntry(-1L, "2/5/1400");
+        AlmacenColumnarVentas.Filtro categoria4 = new AlmacenColumnarVentas.Filtro(
+                Long.MIN_VALUE, Long.MAX_VALUE, SIN_ANULADAS, -1, -1, -1, 4);
+        assertThat(agrupar(almacen, DimensionVentas.PRODUCTO, categoria4, true)).containsOnlyKeys(11L);
+    }
+
+    @Test
+    void cambioDeCabeceraAlcanzaTodasLasLineasDeLaVenta() {
+        AlmacenColumnarVentas almacen = conDosVentas();
+
+        almacen.actualizarCabecera(1, 9, 2, ANULADA);
+
+        assertThat(agrupar(almacen, DimensionVentas.PRODUCTO, filtro(SIN_ANULADAS), true))
+                .containsOnlyKeys(10L).containsEntry(10L, "1/3/900");
+        assertThat(agrupar(almacen, DimensionVentas.ESTADO, filtro(TODAS), false))
+                .containsEntry((long) ANULADA, "1/3/800").containsEntry((long) PENDIENTE, "1/3/900");
+        assertThat(agrupar(almacen, DimensionVentas.USUARIO, filtro(TODAS), true))
+                .containsEntry(2L, "2/3/800").containsEntry(1L, "1/3/900");
+
+        // Una venta desconocida no toca nada
+        almacen.actualizarCabecera(99, 1, 1, PAGADA);
+        assertThat(almacen.filas()).isEqualTo(3);
+    }
+
+    @Test
+    void ventaRepetidaOVaciaNoSeAgrega() {
+        AlmacenColumnarVentas almacen = conDosVentas();
+
+        assertThat(almacen.agregarVenta(1, DIA, 7, 1, PAGADA, new int[]{12}, new int[]{1}, new long[]{100})).isFalse();
+        assertThat(almacen.agregarVenta(3, DIA, 7, 1, PAGADA, new int[0], new int[0], new long[0])).isFalse();
+        assertThat(almacen.filas()).isEqualTo(3);
+    }
+
+    @Test
+    void muchasFilasCrecenYSeEscaneanEnParalelo() {
+        AlmacenColumnarVentas almacen = new AlmacenColumnarVentas();
+        int ventas = 50_000;
+        Map<Long, Long> unidadesPorCliente = new HashMap<>();
+        long unidadesPorDia = 0;
+        for (int i = 1; i <= ventas; i++) {
+            // Clientes hasta 50 000: más claves que la acumulación densa, se agrupa con el mapa
+            int cliente = i;
+            int unidades = i % 5 + 1;
+            almacen.agregarVenta(i, DIA + i % 3, cliente, 1, PAGADA,
+                    new int[]{i % 7, 100}, new int[]{unidades, 1}, new long[]{unidades * 100L, 50});
+            unidadesPorCliente.merge((long) cliente, unidades + 1L, Long::sum);
+            if (i % 3 == 0) {
+                unidadesPorDia += unidades + 1;
+            }
+        }
+
+        assertThat(almacen.filas()).isEqualTo(ventas * 2);
+        AlmacenColumnarVentas.Resultado porCliente = almacen.agrupar(DimensionVentas.CLIENTE, filtro(SIN_ANULADAS), false);
+        assertThat(porCliente.grupos()).isEqualTo(ventas);
+        for (int i = 0; i < porCliente.grupos(); i++) {
+            assertThat(porCliente.unidades()[i]).isEqualTo(unidadesPorCliente.get(porCliente.claves()[i]));
+            assertThat(porCliente.ventas()[i]).isEqualTo(1);
+        }
+        assertThat(agrupar(almacen, DimensionVentas.DIA, filtro(SIN_ANULADAS), false))
+                .containsOnlyKeys(DIA, DIA + 1, DIA + 2);
+        assertThat(agrupar(almacen, DimensionVentas.DIA, filtro(SIN_ANULADAS), false).get(DIA))
+                .isEqualTo(ventas / 3 + "/" + unidadesPorDia + "/" + (unidadesPorDia * 100 - ventas / 3 * 50));
+    }
+
+    // Venta 1: día D, cliente 7, usuario 1, PAGADA, productos 10 (2 u.) y 11 (1 u.).
+    // Venta 2: día D + 1, cliente 8, usuario 1, PENDIENTE, producto 10 (3 u.)
+    private static AlmacenColumnarVentas conDosVentas() {
+        AlmacenColumnarVentas almacen = new AlmacenColumnarVentas();
+        almacen.agregarVenta(1, DIA, 7, 1, PAGADA, new int[]{10, 11}, new int[]{2, 1}, new long[]{500, 300});
+        almacen.agregarVenta(2, DIA + 1, 8, 1, PENDIENTE, new int[]{10}, new int[]{3}, new long[]{900});
+        return almacen;
+    }
+
+    private static AlmacenColumnarVentas.Filtro filtro(int estados) {
+        return new AlmacenColumnarVentas.Filtro(Long.MIN_VALUE, Long.MAX_VALUE, estados, -1, -1, -1, -1);
+    }
+
+    // Clave → "ventas/unidades/centavos"
+    private static Map<Long, String> agrupar(AlmacenColumnarVentas almacen, DimensionVentas dimension,
+                                             AlmacenColumnarVentas.Filtro filtro, boolean porLinea) {
+        AlmacenColumnarVentas.Resultado resultado = almacen.agrupar(dimension, filtro, porLinea);
+        Map<Long, String> grupos = new HashMap<>();
+        for (int i = 0; i < resultado.grupos(); i++) {
+            grupos.put(resultado.claves()[i],
+                    resultado.ventas()[i] + "/" + resultado.unidades()[i] + "/" + resultado.centavos()[i]);
+        }
+        return grupos;
+    }
+}
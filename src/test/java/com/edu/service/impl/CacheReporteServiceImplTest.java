@@ -0,0 +1,95 @@
+package com.edu.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// LRU de PDFs en disco: desalojo por bytes en orden de acceso, reemplazo de versiones y recarga al reiniciar
+class CacheReporteServiceImplTest {
+
+    // Con 1 MB de límite caben dos archivos de 400 KB, no tres
+    private static final int TAMANIO = 400 * 1024;
+
+    @TempDir
+    Path temporal;
+
+    @Test
+    void desalojaElMenosUsadoRecientemente() throws IOException {
+        CacheReporteServiceImpl cache = new CacheReporteServiceImpl(directorio(), 1);
+        cache.guardar("enero", "v1", pdf("a"));
+        cache.guardar("febrero", "v1", pdf("b"));
+        Path febrero = cache.buscar("febrero", "v1").orElseThrow();
+
+        // Leer enero lo deja como el más reciente: el siguiente alta desaloja febrero
+        assertThat(cache.buscar("enero", "v1")).isPresent();
+        cache.guardar("marzo", "v1", pdf("c"));
+
+        assertThat(cache.buscar("febrero", "v1")).isEmpty();
+        assertThat(febrero).doesNotExist();
+        assertThat(cache.buscar("enero", "v1")).isPresent();
+        assertThat(cache.buscar("marzo", "v1")).isPresent();
+    }
+
+    @Test
+    void nuevaVersionReemplazaLaAnterior() throws IOException {
+        CacheReporteServiceImpl cache = new CacheReporteServiceImpl(directorio(), 1);
+        cache.guardar("enero", "v1", pdf("a"));
+        Path anterior = cache.buscar("enero", "v1").orElseThrow();
+
+        cache.guardar("enero", "v2", pdf("b"));
+
+        assertThat(cache.buscar("enero", "v1")).isEmpty();
+        assertThat(anterior).doesNotExist();
+        assertThat(cache.buscar("enero", "v2")).isPresent();
+    }
+
+    @Test
+    void alReiniciarRecargaPorFechaYBorraTemporales() throws IOException {
+        Path directorio = temporal.resolve("cache");
+        CacheReporteServiceImpl cache = new CacheReporteServiceImpl(directorio.toString(), 1);
+        cache.guardar("enero", "v1", pdf("a"));
+        cache.guardar("febrero", "v1", pdf("b"));
+        Path enero = cache.buscar("enero", "v1").orElseThrow();
+        Path febrero = cache.buscar("febrero", "v1").orElseThrow();
+        // Enero se modificó después: se recarga detrás de febrero
+        Files.setLastModifiedTime(febrero, FileTime.from(Instant.parse("2026-01-01T00:00:00Z")));
+        Files.setLastModifiedTime(enero, FileTime.from(Instant.parse("2026-01-02T00:00:00Z")));
+        Path huerfano = Files.writeString(directorio.resolve("abc.pdf.tmp"), "a medias");
+
+        CacheReporteServiceImpl reiniciada = new CacheReporteServiceImpl(directorio.toString(), 1);
+
+        assertThat(huerfano).doesNotExist();
+        // Las consultas también cuentan como acceso: enero queda como el más reciente
+        assertThat(reiniciada.buscar("febrero", "v1")).contains(febrero);
+        assertThat(reiniciada.buscar("enero", "v1")).contains(enero);
+
+        reiniciada.guardar("marzo", "v1", pdf("c"));
+        assertThat(reiniciada.buscar("febrero", "v1")).isEmpty();
+        assertThat(reiniciada.buscar("enero", "v1")).isPresent();
+    }
+
+    @Test
+    void sinEntradaDevuelveVacio() throws IOException {
+        CacheReporteServiceImpl cache = new CacheReporteServiceImpl(directorio(), 1);
+        cache.guardar("enero", "v1", pdf("a"));
+
+        assertThat(cache.buscar("enero", "v2")).isEmpty();
+        assertThat(cache.buscar("abril", "v1")).isEqualTo(Optional.empty());
+    }
+
+    private String directorio() {
+        return temporal.resolve("cache").toString();
+    }
+
+    private Path pdf(String nombre) throws IOException {
+        return Files.write(temporal.resolve(nombre + ".pdf"), new byte[TAMANIO]);
+    }
+}
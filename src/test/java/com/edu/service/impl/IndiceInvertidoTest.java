@@ -0,0 +1,90 @@
+package com.edu.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Búsqueda por subcadena sin acentos ni mayúsculas, reindexado y orden por relevancia
+class IndiceInvertidoTest {
+
+    @Test
+    void encuentraSubcadenasSinAcentosNiMayusculas() {
+        IndiceInvertido indice = new IndiceInvertido(1);
+        indice.guardar(1L, "Café Orgánico");
+        indice.guardar(2L, "Té verde");
+
+        assertThat(indice.buscar("ORGANI").keySet()).containsExactly(1L);
+        assertThat(indice.buscar("  cafe ").keySet()).containsExactly(1L);
+        assertThat(indice.buscar("anico").keySet()).containsExactly(1L);
+        assertThat(indice.buscar("té").keySet()).containsExactlyInAnyOrder(2L);
+        assertThat(indice.buscar("cafe verde")).isEmpty();
+        assertThat(indice.buscar("")).isEmpty();
+    }
+
+    @Test
+    void todosLosTrigramasNoBastanSinLaSubcadena() {
+        IndiceInvertido indice = new IndiceInvertido(1);
+        // Contiene "abc" y "bcd" pero no "abcd"
+        indice.guardar(1L, "abc bcd");
+        indice.guardar(2L, "xabcdx");
+
+        assertThat(indice.buscar("abcd").keySet()).containsExactly(2L);
+    }
+
+    @Test
+    void consultaCortaRecorreLosDocumentos() {
+        IndiceInvertido indice = new IndiceInvertido(1);
+        indice.guardar(1L, "Ana");
+        indice.guardar(2L, "Luis");
+
+        assertThat(indice.buscar("a").keySet()).containsExactly(1L);
+        assertThat(indice.buscar("lu").keySet()).containsExactly(2L);
+    }
+
+    @Test
+    void guardarDeNuevoReemplazaElTextoAnterior() {
+        IndiceInvertido indice = new IndiceInvertido(1);
+        indice.guardar(1L, "Martillo");
+        indice.guardar(1L, "Destornillador");
+
+        assertThat(indice.buscar("martillo")).isEmpty();
+        assertThat(indice.buscar("tornillad").keySet()).containsExactly(1L);
+    }
+
+    @Test
+    void puntajePorCoincidenciaYPesoDelCampo() {
+        // Campo 0 (nombre) pesa 2, campo 1 (correo) pesa 1
+        IndiceInvertido indice = new IndiceInvertido(2, 1);
+        indice.guardar(1L, "Pedro", "otro@correo.com");
+        indice.guardar(2L, "Juan Pedro", "x@correo.com");
+        indice.guardar(3L, "Pedrosa", "y@correo.com");
+        indice.guardar(4L, "Lopez", "pedro@correo.com");
+        indice.guardar(5L, "Zapedro", "z@correo.com");
+
+        Map<Long, Integer> puntajes = indice.buscar("pedro");
+        // Igual (3) > empieza palabra (2) > contiene (1), por el peso del campo
+        assertThat(puntajes).containsEntry(1L, 6).containsEntry(2L, 4).containsEntry(3L, 4)
+                .containsEntry(4L, 2).containsEntry(5L, 2);
+        assertThat(indice.buscarOrdenado("pedro")).containsExactly(1L, 3L, 2L, 5L, 4L);
+    }
+
+    @Test
+    void buscarEnCampoIgnoraLosDemas() {
+        IndiceInvertido indice = new IndiceInvertido(1, 1);
+        indice.guardar(1L, "Pedro", "ana@correo.com");
+        indice.guardar(2L, "Ana", "pedro@correo.com");
+
+        assertThat(indice.buscarEnCampo("pedro", 0).keySet()).containsExactly(1L);
+        assertThat(indice.buscarEnCampo("pedro", 1).keySet()).containsExactly(2L);
+    }
+
+    @Test
+    void camposNulosNoFallan() {
+        IndiceInvertido indice = new IndiceInvertido(1, 1);
+        indice.guardar(1L, "Proveedor", null);
+
+        assertThat(indice.buscar("proveedor").keySet()).containsExactly(1L);
+    }
+}
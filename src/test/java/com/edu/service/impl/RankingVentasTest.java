@@ -0,0 +1,137 @@
+package com.edu.service.impl;
+
+import com.edu.dto.VentanaVentas;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Aritmética de ventanas del ranking: qué días entran en cada una y qué se resta al cambiar de día
+class RankingVentasTest {
+
+    private static final LocalDate HOY = LocalDate.of(2026, 3, 10);
+
+    @Test
+    void cadaVentanaCuentaSusDias() {
+        RankingVentas ranking = new RankingVentas(HOY);
+        ranking.sumar(HOY, 1, 3);
+        ranking.sumar(HOY.minusDays(6), 2, 5);
+        ranking.sumar(HOY.minusDays(7), 3, 7);
+        ranking.sumar(HOY.minusDays(29), 4, 2);
+        ranking.sumar(HOY.minusDays(30), 5, 9);
+
+        assertThat(top(ranking, VentanaVentas.HOY)).containsExactly("1:3");
+        assertThat(top(ranking, VentanaVentas.SIETE_DIAS)).containsExactly("2:5", "1:3");
+        assertThat(top(ranking, VentanaVentas.TREINTA_DIAS)).containsExactly("3:7", "2:5", "1:3", "4:2");
+        assertThat(top(ranking, VentanaVentas.HISTORICO)).containsExactly("5:9", "3:7", "2:5", "1:3", "4:2");
+    }
+
+    @Test
+    void avanzarVariosDiasRestaLoQueSaleDeCadaVentana() {
+        RankingVentas ranking = new RankingVentas(HOY);
+        ranking.sumar(HOY, 1, 3);
+        ranking.sumar(HOY.minusDays(2), 2, 5);
+        ranking.sumar(HOY.minusDays(10), 3, 7);
+
+        // Salto de 5 días: siete días = [hoy - 1, hoy + 5]
+        ranking.avanzar(HOY.plusDays(5));
+        assertThat(top(ranking, VentanaVentas.HOY)).isEmpty();
+        assertThat(top(ranking, VentanaVentas.SIETE_DIAS)).containsExactly("1:3");
+        assertThat(top(ranking, VentanaVentas.TREINTA_DIAS)).containsExactly("3:7", "2:5", "1:3");
+
+        // Treinta días = [hoy - 8, hoy + 21]: sale la venta de hace 10 días
+        ranking.avanzar(HOY.plusDays(21));
+        assertThat(top(ranking, VentanaVentas.SIETE_DIAS)).isEmpty();
+        assertThat(top(ranking, VentanaVentas.TREINTA_DIAS)).containsExactly("2:5", "1:3");
+
+        ranking.avanzar(HOY.plusDays(40));
+        assertThat(top(ranking, VentanaVentas.TREINTA_DIAS)).isEmpty();
+        assertThat(top(ranking, VentanaVentas.HISTORICO)).containsExactly("3:7", "2:5", "1:3");
+    }
+
+    @Test
+    void avanzarDiaADiaIgualQueDeUnaVez() {
+        RankingVentas diaADia = new RankingVentas(HOY);
+        RankingVentas deUnaVez = new RankingVentas(HOY);
+        for (int i = 0; i < 30; i++) {
+            diaADia.sumar(HOY.minusDays(i), i % 4, i + 1);
+            deUnaVez.sumar(HOY.minusDays(i), i % 4, i + 1);
+        }
+
+        for (int i = 1; i <= 12; i++) {
+            diaADia.avanzar(HOY.plusDays(i));
+        }
+        deUnaVez.avanzar(HOY.plusDays(12));
+
+        for (VentanaVentas ventana : VentanaVentas.values()) {
+            assertThat(top(diaADia, ventana)).as(ventana.name()).isEqualTo(top(deUnaVez, ventana));
+        }
+    }
+
+    @Test
+    void ventaAnuladaFueraDeLaVentanaDeSieteDias() {
+        RankingVentas ranking = new RankingVentas(HOY);
+        ranking.sumar(HOY, 1, 4);
+        ranking.sumar(HOY, 2, 1);
+
+        ranking.avanzar(HOY.plusDays(8));
+        assertThat(top(ranking, VentanaVentas.SIETE_DIAS)).isEmpty();
+
+        // La anulación llega con la fecha de la venta: solo resta donde la venta todavía cuenta
+        ranking.sumar(HOY, 1, -4);
+        assertThat(top(ranking, VentanaVentas.SIETE_DIAS)).isEmpty();
+        assertThat(top(ranking, VentanaVentas.TREINTA_DIAS)).containsExactly("2:1");
+        assertThat(top(ranking, VentanaVentas.HISTORICO)).containsExactly("2:1");
+
+        // Una venta nueva del mismo producto no arrastra la anulación
+        ranking.sumar(HOY.plusDays(8), 1, 2);
+        assertThat(top(ranking, VentanaVentas.SIETE_DIAS)).containsExactly("1:2");
+
+        // Cuando el día de la venta anulada sale de treinta días no se resta dos veces
+        ranking.avanzar(HOY.plusDays(31));
+        assertThat(top(ranking, VentanaVentas.TREINTA_DIAS)).containsExactly("1:2");
+        assertThat(top(ranking, VentanaVentas.HISTORICO)).containsExactly("1:2", "2:1");
+    }
+
+    @Test
+    void ventaAnuladaAnteriorATreintaDiasSoloRestaDelHistorico() {
+        RankingVentas ranking = new RankingVentas(HOY);
+        ranking.sumar(HOY.minusDays(40), 1, 6);
+        ranking.sumar(HOY, 2, 1);
+
+        ranking.sumar(HOY.minusDays(40), 1, -6);
+
+        assertThat(top(ranking, VentanaVentas.TREINTA_DIAS)).containsExactly("2:1");
+        assertThat(top(ranking, VentanaVentas.HISTORICO)).containsExactly("2:1");
+    }
+
+    @Test
+    void fechaFuturaYRetrocesoNoTocanLasVentanas() {
+        RankingVentas ranking = new RankingVentas(HOY);
+        ranking.sumar(HOY.plusDays(1), 1, 3);
+        ranking.sumar(HOY, 2, 1);
+
+        ranking.avanzar(HOY.minusDays(1));
+
+        assertThat(top(ranking, VentanaVentas.HOY)).containsExactly("2:1");
+        assertThat(top(ranking, VentanaVentas.HISTORICO)).containsExactly("1:3", "2:1");
+    }
+
+    @Test
+    void empateOrdenadoPorIdYTopAcotado() {
+        RankingVentas ranking = new RankingVentas(HOY);
+        ranking.sumar(HOY, 3, 2);
+        ranking.sumar(HOY, 1, 2);
+        ranking.sumar(HOY, 2, 5);
+
+        assertThat(top(ranking, VentanaVentas.HOY)).containsExactly("2:5", "1:2", "3:2");
+        assertThat(ranking.top(VentanaVentas.HOY, 2)).hasSize(2);
+    }
+
+    // "productoId:cantidad" en el orden del ranking
+    private static List<String> top(RankingVentas ranking, VentanaVentas ventana) {
+        return ranking.top(ventana, 100).stream().map(fila -> fila[0] + ":" + fila[1]).toList();
+    }
+}
@@ -0,0 +1,94 @@
+package com.edu.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Autocompletado por prefijo: orden por vendidos, páginas con y sin los mejores precalculados, altas y bajas
+class TrieProductosTest {
+
+    @Test
+    void prefijoOrdenadoPorVendidosYLuegoPorNombre() {
+        TrieProductos trie = new TrieProductos(10);
+        trie.guardar(1, "Arroz");
+        trie.guardar(2, "Arveja");
+        trie.guardar(3, "Aceite");
+        trie.guardar(4, "Azúcar");
+        trie.sumarVendidos(2, 5);
+
+        assertThat(trie.buscar("ar", 0, 10)).containsExactly(2L, 1L);
+        assertThat(trie.buscar("A", 0, 10)).containsExactly(2L, 3L, 1L, 4L);
+        assertThat(trie.buscar("azu", 0, 10)).containsExactly(4L);
+        assertThat(trie.buscar("b", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void sumarVendidosReordenaYAceptaRestas() {
+        TrieProductos trie = new TrieProductos(10);
+        trie.guardar(1, "Leche");
+        trie.guardar(2, "Lenteja");
+        trie.sumarVendidos(1, 3);
+        assertThat(trie.buscar("le", 0, 10)).containsExactly(1L, 2L);
+
+        trie.sumarVendidos(2, 4);
+        assertThat(trie.buscar("le", 0, 10)).containsExactly(2L, 1L);
+
+        // Una anulación resta
+        trie.sumarVendidos(2, -4);
+        assertThat(trie.buscar("le", 0, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void paginaConUnElementoDeMas() {
+        TrieProductos trie = new TrieProductos(3);
+        for (int i = 1; i <= 7; i++) {
+            trie.guardar(i, "Pan " + i);
+            trie.sumarVendidos(i, 10 - i);
+        }
+
+        // Con k = 3 la primera página de 2 (+1) sale de los mejores; la segunda recorre el subárbol
+        assertThat(trie.buscar("pan", 0, 2)).containsExactly(1L, 2L, 3L);
+        assertThat(trie.buscar("pan", 1, 2)).containsExactly(3L, 4L, 5L);
+        assertThat(trie.buscar("pan", 3, 2)).containsExactly(7L);
+    }
+
+    @Test
+    void guardarDeNuevoRenombra() {
+        TrieProductos trie = new TrieProductos(10);
+        trie.guardar(1, "Galletas");
+        trie.guardar(1, "Gaseosa");
+
+        assertThat(trie.buscar("gall", 0, 10)).isEmpty();
+        assertThat(trie.buscar("gas", 0, 10)).containsExactly(1L);
+        assertThat(trie.nombre(1)).isEqualTo("Gaseosa");
+    }
+
+    @Test
+    void quitarPodaSinAfectarAOtros() {
+        TrieProductos trie = new TrieProductos(10);
+        trie.guardar(1, "Sal");
+        trie.guardar(2, "Salsa");
+        trie.guardar(3, "Salchicha");
+
+        trie.quitar(2);
+        assertThat(trie.buscar("sals", 0, 10)).isEmpty();
+        assertThat(trie.buscar("sal", 0, 10)).containsExactly(1L, 3L);
+        assertThat(trie.nombre(2)).isNull();
+
+        trie.quitar(1);
+        assertThat(trie.buscar("sal", 0, 10)).containsExactly(3L);
+        trie.quitar(3);
+        assertThat(trie.buscar("s", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void nombresQueSoloDifierenEnAcentosCompartenNodo() {
+        TrieProductos trie = new TrieProductos(10);
+        trie.guardar(1, "Limón");
+        trie.guardar(2, "limon");
+
+        assertThat(trie.buscar("LIMON", 0, 10)).containsExactlyInAnyOrder(1L, 2L);
+        trie.quitar(1);
+        assertThat(trie.buscar("limón", 0, 10)).containsExactly(2L);
+    }
+}